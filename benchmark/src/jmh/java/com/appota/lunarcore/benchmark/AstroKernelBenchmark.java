@@ -0,0 +1,53 @@
+package com.appota.lunarcore.benchmark;
+
+import com.appota.lunarcore.AstroKernel;
+import com.appota.lunarcore.LunarCalendar;
+import com.appota.lunarcore.LunarYearTable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static com.appota.lunarcore.benchmark.DateSamples.TIME_ZONE;
+
+/**
+ * AstroKernel.REFERENCE against AstroKernel.FAST: random conversions (one or two new moons each,
+ * the months 11 being cached), and a table of 100 years (new moons and sun longitudes only).
+ */
+@State(Scope.Thread)
+public class AstroKernelBenchmark {
+    @Param({ "REFERENCE", "FAST" })
+    private AstroKernel kernel;
+
+    private DateSamples randomSolar;
+    private DateSamples randomLunar;
+    private LunarCalendar calendar;
+    private int index;
+
+    @Setup
+    public void setup() {
+        randomSolar = DateSamples.randomSolar(1900, 2100);
+        randomLunar = DateSamples.toLunar(randomSolar);
+        calendar = LunarCalendar.forOffset(TIME_ZONE, kernel);
+    }
+
+    @Benchmark
+    public long solar2LunarRandom() {
+        int i = index++ & DateSamples.MASK;
+        return calendar.convertSolar2LunarPacked(randomSolar.days[i], randomSolar.months[i], randomSolar.years[i]);
+    }
+
+    @Benchmark
+    public long lunar2SolarRandom() {
+        int i = index++ & DateSamples.MASK;
+        return calendar.convertLunar2SolarPacked(randomLunar.days[i], randomLunar.months[i], randomLunar.years[i],
+                randomLunar.leaps[i]);
+    }
+
+    @Benchmark
+    public LunarYearTable buildTable100Years() {
+        return LunarYearTable.build(1950, 2049, TIME_ZONE, kernel);
+    }
+}
@@ -0,0 +1,136 @@
+package com.appota.lunarcore.benchmark;
+
+import com.appota.lunarcore.CanChi;
+import com.appota.lunarcore.DayRating;
+import com.appota.lunarcore.LunarCoreHelper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+/**
+ * The four day Can-Chi getters and rateDay, on single, sequential and random dates.
+ * legacyCalendarDayIndex is the old Calendar based computation, kept here as a baseline.
+ */
+@State(Scope.Thread)
+public class CanChiBenchmark {
+    private static final int DAYS_OF_YEAR = 365;
+
+    private DateSamples randomSolar;
+    private DateSamples yearSolar;
+    private String[] chiDays;
+    private int[] chiIndexes;
+    private int[] lunarMonths;
+    private int index;
+
+    @Setup
+    public void setup() {
+        randomSolar = DateSamples.randomSolar(1900, 2100);
+        yearSolar = DateSamples.solarYear(2019);
+        chiDays = new String[DateSamples.SIZE];
+        chiIndexes = new int[DateSamples.SIZE];
+        lunarMonths = new int[DateSamples.SIZE];
+        for (int i = 0; i < DateSamples.SIZE; i++) {
+            chiDays[i] = LunarCoreHelper.getChiDayLunar(randomSolar.days[i], randomSolar.months[i], randomSolar.years[i]);
+            chiIndexes[i] = CanChi.chiOf(CanChi.dayIndex(randomSolar.days[i], randomSolar.months[i], randomSolar.years[i]));
+            lunarMonths[i] = LunarCoreHelper.convertSolar2Lunar(randomSolar.days[i], randomSolar.months[i],
+                    randomSolar.years[i], DateSamples.TIME_ZONE)[1];
+        }
+    }
+
+    @Benchmark
+    public String canDaySingle() {
+        return LunarCoreHelper.getCanDayLunar(2, 5, 2016);
+    }
+
+    @Benchmark
+    public String canDayRandom() {
+        int i = index++ & DateSamples.MASK;
+        return LunarCoreHelper.getCanDayLunar(randomSolar.days[i], randomSolar.months[i], randomSolar.years[i]);
+    }
+
+    @Benchmark
+    public String chiDayRandom() {
+        int i = index++ & DateSamples.MASK;
+        return LunarCoreHelper.getChiDayLunar(randomSolar.days[i], randomSolar.months[i], randomSolar.years[i]);
+    }
+
+    @Benchmark
+    public String chineseCanDayRandom() {
+        int i = index++ & DateSamples.MASK;
+        return LunarCoreHelper.getChineseCanDayLunar(randomSolar.days[i], randomSolar.months[i], randomSolar.years[i]);
+    }
+
+    @Benchmark
+    public String chineseChiDayRandom() {
+        int i = index++ & DateSamples.MASK;
+        return LunarCoreHelper.getChineseChiDayLunar(randomSolar.days[i], randomSolar.months[i], randomSolar.years[i]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String chiDayRandomThreads() {
+        return chiDayRandom();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DAYS_OF_YEAR)
+    public void canChiDaySequential(Blackhole bh) {
+        for (int i = 0; i < DAYS_OF_YEAR; i++) {
+            bh.consume(LunarCoreHelper.getCanDayLunar(yearSolar.days[i], yearSolar.months[i], yearSolar.years[i]));
+            bh.consume(LunarCoreHelper.getChiDayLunar(yearSolar.days[i], yearSolar.months[i], yearSolar.years[i]));
+        }
+    }
+
+    @Benchmark
+    public int legacyCalendarDayIndex() {
+        int i = index++ & DateSamples.MASK;
+        return legacyDayIndex(randomSolar.days[i], randomSolar.months[i], randomSolar.years[i]);
+    }
+
+    @Benchmark
+    public String rateDaySingle() {
+        return LunarCoreHelper.rateDay("Dậu", 3);
+    }
+
+    @Benchmark
+    public String rateDayRandom() {
+        int i = index++ & DateSamples.MASK;
+        return LunarCoreHelper.rateDay(chiDays[i], lunarMonths[i]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String rateDayRandomThreads() {
+        return rateDayRandom();
+    }
+
+    @Benchmark
+    public DayRating rateDayIndexRandom() {
+        int i = index++ & DateSamples.MASK;
+        return LunarCoreHelper.rateDay(chiIndexes[i], lunarMonths[i]);
+    }
+
+    /**
+     * The day Can-Chi computation before it moved to Julian day numbers: days from 1/3/1996 (Đinh Dậu)
+     * measured with two GregorianCalendar objects.
+     */
+    private static int legacyDayIndex(int solarDay, int solarMonth, int solarYear) {
+        Calendar currentCalendar = new GregorianCalendar();
+        currentCalendar.set(solarYear, solarMonth - 1, solarDay, 0, 0, 0);
+        Calendar checkCalendar = new GregorianCalendar();
+        checkCalendar.set(1996, 2, 1, 0, 0, 0);
+        int numDays = (int) ((currentCalendar.getTimeInMillis() / 1000L - checkCalendar
+                .getTimeInMillis() / 1000L) / (60 * 60 * 24));
+        int iCan = ((3 + numDays % 10) % 10 + 10) % 10;
+        int iChi = ((9 + numDays % 12) % 12 + 12) % 12;
+        return (iCan << 4) | iChi;
+    }
+}
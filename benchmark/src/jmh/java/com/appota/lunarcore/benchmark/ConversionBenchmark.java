@@ -0,0 +1,93 @@
+package com.appota.lunarcore.benchmark;
+
+import com.appota.lunarcore.LunarCoreHelper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static com.appota.lunarcore.benchmark.DateSamples.TIME_ZONE;
+
+/**
+ * convertSolar2Lunar and convertLunar2Solar, with three workloads:
+ * the same date again and again, every day of a year in order, and random dates over 1900-2100.
+ * The random workloads also run on 4 threads, to see how the shared state (the year cache) scales.
+ */
+@State(Scope.Thread)
+public class ConversionBenchmark {
+    private static final int DAYS_OF_YEAR = 365;
+
+    private DateSamples randomSolar;
+    private DateSamples randomLunar;
+    private DateSamples yearSolar;
+    private int[] yearLunarDays;
+    private int index;
+
+    @Setup
+    public void setup() {
+        randomSolar = DateSamples.randomSolar(1900, 2100);
+        randomLunar = DateSamples.toLunar(randomSolar);
+        yearSolar = DateSamples.solarYear(2019);
+        yearLunarDays = new int[] { 1, 15, 29 };
+    }
+
+    @Benchmark
+    public int[] solar2LunarSingle() {
+        return LunarCoreHelper.convertSolar2Lunar(2, 5, 2016, TIME_ZONE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DAYS_OF_YEAR)
+    public void solar2LunarSequential(Blackhole bh) {
+        for (int i = 0; i < DAYS_OF_YEAR; i++) {
+            bh.consume(LunarCoreHelper.convertSolar2Lunar(yearSolar.days[i], yearSolar.months[i],
+                    yearSolar.years[i], TIME_ZONE));
+        }
+    }
+
+    @Benchmark
+    public int[] solar2LunarRandom() {
+        int i = index++ & DateSamples.MASK;
+        return LunarCoreHelper.convertSolar2Lunar(randomSolar.days[i], randomSolar.months[i],
+                randomSolar.years[i], TIME_ZONE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int[] solar2LunarRandomThreads() {
+        return solar2LunarRandom();
+    }
+
+    @Benchmark
+    public int[] lunar2SolarSingle() {
+        return LunarCoreHelper.convertLunar2Solar(26, 3, 2016, 0, TIME_ZONE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(36)
+    public void lunar2SolarSequential(Blackhole bh) {
+        // 1st, 15th and 29th of each month of a lunar year
+        for (int month = 1; month <= 12; month++) {
+            for (int day : yearLunarDays) {
+                bh.consume(LunarCoreHelper.convertLunar2Solar(day, month, 2019, 0, TIME_ZONE));
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] lunar2SolarRandom() {
+        int i = index++ & DateSamples.MASK;
+        return LunarCoreHelper.convertLunar2Solar(randomLunar.days[i], randomLunar.months[i],
+                randomLunar.years[i], randomLunar.leaps[i], TIME_ZONE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int[] lunar2SolarRandomThreads() {
+        return lunar2SolarRandom();
+    }
+}
@@ -0,0 +1,67 @@
+package com.appota.lunarcore.benchmark;
+
+import com.appota.lunarcore.CanChi;
+import com.appota.lunarcore.DateKernels;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Batch kernels against a loop over the one date methods.
+ * Operations are dates, so the throughput is in dates per microsecond.
+ */
+@State(Scope.Thread)
+public class DateKernelsBenchmark {
+    private final DateSamples samples = DateSamples.randomSolar(1900, 2100);
+    private final int[] jd = new int[DateSamples.SIZE];
+    private final int[] indexes = new int[DateSamples.SIZE];
+    private final int[] days = new int[DateSamples.SIZE];
+    private final int[] months = new int[DateSamples.SIZE];
+    private final int[] years = new int[DateSamples.SIZE];
+
+    @Setup
+    public void setup() {
+        DateKernels.jdFromDates(samples.days, samples.months, samples.years, jd);
+        DateKernels.dayCanChi(jd, indexes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DateSamples.SIZE)
+    public int[] dayIndexLoop() {
+        for (int i = 0; i < DateSamples.SIZE; i++) {
+            indexes[i] = CanChi.dayIndex(samples.days[i], samples.months[i], samples.years[i]);
+        }
+        return indexes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DateSamples.SIZE)
+    public int[] jdFromDates() {
+        DateKernels.jdFromDates(samples.days, samples.months, samples.years, jd);
+        return jd;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DateSamples.SIZE)
+    public int[] dayCanChi() {
+        DateKernels.dayCanChi(samples.days, samples.months, samples.years, indexes, 0, DateSamples.SIZE);
+        return indexes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DateSamples.SIZE)
+    public int[] jdToDates() {
+        DateKernels.jdToDates(jd, days, months, years);
+        return days;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DateSamples.SIZE)
+    public int[] stemsAndBranches() {
+        DateKernels.stemsAndBranches(indexes, days, months);
+        return days;
+    }
+}
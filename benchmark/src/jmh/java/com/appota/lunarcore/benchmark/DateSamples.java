@@ -0,0 +1,82 @@
+package com.appota.lunarcore.benchmark;
+
+import com.appota.lunarcore.LunarCoreHelper;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Random;
+
+/**
+ * Input dates shared by the benchmarks, built once with a fixed seed so runs are comparable.
+ * Each sample is stored as three int arrays (day, month, year), plus the lunar leap flag for lunar samples.
+ */
+final class DateSamples {
+    static final double TIME_ZONE = 7.0;
+    static final int SIZE = 4096;
+    static final int MASK = SIZE - 1;
+
+    final int[] days = new int[SIZE];
+    final int[] months = new int[SIZE];
+    final int[] years = new int[SIZE];
+    final int[] leaps = new int[SIZE];
+
+    private DateSamples() {
+    }
+
+    /**
+     *
+     * @param fromYear
+     * @param toYear
+     * @return solar dates picked at random between 1/1/fromYear and 31/12/toYear
+     */
+    static DateSamples randomSolar(int fromYear, int toYear) {
+        DateSamples samples = new DateSamples();
+        Random random = new Random(42);
+        Calendar calendar = new GregorianCalendar();
+        for (int i = 0; i < SIZE; i++) {
+            calendar.clear();
+            calendar.set(fromYear + random.nextInt(toYear - fromYear + 1), 0, 1);
+            calendar.add(Calendar.DAY_OF_YEAR, random.nextInt(calendar.getActualMaximum(Calendar.DAY_OF_YEAR)));
+            samples.days[i] = calendar.get(Calendar.DAY_OF_MONTH);
+            samples.months[i] = calendar.get(Calendar.MONTH) + 1;
+            samples.years[i] = calendar.get(Calendar.YEAR);
+        }
+        return samples;
+    }
+
+    /**
+     *
+     * @param solar
+     * @return the lunar dates of the solar samples, so lunar to solar benchmarks only get valid input
+     */
+    static DateSamples toLunar(DateSamples solar) {
+        DateSamples samples = new DateSamples();
+        for (int i = 0; i < SIZE; i++) {
+            int[] lunar = LunarCoreHelper.convertSolar2Lunar(solar.days[i], solar.months[i], solar.years[i], TIME_ZONE);
+            samples.days[i] = lunar[0];
+            samples.months[i] = lunar[1];
+            samples.years[i] = lunar[2];
+            samples.leaps[i] = lunar[3];
+        }
+        return samples;
+    }
+
+    /**
+     *
+     * @param year
+     * @return all the days of a solar year, in order (the rest of the arrays is left empty)
+     */
+    static DateSamples solarYear(int year) {
+        DateSamples samples = new DateSamples();
+        Calendar calendar = new GregorianCalendar(year, 0, 1);
+        int i = 0;
+        while (calendar.get(Calendar.YEAR) == year) {
+            samples.days[i] = calendar.get(Calendar.DAY_OF_MONTH);
+            samples.months[i] = calendar.get(Calendar.MONTH) + 1;
+            samples.years[i] = year;
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+            i++;
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,75 @@
+package com.appota.lunarcore.benchmark;
+
+import com.appota.lunarcore.DateKernels;
+import com.appota.lunarcore.DayRating;
+import com.appota.lunarcore.LunarCalendar;
+import com.appota.lunarcore.LunarCoreHelper;
+import com.appota.lunarcore.LunarDayIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static com.appota.lunarcore.benchmark.DateSamples.TIME_ZONE;
+
+/**
+ * "The Good days of branch Dần in the next 6 months": a LunarDayIndex query against the String methods day by day,
+ * and the cost of building the index of 10 years.
+ */
+@State(Scope.Thread)
+public class DayIndexBenchmark {
+    private LunarCalendar calendar;
+    private LunarDayIndex index;
+    private LunarDayIndex.Filter goodDan;
+    private LunarDayIndex.Filter goodFirstOrFifteenth;
+    private int[] julianDays;
+    // The 184 days from 1/3/2024 to 31/8/2024
+    private int[] sixMonths = new int[184];
+    private int[] days = new int[184];
+    private int[] months = new int[184];
+    private int[] years = new int[184];
+
+    @Setup
+    public void setup() {
+        calendar = LunarCalendar.forOffset(TIME_ZONE);
+        index = calendar.dayIndex(1, 1, 2020, 31, 12, 2029);
+        goodDan = new LunarDayIndex.Filter().ratings(DayRating.GOOD).branches(2);
+        goodFirstOrFifteenth = new LunarDayIndex.Filter().ratings(DayRating.GOOD).lunarDays(1, 15);
+        julianDays = new int[200];
+        int[] first = new int[1];
+        DateKernels.jdFromDates(new int[] { 1 }, new int[] { 3 }, new int[] { 2024 }, first);
+        for (int i = 0; i < sixMonths.length; i++) {
+            sixMonths[i] = first[0] + i;
+        }
+        DateKernels.jdToDates(sixMonths, days, months, years);
+    }
+
+    @Benchmark
+    public int index6Months() {
+        return index.find(goodDan, 1, 3, 2024, 31, 8, 2024, julianDays);
+    }
+
+    @Benchmark
+    public int indexCount10Years() {
+        return index.count(goodFirstOrFifteenth, 1, 1, 2020, 31, 12, 2029);
+    }
+
+    @Benchmark
+    public int strings6Months() {
+        int count = 0;
+        for (int i = 0; i < sixMonths.length; i++) {
+            int[] lunar = calendar.convertSolar2Lunar(days[i], months[i], years[i]);
+            String chi = LunarCoreHelper.getChiDayLunar(days[i], months[i], years[i]);
+            if ("Dần".equals(chi) && "Good".equals(LunarCoreHelper.rateDay(chi, lunar[1]))) {
+                julianDays[count++] = sixMonths[i];
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public LunarDayIndex build10Years() {
+        return calendar.dayIndex(1, 1, 2020, 31, 12, 2029);
+    }
+}
@@ -0,0 +1,100 @@
+package com.appota.lunarcore.benchmark;
+
+import com.appota.lunarcore.CanChi;
+import com.appota.lunarcore.LunarCoreHelper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+
+import static com.appota.lunarcore.benchmark.DateSamples.TIME_ZONE;
+
+/**
+ * Dates held as LocalDate or epoch days: the epoch day entry points against splitting the date into
+ * (d, m, y) for the solar date methods, one date at a time and in bulk (10 sorted years of days).
+ */
+@State(Scope.Thread)
+public class DayNumberBenchmark {
+    private static final int BULK_DAYS = 3653;
+
+    private LocalDate[] dates;
+    private long[] epochDays;
+    private long[] sortedEpochDays;
+    private long[] out;
+    private int index;
+
+    @Setup
+    public void setup() {
+        DateSamples randomSolar = DateSamples.randomSolar(1900, 2100);
+        dates = new LocalDate[DateSamples.SIZE];
+        epochDays = new long[DateSamples.SIZE];
+        for (int i = 0; i < DateSamples.SIZE; i++) {
+            dates[i] = LocalDate.of(randomSolar.years[i], randomSolar.months[i], randomSolar.days[i]);
+            epochDays[i] = dates[i].toEpochDay();
+        }
+        long first = LocalDate.of(2020, 1, 1).toEpochDay();
+        sortedEpochDays = new long[BULK_DAYS];
+        for (int i = 0; i < BULK_DAYS; i++) {
+            sortedEpochDays[i] = first + i;
+        }
+        out = new long[BULK_DAYS];
+    }
+
+    @Benchmark
+    public long solar2LunarFromFields() {
+        LocalDate date = dates[index++ & DateSamples.MASK];
+        return LunarCoreHelper.convertSolar2LunarPacked(date.getDayOfMonth(), date.getMonthValue(), date.getYear(),
+                TIME_ZONE);
+    }
+
+    @Benchmark
+    public long solar2LunarFromEpochDay() {
+        return LunarCoreHelper.convertEpochDay2LunarPacked(epochDays[index++ & DateSamples.MASK], TIME_ZONE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_DAYS)
+    public long[] solar2LunarFromFieldsSorted() {
+        for (int i = 0; i < BULK_DAYS; i++) {
+            LocalDate date = LocalDate.ofEpochDay(sortedEpochDays[i]);
+            out[i] = LunarCoreHelper.convertSolar2LunarPacked(date.getDayOfMonth(), date.getMonthValue(),
+                    date.getYear(), TIME_ZONE);
+        }
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_DAYS)
+    public long[] solar2LunarBulkSorted() {
+        LunarCoreHelper.convertEpochDays2LunarPacked(sortedEpochDays, out, 0, BULK_DAYS, TIME_ZONE);
+        return out;
+    }
+
+    @Benchmark
+    public LocalDate lunar2SolarToFields() {
+        // Trung Thu of the years 1900-2027
+        int[] solar = LunarCoreHelper.convertLunar2Solar(15, 8, 1900 + (index++ & 127), 0, TIME_ZONE);
+        return LocalDate.of(solar[2], solar[1], solar[0]);
+    }
+
+    @Benchmark
+    public LocalDate lunar2SolarToEpochDay() {
+        return LocalDate.ofEpochDay(LunarCoreHelper.convertLunar2EpochDay(15, 8, 1900 + (index++ & 127), 0,
+                TIME_ZONE));
+    }
+
+    @Benchmark
+    public int canChiFromFields() {
+        LocalDate date = dates[index++ & DateSamples.MASK];
+        return CanChi.dayIndex(date.getDayOfMonth(), date.getMonthValue(), date.getYear());
+    }
+
+    @Benchmark
+    public int canChiFromEpochDay() {
+        return CanChi.epochDayIndex(epochDays[index++ & DateSamples.MASK]);
+    }
+}
@@ -0,0 +1,68 @@
+package com.appota.lunarcore.benchmark;
+
+import com.appota.lunarcore.LunarCoreHelper;
+import com.appota.lunarcore.LunarDate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import static com.appota.lunarcore.benchmark.DateSamples.TIME_ZONE;
+
+/**
+ * Lunar arithmetic on random dates of 1900-2100: LunarDate against the round trip through the solar calendar
+ * (convertLunar2Solar, then convertSolar2Lunar of the moved solar date).
+ */
+@State(Scope.Thread)
+public class LunarDateBenchmark {
+    private DateSamples randomLunar;
+    private LunarDate[] dates;
+    private int index;
+
+    @Setup
+    public void setup() {
+        randomLunar = DateSamples.toLunar(DateSamples.randomSolar(1900, 2100));
+        dates = new LunarDate[randomLunar.days.length];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = LunarDate.of(randomLunar.days[i], randomLunar.months[i], randomLunar.years[i],
+                    randomLunar.leaps[i]);
+        }
+    }
+
+    @Benchmark
+    public LunarDate plus100Days() {
+        return dates[index++ & DateSamples.MASK].plusDays(100, TIME_ZONE);
+    }
+
+    @Benchmark
+    public long plus100DaysRoundTrip() {
+        int i = index++ & DateSamples.MASK;
+        int[] solar = LunarCoreHelper.convertLunar2Solar(randomLunar.days[i], randomLunar.months[i],
+                randomLunar.years[i], randomLunar.leaps[i], TIME_ZONE);
+        Calendar calendar = new GregorianCalendar(solar[2], solar[1] - 1, solar[0]);
+        calendar.add(Calendar.DAY_OF_MONTH, 100);
+        return LunarCoreHelper.convertSolar2LunarPacked(calendar.get(Calendar.DAY_OF_MONTH),
+                calendar.get(Calendar.MONTH) + 1, calendar.get(Calendar.YEAR), TIME_ZONE);
+    }
+
+    @Benchmark
+    public LunarDate plus3Months() {
+        return dates[index++ & DateSamples.MASK].plusMonths(3, TIME_ZONE);
+    }
+
+    @Benchmark
+    public int daysUntil() {
+        int i = index++ & DateSamples.MASK;
+        return dates[i].daysUntil(dates[(i + 1) & DateSamples.MASK], TIME_ZONE);
+    }
+
+    @Benchmark
+    public int compare() {
+        int i = index++ & DateSamples.MASK;
+        return dates[i].compareTo(dates[(i + 1) & DateSamples.MASK]);
+    }
+}
@@ -0,0 +1,63 @@
+package com.appota.lunarcore.benchmark;
+
+import com.appota.lunarcore.LunarCoreHelper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import static com.appota.lunarcore.benchmark.DateSamples.TIME_ZONE;
+
+/**
+ * Cost of LunarMetrics: the same random conversions with the metrics disabled (the default),
+ * with the counters, and with the counters and latencies. The flags are read once per JVM, so each runs in its own fork.
+ */
+@State(Scope.Thread)
+public class MetricsBenchmark {
+    private DateSamples randomSolar;
+    private int index;
+
+    @Setup
+    public void setup() {
+        randomSolar = DateSamples.randomSolar(1900, 2100);
+    }
+
+    private long solar2Lunar() {
+        int i = index++ & DateSamples.MASK;
+        return LunarCoreHelper.convertSolar2LunarPacked(randomSolar.days[i], randomSolar.months[i],
+                randomSolar.years[i], TIME_ZONE);
+    }
+
+    @Benchmark
+    public long disabled() {
+        return solar2Lunar();
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = "-Dlunarcore.metrics=true")
+    public long counters() {
+        return solar2Lunar();
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = "-Dlunarcore.metrics.latency=true")
+    public long latencies() {
+        return solar2Lunar();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long disabledThreads() {
+        return solar2Lunar();
+    }
+
+    @Benchmark
+    @Threads(4)
+    @Fork(jvmArgsAppend = "-Dlunarcore.metrics.latency=true")
+    public long latenciesThreads() {
+        return solar2Lunar();
+    }
+}
@@ -0,0 +1,72 @@
+package com.appota.lunarcore.benchmark;
+
+import com.appota.lunarcore.LunarCalendar;
+import com.appota.lunarcore.LunarCoreHelper;
+import com.appota.lunarcore.MonthGrid;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Calendar;
+import java.util.Random;
+
+/**
+ * Rendering a month view: the 42 cells with the per-cell getters, as the sample app does,
+ * against one monthGrid call.
+ */
+@State(Scope.Thread)
+public class MonthGridBenchmark {
+    private static final int MONTHS = 256;
+
+    private final int[] years = new int[MONTHS];
+    private final int[] months = new int[MONTHS];
+    private final MonthGrid grid = new MonthGrid();
+    private LunarCalendar calendar;
+    private int index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < MONTHS; i++) {
+            years[i] = 1900 + random.nextInt(201);
+            months[i] = 1 + random.nextInt(12);
+        }
+        calendar = LunarCalendar.forOffset(DateSamples.TIME_ZONE);
+    }
+
+    @Benchmark
+    public void perCellGetters(Blackhole bh) {
+        int i = index++ & (MONTHS - 1);
+        Calendar cell = Calendar.getInstance();
+        cell.clear();
+        cell.set(years[i], months[i] - 1, 1);
+        cell.add(Calendar.DAY_OF_MONTH, -((cell.get(Calendar.DAY_OF_WEEK) + 5) % 7));
+        for (int c = 0; c < MonthGrid.CELLS; c++) {
+            int day = cell.get(Calendar.DAY_OF_MONTH);
+            int month = cell.get(Calendar.MONTH) + 1;
+            int year = cell.get(Calendar.YEAR);
+            int[] lunar = LunarCoreHelper.convertSolar2Lunar(day, month, year, DateSamples.TIME_ZONE);
+            bh.consume(lunar);
+            bh.consume(LunarCoreHelper.getCanDayLunar(day, month, year));
+            bh.consume(LunarCoreHelper.getChineseCanDayLunar(day, month, year));
+            bh.consume(LunarCoreHelper.getChineseChiDayLunar(day, month, year));
+            bh.consume(LunarCoreHelper.rateDay(LunarCoreHelper.getChiDayLunar(day, month, year), lunar[1]));
+            cell.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+
+    @Benchmark
+    public MonthGrid monthGrid() {
+        int i = index++ & (MONTHS - 1);
+        return calendar.monthGrid(years[i], months[i], Calendar.MONDAY, grid);
+    }
+
+    @Benchmark
+    public MonthGrid monthGridAllocating() {
+        int i = index++ & (MONTHS - 1);
+        return LunarCoreHelper.monthGrid(years[i], months[i], DateSamples.TIME_ZONE);
+    }
+}
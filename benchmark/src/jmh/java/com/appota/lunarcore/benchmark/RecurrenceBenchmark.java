@@ -0,0 +1,67 @@
+package com.appota.lunarcore.benchmark;
+
+import com.appota.lunarcore.LunarCalendar;
+import com.appota.lunarcore.LunarOccurrences;
+import com.appota.lunarcore.LunarRecurrenceExpander;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+import static com.appota.lunarcore.benchmark.DateSamples.TIME_ZONE;
+
+/**
+ * 50 000 recurring lunar events (1 in 20 monthly, the others yearly) expanded over a solar year with
+ * LunarRecurrenceExpander, against one LunarCalendar.nextLunarDate per event and year.
+ */
+@State(Scope.Thread)
+public class RecurrenceBenchmark {
+    private static final int EVENTS = 50000;
+
+    private int[] lunarDays;
+    private int[] lunarMonths;
+    private LunarRecurrenceExpander expander;
+    private LunarOccurrences occurrences;
+    private LunarCalendar calendar;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        lunarDays = new int[EVENTS];
+        lunarMonths = new int[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            lunarDays[i] = 1 + random.nextInt(30);
+            lunarMonths[i] = random.nextInt(20) == 0 ? LunarRecurrenceExpander.EVERY_MONTH : 1 + random.nextInt(12);
+        }
+        expander = new LunarRecurrenceExpander(lunarDays, lunarMonths,
+                LunarRecurrenceExpander.LeapMonthPolicy.NORMAL_MONTH_ONLY, LunarRecurrenceExpander.ShortMonthPolicy.LAST_DAY);
+        occurrences = new LunarOccurrences();
+        calendar = LunarCalendar.forOffset(TIME_ZONE);
+    }
+
+    @Benchmark
+    public int expandYear() {
+        return calendar.expand(expander, 1, 1, 2024, 31, 12, 2024, occurrences).getCount();
+    }
+
+    @Benchmark
+    public LunarRecurrenceExpander createExpander() {
+        return new LunarRecurrenceExpander(lunarDays, lunarMonths,
+                LunarRecurrenceExpander.LeapMonthPolicy.NORMAL_MONTH_ONLY, LunarRecurrenceExpander.ShortMonthPolicy.LAST_DAY);
+    }
+
+    @Benchmark
+    public long nextLunarDatePerYearlyEvent() {
+        // Baseline: the next occurrence of each yearly event, one lookup each (no monthly events, no sort)
+        long sum = 0;
+        for (int i = 0; i < EVENTS; i++) {
+            if (lunarMonths[i] != LunarRecurrenceExpander.EVERY_MONTH) {
+                sum += calendar.nextLunarDate(lunarDays[i], lunarMonths[i], 1, 1, 2024);
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,60 @@
+package com.appota.lunarcore.benchmark.vector;
+
+import com.appota.lunarcore.DateKernels;
+import com.appota.lunarcore.VectorDateKernels;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * The jdk.incubator.vector kernels, counted in dates like DateKernelsBenchmark.
+ * Only built with -PvectorJavaHome, see build.gradle.
+ */
+@State(Scope.Thread)
+public class VectorDateKernelsBenchmark {
+    private static final int SIZE = 4096;
+
+    private final int[] days = new int[SIZE];
+    private final int[] months = new int[SIZE];
+    private final int[] years = new int[SIZE];
+    private final int[] jd = new int[SIZE];
+    private final int[] indexes = new int[SIZE];
+    private final int[] stems = new int[SIZE];
+    private final int[] branches = new int[SIZE];
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            jd[i] = 2415021 + random.nextInt(73049);
+        }
+        DateKernels.jdToDates(jd, days, months, years);
+        DateKernels.dayCanChi(jd, indexes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] jdFromDates() {
+        VectorDateKernels.jdFromDates(days, months, years, jd, 0, SIZE);
+        return jd;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] dayCanChi() {
+        VectorDateKernels.dayCanChi(days, months, years, indexes, 0, SIZE);
+        return indexes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] stemsAndBranches() {
+        VectorDateKernels.stemsAndBranches(indexes, stems, branches, 0, SIZE);
+        return stems;
+    }
+}
@@ -0,0 +1,172 @@
+package com.appota.lunarcore;
+
+/**
+ * The two astronomical steps of the conversions: the day of a new moon (LunarCoreHelper.getNewMoonDay),
+ * and the 30 degree sector of the sun longitude on a day, which finds the months 11 and the leap months.
+ *
+ * REFERENCE is the original code, with about 15 Math.sin per new moon and 3 per sun longitude.
+ *
+ * FAST gives exactly the same days and sectors, with less work:
+ * the angles are reduced to one turn in degrees first, then only the sine and cosine of the 3 base angles
+ * of a new moon (M, M', F) are evaluated, with a polynomial, and the 10 other terms are built from them
+ * with the angle sum and multiple angle formulas. The polynomial is within 1e-9 of Math.sin,
+ * so a result can only differ from REFERENCE very close to the end of a day (or of a sector):
+ * inside a guard band of 1e-6 day (0.09 second), much wider than the error, FAST falls back to REFERENCE.
+ *
+ * Select it on a LunarCalendar, for example LunarCalendar.forOffset(7.0, AstroKernel.FAST).
+ */
+public enum AstroKernel {
+    REFERENCE {
+        @Override
+        int newMoonDay(int k, double timeZone) {
+            return LunarCoreHelper.getNewMoonDay(k, timeZone);
+        }
+
+        @Override
+        int sunLongitudeSector(int dayNumber, double timeZone) {
+            return LunarCoreHelper.getSunLongitudeSector(dayNumber, timeZone);
+        }
+    },
+
+    FAST {
+        @Override
+        int newMoonDay(int k, double timeZone) {
+            double day = newMoon(k) + 0.5 + timeZone / 24;
+            double floor = Math.floor(day);
+            double fraction = day - floor;
+            if (fraction < GUARD || fraction > 1 - GUARD) {
+                return REFERENCE.newMoonDay(k, timeZone);
+            }
+            return (int) floor;
+        }
+
+        @Override
+        int sunLongitudeSector(int dayNumber, double timeZone) {
+            double sector = sunLongitude(dayNumber - 0.5 - timeZone / 24) / 30;
+            double floor = Math.floor(sector);
+            double fraction = sector - floor;
+            if (fraction < GUARD || fraction > 1 - GUARD) {
+                return REFERENCE.sunLongitudeSector(dayNumber, timeZone);
+            }
+            return (int) floor;
+        }
+    };
+
+    private static final double GUARD = 1e-6;
+    private static final double DR = Math.PI / 180;
+    private static final double HALF_PI = Math.PI / 2;
+
+    /**
+     *
+     * @param k
+     * @param timeZone
+     * @return same as LunarCoreHelper.getNewMoonDay
+     */
+    abstract int newMoonDay(int k, double timeZone);
+
+    /**
+     *
+     * @param dayNumber
+     * @param timeZone
+     * @return the sun longitude at the start of the day in the time zone, divided by 30 degrees: from 0 to 11
+     */
+    abstract int sunLongitudeSector(int dayNumber, double timeZone);
+
+    /**
+     *
+     * @param degrees
+     * @return an angle of the same direction, in -180..180
+     */
+    private static double reduce(double degrees) {
+        return degrees - 360 * Math.rint(degrees / 360);
+    }
+
+    /**
+     *
+     * @param degrees - in -180..180
+     * @return sin(degrees), within 1e-9
+     */
+    private static double sin(double degrees) {
+        double x = degrees * DR;
+        if (x > HALF_PI) {
+            x = Math.PI - x;
+        } else if (x < -HALF_PI) {
+            x = -Math.PI - x;
+        }
+        // Taylor series up to x^13, the error is below (pi/2)^15 / 15! = 7e-10
+        double x2 = x * x;
+        return x * (1 + x2 * (-1.0 / 6 + x2 * (1.0 / 120 + x2 * (-1.0 / 5040 + x2 * (1.0 / 362880
+                + x2 * (-1.0 / 39916800 + x2 * (1.0 / 6227020800.0)))))));
+    }
+
+    /**
+     *
+     * @param degrees - in -180..180
+     * @return cos(degrees), within 1e-9
+     */
+    private static double cos(double degrees) {
+        return sin(degrees >= 90 ? degrees - 270 : degrees + 90);
+    }
+
+    /**
+     * Same formula as LunarCoreHelper.NewMoonAA98
+     */
+    private static double newMoon(int k) {
+        if (LunarMetrics.ENABLED) {
+            LunarMetrics.increment(LunarMetrics.Counter.NEW_MOON);
+        }
+        double T = k / 1236.85;
+        double T2 = T * T;
+        double T3 = T2 * T;
+        double Jd1 = 2415020.75933 + 29.53058868 * k + 0.0001178 * T2 - 0.000000155 * T3;
+        Jd1 = Jd1 + 0.00033 * sin(reduce(166.56 + 132.87 * T - 0.009173 * T2));
+        double M = reduce(359.2242 + 29.10535608 * k - 0.0000333 * T2 - 0.00000347 * T3);
+        double Mpr = reduce(306.0253 + 385.81691806 * k + 0.0107306 * T2 + 0.00001236 * T3);
+        double F = reduce(21.2964 + 390.67050646 * k - 0.0016528 * T2 - 0.00000239 * T3);
+        double sinM = sin(M);
+        double cosM = cos(M);
+        double sinMpr = sin(Mpr);
+        double cosMpr = cos(Mpr);
+        double sinF = sin(F);
+        double cosF = cos(F);
+        double sin2Mpr = 2 * sinMpr * cosMpr;
+        double cos2Mpr = 1 - 2 * sinMpr * sinMpr;
+        double sin2F = 2 * sinF * cosF;
+        double cos2F = 1 - 2 * sinF * sinF;
+
+        double C1 = (0.1734 - 0.000393 * T) * sinM + 0.0021 * (2 * sinM * cosM);
+        C1 = C1 - 0.4068 * sinMpr + 0.0161 * sin2Mpr;
+        C1 = C1 - 0.0004 * (sinMpr * (3 - 4 * sinMpr * sinMpr));
+        C1 = C1 + 0.0104 * sin2F - 0.0051 * (sinM * cosMpr + cosM * sinMpr);
+        C1 = C1 - 0.0074 * (sinM * cosMpr - cosM * sinMpr) + 0.0004 * (sin2F * cosM + cos2F * sinM);
+        C1 = C1 - 0.0004 * (sin2F * cosM - cos2F * sinM) - 0.0006 * (sin2F * cosMpr + cos2F * sinMpr);
+        C1 = C1 + 0.0010 * (sin2F * cosMpr - cos2F * sinMpr) + 0.0005 * (sin2Mpr * cosM + cos2Mpr * sinM);
+        double deltat;
+        if (T < -11) {
+            deltat = 0.001 + 0.000839 * T + 0.0002261 * T2 - 0.00000845 * T3 - 0.000000081 * T * T3;
+        } else {
+            deltat = -0.000278 + 0.000265 * T + 0.000262 * T2;
+        }
+        return Jd1 + C1 - deltat;
+    }
+
+    /**
+     * Same formula as LunarCoreHelper.SunLongitudeAA98
+     *
+     * @return sun longitude in degrees, in 0..360
+     */
+    private static double sunLongitude(double jdn) {
+        if (LunarMetrics.ENABLED) {
+            LunarMetrics.increment(LunarMetrics.Counter.SUN_LONGITUDE);
+        }
+        double T = (jdn - 2415021.0) / 36525;
+        double T2 = T * T;
+        double M = reduce(357.52910 + 35999.05030 * T - 0.0001559 * T2 - 0.00000048 * T * T2);
+        double L0 = 280.46645 + 36000.76983 * T + 0.0003032 * T2;
+        double sinM = sin(M);
+        double DL = (1.914600 - 0.004817 * T - 0.000014 * T2) * sinM;
+        DL = DL + (0.019993 - 0.000101 * T) * (2 * sinM * cos(M)) + 0.000290 * (sinM * (3 - 4 * sinM * sinM));
+        double L = L0 + DL;
+        return L - 360 * Math.floor(L / 360);
+    }
+}
@@ -0,0 +1,185 @@
+package com.appota.lunarcore;
+
+/**
+ * Can-Chi (Stem-Branch) numbers of days, months and years, only with integer math.
+ *
+ * A Can-Chi is represented by its index in the sexagenary cycle, from 0 (Giáp Tý, 甲子) to 59 (Quý Hợi, 癸亥).
+ * The Can (stem) of index i is i % 10 and the Chi (branch) is i % 12, the same numbers as in the
+ * CAN/STEMS and CHI/BRANCHES arrays of LunarCoreHelper.
+ *
+ * Days just go around the cycle, so the Can-Chi of a day is (jd + 49) mod 60,
+ * jd being its Julian day number. For example 1/3/1996 (jd 2450144) is 33, Đinh Dậu (丁酉).
+ */
+public class CanChi {
+
+    /**
+     * The 60 Can-Chi names, built once from the CAN/CHI and STEMS/BRANCHES arrays of LunarCoreHelper,
+     * so showing a Can-Chi never needs to build a string.
+     */
+    private static final String[] NAMES = new String[60];
+    private static final String[] CHINESE_NAMES = new String[60];
+
+    static {
+        for (int i = 0; i < 60; i++) {
+            NAMES[i] = (LunarCoreHelper.CAN[i % 10] + " " + LunarCoreHelper.CHI[i % 12]).intern();
+            CHINESE_NAMES[i] = (LunarCoreHelper.STEMS[i % 10] + LunarCoreHelper.BRANCHES[i % 12]).intern();
+        }
+    }
+
+    /**
+     *
+     * @param jd - Julian day number of the day, see LunarCoreHelper.jdFromDate
+     * @return Can-Chi index of the day, from 0 to 59
+     */
+    public static int dayIndex(int jd) {
+        int index = (jd + 49) % 60;
+        return index < 0 ? index + 60 : index;
+    }
+
+    /**
+     *
+     * @param epochDay - days since 1/1/1970, like java.time.LocalDate.toEpochDay
+     * @return Can-Chi index of the day, from 0 to 59
+     */
+    public static int epochDayIndex(long epochDay) {
+        // 1/1/1970 is a Tân Tỵ day, index 17
+        int index = (int) ((epochDay + 17) % 60);
+        return index < 0 ? index + 60 : index;
+    }
+
+    /**
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @return Can-Chi index of the day, from 0 to 59
+     */
+    public static int dayIndex(int solarDay, int solarMonth, int solarYear) {
+        return dayIndex(LunarCoreHelper.jdFromDate(solarDay, solarMonth, solarYear));
+    }
+
+    /**
+     *
+     * @param lunarMonth
+     * @param lunarYear
+     * @return Can-Chi index of the lunar month. A leap month has the same Can-Chi as the normal one.
+     * The Chi of month 1 is always Dần, and the Can goes on from year to year.
+     */
+    public static int monthIndex(int lunarMonth, int lunarYear) {
+        int can = (lunarYear * 12 + lunarMonth + 3) % 10;
+        if (can < 0) {
+            can += 10;
+        }
+        return fromCanChi(can, (lunarMonth + 1) % 12);
+    }
+
+    /**
+     *
+     * @param lunarYear
+     * @return Can-Chi index of the lunar year, 1984 is Giáp Tý (0)
+     */
+    public static int yearIndex(int lunarYear) {
+        int index = (lunarYear + 56) % 60;
+        return index < 0 ? index + 60 : index;
+    }
+
+    /**
+     *
+     * @param dayIndex - Can-Chi index of the day, see dayIndex
+     * @param hour - from 0 to 23
+     * @return Can-Chi index of the hour. Each Chi hour lasts 2 hours, Tý is from 23:00 to 00:59.
+     * The Can of the Tý hour follows the Can of the day: Giáp Tý for Giáp and Kỷ days, Bính Tý for Ất and Canh days...
+     * From 23:00, the Tý hour already belongs to the next day.
+     */
+    public static int hourIndex(int dayIndex, int hour) {
+        int chi = ((hour + 1) / 2) % 12;
+        int dayCan = canOf(dayIndex);
+        if (hour == 23) {
+            dayCan++;
+        }
+        return fromCanChi((dayCan * 2 + chi) % 10, chi);
+    }
+
+    /**
+     * The "four pillars" (year, month, day and hour Can-Chi) of a moment, computed in one pass:
+     * the Julian day number and the lunar date are computed only once.
+     * Year and month are the ones of the lunar date, a leap month has the same Can-Chi as the normal one.
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @param hour - from 0 to 23
+     * @param timeZone
+     * @return the 4 Can-Chi indexes packed in an int, read them with pillarYear, pillarMonth, pillarDay and pillarHour
+     */
+    public static int pillars(int solarDay, int solarMonth, int solarYear, int hour, double timeZone) {
+        int jd = LunarCoreHelper.jdFromDate(solarDay, solarMonth, solarYear);
+        long lunar = LunarCoreHelper.convertSolar2LunarPacked(jd, solarYear, timeZone);
+        int lunarYear = LunarCoreHelper.unpackYear(lunar);
+        int day = dayIndex(jd);
+        return (yearIndex(lunarYear) << 18) | (monthIndex(LunarCoreHelper.unpackMonth(lunar), lunarYear) << 12)
+                | (day << 6) | hourIndex(day, hour);
+    }
+
+    public static int pillarYear(int pillars) {
+        return pillars >>> 18;
+    }
+
+    public static int pillarMonth(int pillars) {
+        return (pillars >>> 12) & 0x3F;
+    }
+
+    public static int pillarDay(int pillars) {
+        return (pillars >>> 6) & 0x3F;
+    }
+
+    public static int pillarHour(int pillars) {
+        return pillars & 0x3F;
+    }
+
+    /**
+     *
+     * @param index - Can-Chi index, from 0 to 59
+     * @return Vietnamese name, like "Giáp Tý". Always the same String instance for an index.
+     */
+    public static String getName(int index) {
+        return NAMES[index];
+    }
+
+    /**
+     *
+     * @param index - Can-Chi index, from 0 to 59
+     * @return Chinese name, like "甲子". Always the same String instance for an index.
+     */
+    public static String getChineseName(int index) {
+        return CHINESE_NAMES[index];
+    }
+
+    /**
+     *
+     * @param index - Can-Chi index, from 0 to 59
+     * @return Can (stem) of the index, from 0 to 9
+     */
+    public static int canOf(int index) {
+        return index % 10;
+    }
+
+    /**
+     *
+     * @param index - Can-Chi index, from 0 to 59
+     * @return Chi (branch) of the index, from 0 to 11
+     */
+    public static int chiOf(int index) {
+        return index % 12;
+    }
+
+    /**
+     *
+     * @param can - from 0 to 9
+     * @param chi - from 0 to 11, must have the same parity as can
+     * @return Can-Chi index, from 0 to 59
+     */
+    public static int fromCanChi(int can, int chi) {
+        return (6 * can - 5 * chi + 60) % 60;
+    }
+}
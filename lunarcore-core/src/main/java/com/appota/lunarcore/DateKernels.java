@@ -0,0 +1,208 @@
+package com.appota.lunarcore;
+
+import java.nio.IntBuffer;
+
+/**
+ * Batch versions of jdFromDate, jdToDate and the day Can-Chi, over primitive arrays, for jobs tagging
+ * millions of dates at once. Each element gives exactly the same result as the one date methods.
+ *
+ * The loops have no branch and no call: the Julian/Gregorian choice is a bit mask instead of an if,
+ * and the small divisions by constants are multiplications and shifts, so the JIT can unroll them
+ * and, for jdFromDates and stemsAndBranches, use SIMD instructions.
+ * These tricks are only exact on a range of values, hence the supported ranges below:
+ * solar years from -4712 to 38000 (Julian day numbers from 0 to 15600000).
+ *
+ * The optional jdk.incubator.vector versions are in the vector source set (VectorDateKernels).
+ */
+public final class DateKernels {
+    public static final int MIN_YEAR = -4712;
+    public static final int MAX_YEAR = 38000;
+
+    // First Julian day number of the Gregorian calendar (15/10/1582), see LunarCoreHelper.jdFromDate
+    private static final int GREGORIAN_START = 2299161;
+
+    private DateKernels() {
+    }
+
+    /**
+     *
+     * @param days
+     * @param months
+     * @param years - from MIN_YEAR to MAX_YEAR
+     * @param outJd - receives LunarCoreHelper.jdFromDate of each date
+     * @param offset - first index to read and write in all the arrays
+     * @param length - number of dates
+     */
+    public static void jdFromDates(int[] days, int[] months, int[] years, int[] outJd, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            outJd[i] = jdFromDate(days[i], months[i], years[i]);
+        }
+    }
+
+    public static void jdFromDates(int[] days, int[] months, int[] years, int[] outJd) {
+        jdFromDates(days, months, years, outJd, 0, outJd.length);
+    }
+
+    /**
+     * Same as LunarCoreHelper.jdFromDate, but without branch and division
+     */
+    static int jdFromDate(int dd, int mm, int yy) {
+        // a = (14 - mm) / 12, that is 1 for January and February, else 0
+        int a = ((2 - mm) >>> 31) ^ 1;
+        int y = yy + 4800 - a;
+        int m = mm + 12 * a - 3;
+        // (153 * m + 2) / 5 and y / 100, exact for these ranges, and y / 400 = (y / 100) / 4
+        int common = dd + ((153 * m + 2) * 52429 >>> 18) + 365 * y + (y >> 2);
+        int centuries = y * 5243 >>> 19;
+        int gregorian = common - centuries + (centuries >> 2) - 32045;
+        int julian = common - 32083;
+        // All ones before the Gregorian calendar
+        int mask = (gregorian - GREGORIAN_START) >> 31;
+        return gregorian ^ ((gregorian ^ julian) & mask);
+    }
+
+    /**
+     *
+     * @param jd - Julian day numbers, from 0
+     * @param outDays
+     * @param outMonths
+     * @param outYears - receive LunarCoreHelper.jdToDate of each day
+     * @param offset - first index to read and write in all the arrays
+     * @param length - number of days
+     */
+    public static void jdToDates(int[] jd, int[] outDays, int[] outMonths, int[] outYears, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            int j = jd[i];
+            int a = j + 32044;
+            int b = (4 * a + 3) / 146097;
+            int gregorianC = a - (146097 * b >> 2);
+            // All ones from the Gregorian calendar
+            int mask = (GREGORIAN_START - 1 - j) >> 31;
+            b &= mask;
+            int c = (gregorianC & mask) | ((j + 32082) & ~mask);
+            int d = (4 * c + 3) / 1461;
+            int e = c - (1461 * d >> 2);
+            // (5 * e + 2) / 153, (153 * m + 2) / 5 and m / 10, exact for these ranges
+            int m = (5 * e + 2) * 6854 >>> 20;
+            int m10 = (m + 6) >> 4;
+            outDays[i] = e - ((153 * m + 2) * 52429 >>> 18) + 1;
+            outMonths[i] = m + 3 - 12 * m10;
+            outYears[i] = b * 100 + d - 4800 + m10;
+        }
+    }
+
+    public static void jdToDates(int[] jd, int[] outDays, int[] outMonths, int[] outYears) {
+        jdToDates(jd, outDays, outMonths, outYears, 0, jd.length);
+    }
+
+    /**
+     *
+     * @param jd - Julian day numbers, from 0
+     * @param outIndexes - receives CanChi.dayIndex of each day
+     * @param offset - first index to read and write in both arrays
+     * @param length - number of days
+     */
+    public static void dayCanChi(int[] jd, int[] outIndexes, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            outIndexes[i] = (jd[i] + 49) % 60;
+        }
+    }
+
+    public static void dayCanChi(int[] jd, int[] outIndexes) {
+        dayCanChi(jd, outIndexes, 0, jd.length);
+    }
+
+    /**
+     * jdFromDates and dayCanChi at once, without the intermediate array
+     *
+     * @param days
+     * @param months
+     * @param years - from MIN_YEAR to MAX_YEAR
+     * @param outIndexes - receives CanChi.dayIndex of each date
+     * @param offset - first index to read and write in all the arrays
+     * @param length - number of dates
+     */
+    public static void dayCanChi(int[] days, int[] months, int[] years, int[] outIndexes, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            outIndexes[i] = (jdFromDate(days[i], months[i], years[i]) + 49) % 60;
+        }
+    }
+
+    /**
+     * Same as dayCanChi on arrays, from the position to the limit of the buffers, which all move forward.
+     * Heap buffers are read and written through their arrays.
+     */
+    public static void dayCanChi(IntBuffer days, IntBuffer months, IntBuffer years, IntBuffer outIndexes) {
+        int length = outIndexes.remaining();
+        if (days.hasArray() && months.hasArray() && years.hasArray() && outIndexes.hasArray()
+                && sameOffset(days, months, years, outIndexes)) {
+            dayCanChi(days.array(), months.array(), years.array(), outIndexes.array(),
+                    outIndexes.arrayOffset() + outIndexes.position(), length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                int jd = jdFromDate(days.get(days.position() + i), months.get(months.position() + i),
+                        years.get(years.position() + i));
+                outIndexes.put(outIndexes.position() + i, (jd + 49) % 60);
+            }
+        }
+        advance(length, days, months, years, outIndexes);
+    }
+
+    /**
+     * Same as jdFromDates on arrays, from the position to the limit of the buffers, which all move forward
+     */
+    public static void jdFromDates(IntBuffer days, IntBuffer months, IntBuffer years, IntBuffer outJd) {
+        int length = outJd.remaining();
+        if (days.hasArray() && months.hasArray() && years.hasArray() && outJd.hasArray()
+                && sameOffset(days, months, years, outJd)) {
+            jdFromDates(days.array(), months.array(), years.array(), outJd.array(),
+                    outJd.arrayOffset() + outJd.position(), length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                outJd.put(outJd.position() + i, jdFromDate(days.get(days.position() + i),
+                        months.get(months.position() + i), years.get(years.position() + i)));
+            }
+        }
+        advance(length, days, months, years, outJd);
+    }
+
+    /**
+     *
+     * @param indexes - Can-Chi indexes, from 0 to 59
+     * @param outStems - receives CanChi.canOf of each index
+     * @param outBranches - receives CanChi.chiOf of each index
+     * @param offset - first index to read and write in all the arrays
+     * @param length - number of indexes
+     */
+    public static void stemsAndBranches(int[] indexes, int[] outStems, int[] outBranches, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            int index = indexes[i];
+            // index / 10 and index / 12, exact below 60
+            outStems[i] = index - 10 * (index * 205 >>> 11);
+            outBranches[i] = index - 12 * (index * 171 >>> 11);
+        }
+    }
+
+    public static void stemsAndBranches(int[] indexes, int[] outStems, int[] outBranches) {
+        stemsAndBranches(indexes, outStems, outBranches, 0, indexes.length);
+    }
+
+    private static boolean sameOffset(IntBuffer a, IntBuffer b, IntBuffer c, IntBuffer d) {
+        int offset = d.arrayOffset() + d.position();
+        return a.arrayOffset() + a.position() == offset && b.arrayOffset() + b.position() == offset
+                && c.arrayOffset() + c.position() == offset && a.remaining() >= d.remaining()
+                && b.remaining() >= d.remaining() && c.remaining() >= d.remaining();
+    }
+
+    private static void advance(int length, IntBuffer a, IntBuffer b, IntBuffer c, IntBuffer d) {
+        a.position(a.position() + length);
+        b.position(b.position() + length);
+        c.position(c.position() + length);
+        d.position(d.position() + length);
+    }
+}
@@ -0,0 +1,24 @@
+package com.appota.lunarcore;
+
+/**
+ * Result of LunarCoreHelper.rateDay, see the "good days" and "bad days" tables there.
+ */
+public enum DayRating {
+    GOOD("Good"),
+    BAD("Bad"),
+    NORMAL("Normal");
+
+    private final String label;
+
+    DayRating(String label) {
+        this.label = label;
+    }
+
+    /**
+     *
+     * @return "Good", "Bad" or "Normal", the strings returned by the old rateDay
+     */
+    public String getLabel() {
+        return label;
+    }
+}
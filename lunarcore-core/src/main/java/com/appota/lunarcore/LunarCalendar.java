@@ -0,0 +1,402 @@
+package com.appota.lunarcore;
+
+import java.util.Calendar;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The conversions of one time zone, with their own state: a cache of months 11 and leap months,
+ * and optionally a precomputed table. Zones don't share anything, so a zone used now and then
+ * never evicts the years of a busy one.
+ *
+ * Instances are shared, get them with forOffset, for example:
+ *
+ *   LunarCalendar vietnam = LunarCalendar.forOffset(7.0);
+ *   int[] lunarDay = vietnam.convertSolar2Lunar(day, month, year);
+ *
+ * They are safe to use from several threads at once.
+ * The results are the same as the LunarCoreHelper methods with the same time zone.
+ */
+public final class LunarCalendar {
+    // Time zones are multiples of 15 minutes, from UTC-12:00 to UTC+14:00
+    private static final int MIN_QUARTERS = -12 * 4;
+    private static final int MAX_QUARTERS = 14 * 4;
+    private static final int CACHE_CAPACITY = 128;
+
+    private static final int ZONES = MAX_QUARTERS - MIN_QUARTERS + 1;
+
+    // The zones of AstroKernel.REFERENCE, then the zones of each other kernel
+    private static final AtomicReferenceArray<LunarCalendar> REGISTRY =
+            new AtomicReferenceArray<>(ZONES * AstroKernel.values().length);
+
+    private final double timeZone;
+    private final AstroKernel kernel;
+    private final LunarYearCache yearCache;
+    private volatile LunarYearTable table;
+
+    private LunarCalendar(double timeZone, AstroKernel kernel) {
+        this.timeZone = timeZone;
+        this.kernel = kernel;
+        this.yearCache = new LunarYearCache(CACHE_CAPACITY, kernel);
+    }
+
+    /**
+     *
+     * @param timeZone - offset from UTC in hours, for example 7.0 for Vietnam, 8.0 for China, 9.0 for Korea and Japan
+     * @return the calendar of this time zone, always the same instance for the same offset
+     */
+    public static LunarCalendar forOffset(double timeZone) {
+        return forOffset(timeZone, AstroKernel.REFERENCE);
+    }
+
+    /**
+     *
+     * @param timeZone - offset from UTC in hours
+     * @param kernel - computes the new moons and the sun longitudes, for example AstroKernel.FAST.
+     *               The results are the same with any kernel, only the speed changes.
+     * @return the calendar of this time zone and kernel, always the same instance for the same offset and kernel
+     */
+    public static LunarCalendar forOffset(double timeZone, AstroKernel kernel) {
+        double quarters = timeZone * 4;
+        int q = (int) quarters;
+        if (q != quarters || q < MIN_QUARTERS || q > MAX_QUARTERS) {
+            throw new IllegalArgumentException("Not a time zone offset: " + timeZone);
+        }
+        int index = kernel.ordinal() * ZONES + q - MIN_QUARTERS;
+        LunarCalendar calendar = REGISTRY.get(index);
+        if (calendar == null) {
+            REGISTRY.compareAndSet(index, null, new LunarCalendar(q / 4.0, kernel));
+            calendar = REGISTRY.get(index);
+        }
+        return calendar;
+    }
+
+    public double getTimeZone() {
+        return timeZone;
+    }
+
+    public AstroKernel getAstroKernel() {
+        return kernel;
+    }
+
+    /**
+     *
+     * @return the cache of month 11 and leap months of this time zone, to read its hit/miss counters
+     */
+    public LunarYearCache getYearCache() {
+        return yearCache;
+    }
+
+    public LunarYearTable getTable() {
+        return table;
+    }
+
+    /**
+     * Use a precomputed table (built, read or mapped) for the years it covers.
+     *
+     * @param lunarYearTable - a table of this time zone, or null to always compute
+     */
+    public void setTable(LunarYearTable lunarYearTable) {
+        if (lunarYearTable != null && lunarYearTable.getTimeZone() != timeZone) {
+            throw new IllegalArgumentException("Table of time zone " + lunarYearTable.getTimeZone()
+                    + ", expected " + timeZone);
+        }
+        table = lunarYearTable;
+    }
+
+    /**
+     * Build a table of these years on this thread and use it, see setTable.
+     * Servers can build it in their own ForkJoinPool instead:
+     * setTable(LunarTableBuilder.buildParallel(fromYear, toYear, getTimeZone(), getAstroKernel(), pool))
+     *
+     * @param fromYear
+     * @param toYear
+     * @return the table
+     */
+    public LunarYearTable precompute(int fromYear, int toYear) {
+        LunarYearTable t = LunarYearTable.build(fromYear, toYear, timeZone, kernel);
+        setTable(t);
+        return t;
+    }
+
+    /**
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @return array of [lunarDay, lunarMonth, lunarYear, leapOrNot]
+     */
+    public int[] convertSolar2Lunar(int solarDay, int solarMonth, int solarYear) {
+        return convertSolar2Lunar(solarDay, solarMonth, solarYear, new int[4]);
+    }
+
+    public int[] convertSolar2Lunar(int solarDay, int solarMonth, int solarYear, int[] out) {
+        long date = convertSolar2LunarPacked(solarDay, solarMonth, solarYear);
+        out[0] = LunarCoreHelper.unpackDay(date);
+        out[1] = LunarCoreHelper.unpackMonth(date);
+        out[2] = LunarCoreHelper.unpackYear(date);
+        out[3] = LunarCoreHelper.unpackLeap(date);
+        return out;
+    }
+
+    public MutableLunarDate convertSolar2Lunar(int solarDay, int solarMonth, int solarYear, MutableLunarDate out) {
+        out.set(convertSolar2LunarPacked(solarDay, solarMonth, solarYear));
+        return out;
+    }
+
+    /**
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @return the lunar date packed in a long, same as LunarCoreHelper.convertSolar2LunarPacked
+     */
+    public long convertSolar2LunarPacked(int solarDay, int solarMonth, int solarYear) {
+        return convertSolar2LunarPacked(LunarCoreHelper.jdFromDate(solarDay, solarMonth, solarYear), solarYear);
+    }
+
+    long convertSolar2LunarPacked(int dayNumber, int solarYear) {
+        LunarYearTable t = table;
+        if (t != null && t.covers(solarYear)) {
+            return t.convertSolar2LunarPacked(dayNumber, solarYear);
+        }
+        return LunarCoreHelper.computeSolar2LunarPacked(dayNumber, solarYear, timeZone, yearCache);
+    }
+
+    /**
+     *
+     * @param julianDay - Julian day number of the solar date
+     * @return same as LunarCoreHelper.convertJulianDay2LunarPacked
+     */
+    public long convertJulianDay2LunarPacked(int julianDay) {
+        return convertSolar2LunarPacked(julianDay, LunarCoreHelper.yearOf(julianDay));
+    }
+
+    /**
+     *
+     * @param epochDay - days since 1/1/1970, like java.time.LocalDate.toEpochDay
+     * @return same as LunarCoreHelper.convertEpochDay2LunarPacked
+     */
+    public long convertEpochDay2LunarPacked(long epochDay) {
+        return convertJulianDay2LunarPacked(LunarCoreHelper.julianDayOf(epochDay));
+    }
+
+    /**
+     * Same as LunarCoreHelper.convertEpochDays2LunarPacked
+     */
+    public void convertEpochDays2LunarPacked(long[] epochDays, long[] out, int offset, int count) {
+        LunarCoreHelper.convertEpochDays2LunarPacked(epochDays, out, offset, count, timeZone, this);
+    }
+
+    /**
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @param days - number of consecutive days to convert, starting from the input date
+     * @return lunar dates of the days, same as LunarCoreHelper.convertSolar2LunarRange
+     */
+    public long[] convertSolar2LunarRange(int solarDay, int solarMonth, int solarYear, int days) {
+        long[] out = new long[days];
+        convertSolar2LunarRange(solarDay, solarMonth, solarYear, out, 0, days);
+        return out;
+    }
+
+    public void convertSolar2LunarRange(int solarDay, int solarMonth, int solarYear,
+                                        long[] out, int offset, int count) {
+        LunarCoreHelper.convertSolar2LunarRange(solarDay, solarMonth, solarYear, timeZone, yearCache,
+                out, offset, count);
+    }
+
+    /**
+     *
+     * @param solarYear
+     * @param solarMonth
+     * @return the 42 cells of the month, weeks starting on Monday, see MonthGrid
+     */
+    public MonthGrid monthGrid(int solarYear, int solarMonth) {
+        return monthGrid(solarYear, solarMonth, Calendar.MONDAY, new MonthGrid());
+    }
+
+    /**
+     *
+     * @param solarYear
+     * @param solarMonth
+     * @param firstDayOfWeek - from Calendar.SUNDAY to Calendar.SATURDAY
+     * @param out - grid to fill, can be reused between calls
+     * @return out
+     */
+    public MonthGrid monthGrid(int solarYear, int solarMonth, int firstDayOfWeek, MonthGrid out) {
+        return out.fill(solarYear, solarMonth, firstDayOfWeek, timeZone, yearCache);
+    }
+
+    /**
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @return a cursor on the lunar month of this solar date, using the cache of this calendar
+     */
+    public LunarMonthCursor monthCursorAt(int solarDay, int solarMonth, int solarYear) {
+        return new LunarMonthCursor(timeZone, yearCache).moveToSolarDate(solarDay, solarMonth, solarYear);
+    }
+
+    /**
+     *
+     * @param lunarMonth
+     * @param lunarYear
+     * @param lunarLeap - 1 for the leap month
+     * @return a cursor on this lunar month, using the cache of this calendar
+     * @throws IllegalArgumentException if the month is not valid, for example a leap month of a year without one
+     */
+    public LunarMonthCursor monthCursorOf(int lunarMonth, int lunarYear, int lunarLeap) {
+        return new LunarMonthCursor(timeZone, yearCache).moveToLunarMonth(lunarMonth, lunarYear, lunarLeap);
+    }
+
+    /**
+     *
+     * @return same as LunarCoreHelper.nextLunarDate
+     */
+    public long nextLunarDate(int lunarDay, int lunarMonth, int solarDay, int solarMonth, int solarYear) {
+        return new LunarMonthCursor(timeZone, yearCache)
+                .nextOccurrence(lunarDay, lunarMonth, solarDay, solarMonth, solarYear);
+    }
+
+    /**
+     *
+     * @return same as LunarRecurrenceExpander.expand, using the cache of this calendar
+     */
+    public LunarOccurrences expand(LunarRecurrenceExpander expander, int fromDay, int fromMonth, int fromYear,
+                                   int toDay, int toMonth, int toYear, LunarOccurrences out) {
+        return expander.expand(fromDay, fromMonth, fromYear, toDay, toMonth, toYear, timeZone, yearCache, out);
+    }
+
+    /**
+     *
+     * @return same as LunarDayIndex.build, using the cache of this calendar
+     */
+    public LunarDayIndex dayIndex(int fromDay, int fromMonth, int fromYear, int toDay, int toMonth, int toYear) {
+        return LunarDayIndex.build(fromDay, fromMonth, fromYear, toDay, toMonth, toYear, timeZone, yearCache);
+    }
+
+    /**
+     *
+     * @param lunarDay
+     * @param lunarMonth
+     * @param lunarYear
+     * @param lunarLeap
+     * @return array of [solarDay, solarMonth, solarYear], filled with zeros if the input is invalid
+     */
+    public int[] convertLunar2Solar(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap) {
+        return convertLunar2Solar(lunarDay, lunarMonth, lunarYear, lunarLeap, new int[3]);
+    }
+
+    public int[] convertLunar2Solar(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap, int[] out) {
+        long date = convertLunar2SolarPacked(lunarDay, lunarMonth, lunarYear, lunarLeap);
+        out[0] = LunarCoreHelper.unpackDay(date);
+        out[1] = LunarCoreHelper.unpackMonth(date);
+        out[2] = LunarCoreHelper.unpackYear(date);
+        return out;
+    }
+
+    /**
+     *
+     * @param lunarDay
+     * @param lunarMonth
+     * @param lunarYear
+     * @param lunarLeap
+     * @return the solar date packed in a long, or 0 if the input is invalid, same as LunarCoreHelper.convertLunar2SolarPacked
+     */
+    public long convertLunar2SolarPacked(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap) {
+        LunarYearTable t = table;
+        if (t != null && t.covers(lunarYear)) {
+            return t.convertLunar2SolarPacked(lunarDay, lunarMonth, lunarYear, lunarLeap);
+        }
+        return LunarCoreHelper.computeLunar2SolarPacked(lunarDay, lunarMonth, lunarYear, lunarLeap,
+                timeZone, yearCache);
+    }
+
+    /**
+     *
+     * @return same as LunarCoreHelper.convertLunar2JulianDay
+     * @throws IllegalArgumentException if the input is invalid
+     */
+    public int convertLunar2JulianDay(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap) {
+        LunarYearTable t = table;
+        int jd = t != null && t.covers(lunarYear)
+                ? t.convertLunar2JulianDay(lunarDay, lunarMonth, lunarYear, lunarLeap)
+                : LunarCoreHelper.computeLunar2JulianDay(lunarDay, lunarMonth, lunarYear, lunarLeap, timeZone, yearCache);
+        return LunarCoreHelper.checkJulianDay(jd, lunarMonth, lunarYear);
+    }
+
+    /**
+     *
+     * @return same as LunarCoreHelper.convertLunar2EpochDay
+     * @throws IllegalArgumentException if the input is invalid
+     */
+    public long convertLunar2EpochDay(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap) {
+        return LunarCoreHelper.epochDayOf(convertLunar2JulianDay(lunarDay, lunarMonth, lunarYear, lunarLeap));
+    }
+
+    /**
+     *
+     * @param date
+     * @return same as date.isValid(timeZone), with the cache of this calendar
+     */
+    public boolean isValid(LunarDate date) {
+        return date.isValid(timeZone, yearCache);
+    }
+
+    /**
+     *
+     * @param date
+     * @return same as date.lengthOfMonth(timeZone), with the cache of this calendar
+     */
+    public int lengthOfMonth(LunarDate date) {
+        return date.lengthOfMonth(timeZone, yearCache);
+    }
+
+    /**
+     *
+     * @param date
+     * @return same as date.toJulianDay(timeZone), with the cache of this calendar
+     */
+    public int toJulianDay(LunarDate date) {
+        return date.toJulianDay(timeZone, yearCache);
+    }
+
+    /**
+     *
+     * @param date
+     * @param days - may be negative
+     * @return same as date.plusDays(days, timeZone), with the cache of this calendar
+     */
+    public LunarDate plusDays(LunarDate date, int days) {
+        return date.plusDays(days, timeZone, yearCache);
+    }
+
+    /**
+     *
+     * @param date
+     * @param months - may be negative
+     * @return same as date.plusMonths(months, timeZone), with the cache of this calendar
+     */
+    public LunarDate plusMonths(LunarDate date, int months) {
+        return date.plusMonths(months, timeZone, yearCache);
+    }
+
+    /**
+     *
+     * @param from
+     * @param to
+     * @return same as from.daysUntil(to, timeZone), with the cache of this calendar
+     */
+    public int daysUntil(LunarDate from, LunarDate to) {
+        return from.daysUntil(to, timeZone, yearCache);
+    }
+
+    @Override
+    public String toString() {
+        return "LunarCalendar[UTC" + (timeZone < 0 ? "" : "+") + timeZone
+                + (kernel == AstroKernel.REFERENCE ? "" : ", " + kernel) + "]";
+    }
+}
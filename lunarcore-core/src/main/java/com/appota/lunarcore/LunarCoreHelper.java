@@ -0,0 +1,1004 @@
+package com.appota.lunarcore;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+public class LunarCoreHelper {
+    private static final double PI = Math.PI;
+
+    /**
+     * Julian day number of 1/1/1970, the epoch day 0 of java.time.LocalDate.toEpochDay
+     */
+    public static final int EPOCH_JULIAN_DAY = 2440588;
+
+    /**
+     * Month 11 and leap month of a year only depend on the year and the time zone,
+     * and most of the conversions are around "now", so we keep the last ones here.
+     */
+    private static final LunarYearCache YEAR_CACHE = new LunarYearCache(256);
+
+    /**
+     * An optional precomputed table, used by the conversions of its time zone and years (see setTable)
+     */
+    private static volatile LunarYearTable table;
+
+    /**
+     * In China, Vietnam and other East Asian countries,
+     * we use the sexagenary cycle, also known as the Stems-and-Branches.
+     * It appears as a means of recording days in the first Chinese written texts.
+     * We have 10 Heavenly Stems and 12 Earthly Branches which make 60 Stem-Branch pairs.
+     * From those pairs, we can "guess" which day is good, which day is not, based on some traditional rules.
+     * For more info: https://en.wikipedia.org/wiki/Sexagenary_cycle
+     *
+     * Yin Yang name will be added later
+     */
+
+    // 10 Heavenly Stems
+    // Vietnamese Heavenly Stems (or "Thiên Can")
+    static final String[] CAN = { "Giáp", "Ất", "Bính", "Đinh", "Mậu", "Kỷ", "Canh",
+            "Tân", "Nhâm", "Quý" };
+    // Chinese Heavenly Stems (or "天干")
+    static final String[] STEMS = { "甲", "乙", "丙", "丁", "戊", "己", "庚",
+            "辛", "壬", "癸" };
+
+    // 12 Earthly Branches
+    // Vietnamese Earthly Branches (or "Địa Chi")
+    static final String[] CHI = { "Tý", "Sửu", "Dần", "Mão", "Thìn", "Tỵ", "Ngọ",
+            "Mùi", "Thân", "Dậu", "Tuất", "Hợi" };
+    // Chinese Earthly Branches (or "地支")
+    static final String[] BRANCHES = { "子", "丑", "寅", "卯", "辰", "巳", "午",
+            "未", "申", "酉", "戌", "亥" };
+
+    /**
+     * Based on some traditional rules (again!), on each month,
+     * we have 4 Chi(s)/Branches which is called "good", and 4 Chi(s)/Branches which called "bad".
+     * The next 2-dimensional arrays are the lists of "good days" and "bad days".
+     * We Vietnamese actually have other terms for those two. But we haven't found any English word for that.
+     * So let's just call them "good days" and "bad days".
+     * Reference will be added later.
+     *
+     * We use Chi/Branch with unaccented syllables to make it easy when comparing string.
+     */
+    private static final String[][] goodDays = { new String[] { "tys", "suu", "tyj", "mui" },
+            new String[] { "dan", "mao", "mui", "dau" },
+            new String[] { "thin", "tyj", "dau", "hoi" },
+            new String[] { "ngo", "mui", "suu", "dau" },
+            new String[] { "than", "dau", "suu", "mao" },
+            new String[] { "tuat", "hoi", "mao", "tyj" },
+            new String[] { "tys", "suu", "tyj", "mui" },
+            new String[] { "dan", "mao", "mui", "dau" },
+            new String[] { "thin", "tyj", "dau", "hoi" },
+            new String[] { "ngo", "mui", "suu", "dau" },
+            new String[] { "than", "dau", "suu", "mao" },
+            new String[] { "tuat", "hoi", "mao", "tyj" } };
+
+    private static final String[][] badDays = { new String[] { "ngo", "mao", "hoi", "dau" },
+            new String[] { "than", "tyj", "suu", "hoi" },
+            new String[] { "tuat", "mui", "suu", "hoi" },
+            new String[] { "tys", "dau", "tyj", "mao" },
+            new String[] { "dan", "hoi", "mui", "tyj" },
+            new String[] { "thin", "suu", "dau", "mui" },
+            new String[] { "ngo", "mao", "hoi", "dau" },
+            new String[] { "than", "tyj", "suu", "hoi" },
+            new String[] { "tuat", "mui", "suu", "hoi" },
+            new String[] { "tys", "dau", "tyj", "mao" },
+            new String[] { "dan", "hoi", "mui", "tyj" },
+            new String[] { "thin", "suu", "dau", "mui" } };
+
+
+    // Chi/Branches with unaccented syllables, in the same order as CHI, the names used in the tables above
+    private static final String[] UNACCENTED_CHI = { "tys", "suu", "dan", "mao", "thin", "tyj", "ngo",
+            "mui", "than", "dau", "tuat", "hoi" };
+
+    /**
+     * The same tables as goodDays and badDays, but as bitmasks: bit i of GOOD_DAY_MASKS[lunarMonth - 1]
+     * is set if Chi i is good in that month. So rating a day is only a shift, no string at all.
+     */
+    private static final int[] GOOD_DAY_MASKS = new int[12];
+    private static final int[] BAD_DAY_MASKS = new int[12];
+
+    /**
+     * Vietnamese Chi names (as returned by getChiDayLunar, in lower case, and unaccented) to Chi index,
+     * so the string version of rateDay doesn't have to normalize the common names.
+     */
+    private static final Map<String, Integer> CHI_INDEX = new HashMap<>();
+
+    static {
+        for (int i = 0; i < CHI.length; i++) {
+            CHI_INDEX.put(CHI[i], i);
+            CHI_INDEX.put(CHI[i].toLowerCase(), i);
+            CHI_INDEX.put(UNACCENTED_CHI[i], i);
+        }
+        for (int month = 0; month < 12; month++) {
+            for (String chi : goodDays[month]) {
+                GOOD_DAY_MASKS[month] |= 1 << CHI_INDEX.get(chi);
+            }
+            for (String chi : badDays[month]) {
+                BAD_DAY_MASKS[month] |= 1 << CHI_INDEX.get(chi);
+            }
+        }
+    }
+
+    /**
+     * Can-Chi of a day used to be counted from a "pivot" day (March 1st 1996, Đinh Dậu) with two Calendar objects.
+     * It's now only the Julian day number around the sexagenary cycle, see CanChi.dayIndex.
+     */
+    public static String getCanDayLunar(int solarDay, int solarMonth, int solarYear) {
+        return CAN[CanChi.canOf(CanChi.dayIndex(solarDay, solarMonth, solarYear))];
+    }
+
+    public static String getChiDayLunar(int solarDay, int solarMonth, int solarYear) {
+        return CHI[CanChi.chiOf(CanChi.dayIndex(solarDay, solarMonth, solarYear))];
+    }
+
+    public static String getChineseCanDayLunar(int solarDay, int solarMonth, int solarYear) {
+        return STEMS[CanChi.canOf(CanChi.dayIndex(solarDay, solarMonth, solarYear))];
+    }
+
+    public static String getChineseChiDayLunar(int solarDay, int solarMonth, int solarYear) {
+        return BRANCHES[CanChi.chiOf(CanChi.dayIndex(solarDay, solarMonth, solarYear))];
+    }
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+
+    /**
+     *
+     * @param s
+     * @return words unaccented syllables, with an exception of "Đ/đ"
+     */
+    private static String unAccent(String s) {
+        String temp = Normalizer.normalize(s, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(temp).replaceAll("").replace("Đ", "D").replace("đ", "d");
+    }
+
+    /**
+     *
+     * @param canchi
+     * @return Can-Chi with unaccented syllables, with an exception of "Tý" and "Tỵ" which has the same result when unaccented.
+     */
+    private static String getUnAccentCanChi(String canchi){
+        String rs = unAccent(canchi);
+        if(canchi.equalsIgnoreCase("tý")){
+            rs +="s";
+        }else if(canchi.equalsIgnoreCase("tỵ")){
+            rs +="j";
+        }
+        return rs.toLowerCase();
+    }
+
+    /**
+     *
+     * @param chiDay
+     * @param lunarMonth
+     * @return the string showing the input day is good or not
+     * We look the Chi up by name, so it is only normalized (unaccented) if it is not written like getChiDayLunar does.
+     * And yeah, "rateDay" is not a really good name for this method!
+     */
+    public static String rateDay(String chiDay, int lunarMonth) {
+        Integer chi = CHI_INDEX.get(chiDay);
+        if (chi == null) {
+            chi = CHI_INDEX.get(getUnAccentCanChi(chiDay));
+        }
+        if (chi == null) {
+            // Not a Chi we know, so it's in none of the tables
+            return DayRating.NORMAL.getLabel();
+        }
+        return rateDay(chi, lunarMonth).getLabel();
+    }
+
+    /**
+     *
+     * @param chiDay - Chi (Branch) index of the day, from 0 (Tý) to 11 (Hợi), see CanChi.chiOf
+     * @param lunarMonth
+     * @return rating of the day, in constant time
+     */
+    public static DayRating rateDay(int chiDay, int lunarMonth) {
+        int bit = 1 << chiDay;
+        if ((GOOD_DAY_MASKS[lunarMonth - 1] & bit) != 0) {
+            return DayRating.GOOD;
+        } else if ((BAD_DAY_MASKS[lunarMonth - 1] & bit) != 0) {
+            return DayRating.BAD;
+        } else {
+            return DayRating.NORMAL;
+        }
+    }
+
+
+
+
+    /**
+     *
+     * @param epochDay - days since 1/1/1970, like java.time.LocalDate.toEpochDay
+     * @return the Julian day number of the same day
+     */
+    public static int julianDayOf(long epochDay) {
+        long jd = epochDay + EPOCH_JULIAN_DAY;
+        if (jd < 0 || jd > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Epoch day out of range: " + epochDay);
+        }
+        return (int) jd;
+    }
+
+    /**
+     *
+     * @param julianDay
+     * @return days since 1/1/1970 of the same day, like java.time.LocalDate.toEpochDay
+     */
+    public static long epochDayOf(int julianDay) {
+        return (long) julianDay - EPOCH_JULIAN_DAY;
+    }
+
+    /**
+     *
+     * @param jd
+     * @return the solar year of the Julian day number
+     */
+    static int yearOf(int jd) {
+        return unpackYear(jdToDatePacked(jd));
+    }
+
+    /**
+     *
+     * @param dd
+     * @param mm
+     * @param yy
+     * @return the number of days since 1 January 4713 BC (Julian calendar)
+     */
+    static int jdFromDate(int dd, int mm, int yy) {
+        int a = (14 - mm) / 12;
+        int y = yy + 4800 - a;
+        int m = mm + 12 * a - 3;
+        int jd = dd + (153 * m + 2) / 5 + 365 * y + y / 4 - y / 100 + y / 400
+                - 32045;
+        if (jd < 2299161) {
+            jd = dd + (153 * m + 2) / 5 + 365 * y + y / 4 - 32083;
+        }
+        // jd = jd - 1721425;
+        return jd;
+    }
+
+    /**
+     * http://www.tondering.dk/claus/calendar.html Section: Is there a formula
+     * for calculating the Julian day number?
+     *
+     * @param jd
+     *            - the number of days since 1 January 4713 BC (Julian calendar)
+     * @return
+     */
+    static int[] jdToDate(int jd) {
+        long date = jdToDatePacked(jd);
+        return new int[] { unpackDay(date), unpackMonth(date), unpackYear(date) };
+    }
+
+    /**
+     *
+     * @param jd
+     * @return the same date as jdToDate, packed in a long (see packDate)
+     */
+    static long jdToDatePacked(int jd) {
+        int a, b, c;
+        if (jd > 2299160) { // After 5/10/1582, Gregorian calendar
+            a = jd + 32044;
+            b = (4 * a + 3) / 146097;
+            c = a - (b * 146097) / 4;
+        } else {
+            b = 0;
+            c = jd + 32082;
+        }
+        int d = (4 * c + 3) / 1461;
+        int e = c - (1461 * d) / 4;
+        int m = (5 * e + 2) / 153;
+        int day = e - (153 * m + 2) / 5 + 1;
+        int month = m + 3 - 12 * (m / 10);
+        int year = b * 100 + d - 4800 + m / 10;
+        return packDate(day, month, year, 0);
+    }
+
+    /**
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @return true if the date exists: Gregorian calendar from 15/10/1582, Julian calendar before
+     * (the calendars of jdFromDate and jdToDate)
+     */
+    public static boolean isValidSolarDate(int solarDay, int solarMonth, int solarYear) {
+        if (solarDay < 1 || solarDay > 31 || solarMonth < 1 || solarMonth > 12) {
+            return false;
+        }
+        return jdToDatePacked(jdFromDate(solarDay, solarMonth, solarYear))
+                == packDate(solarDay, solarMonth, solarYear, 0);
+    }
+
+    /**
+     * Solar longitude in degrees Algorithm from: Astronomical Algorithms, by
+     * Jean Meeus, 1998
+     *
+     * @param jdn
+     *            - number of days since noon UTC on 1 January 4713 BC
+     * @return
+     */
+    static double SunLongitude(double jdn) {
+        // return CC2K.sunLongitude(jdn);
+        return SunLongitudeAA98(jdn);
+    }
+
+    private static double SunLongitudeAA98(double jdn) {
+        if (LunarMetrics.ENABLED) {
+            LunarMetrics.increment(LunarMetrics.Counter.SUN_LONGITUDE);
+        }
+        double T = (jdn - 2415021.0) / 36525; // Time in Julian centuries from
+        // 2000-01-01 12:00:00 GMT
+        double T2 = T * T;
+        double dr = PI / 180; // degree to radian
+        double M = 357.52910 + 35999.05030 * T - 0.0001559 * T2 - 0.00000048
+                * T * T2; // mean anomaly, degree
+        double L0 = 280.46645 + 36000.76983 * T + 0.0003032 * T2; // mean
+        // longitude,
+        // degree
+        double DL = (1.914600 - 0.004817 * T - 0.000014 * T2)
+                * Math.sin(dr * M);
+        DL = DL + (0.019993 - 0.000101 * T) * Math.sin(dr * 2 * M) + 0.000290
+                * Math.sin(dr * 3 * M);
+        double L = L0 + DL; // true longitude, degree
+        L = L - 360 * (INT(L / 360)); // Normalize to (0, 360)
+        return L;
+    }
+
+    private static double NewMoon(int k) {
+        // return CC2K.newMoonTime(k);
+        return NewMoonAA98(k);
+    }
+
+    /**
+     * Julian day number of the kth new moon after (or before) the New Moon of
+     * 1900-01-01 13:51 GMT. Accuracy: 2 minutes Algorithm from: Astronomical
+     * Algorithms, by Jean Meeus, 1998
+     *
+     * @param k
+     * @return the Julian date number (number of days since noon UTC on 1
+     *         January 4713 BC) of the New Moon
+     */
+
+    private static double NewMoonAA98(int k) {
+        if (LunarMetrics.ENABLED) {
+            LunarMetrics.increment(LunarMetrics.Counter.NEW_MOON);
+        }
+        double T = k / 1236.85; // Time in Julian centuries from 1900 January
+        // 0.5
+        double T2 = T * T;
+        double T3 = T2 * T;
+        double dr = PI / 180;
+        double Jd1 = 2415020.75933 + 29.53058868 * k + 0.0001178 * T2
+                - 0.000000155 * T3;
+        Jd1 = Jd1 + 0.00033
+                * Math.sin((166.56 + 132.87 * T - 0.009173 * T2) * dr); // Mean
+        // new
+        // moon
+        double M = 359.2242 + 29.10535608 * k - 0.0000333 * T2 - 0.00000347
+                * T3; // Sun's mean anomaly
+        double Mpr = 306.0253 + 385.81691806 * k + 0.0107306 * T2 + 0.00001236
+                * T3; // Moon's mean anomaly
+        double F = 21.2964 + 390.67050646 * k - 0.0016528 * T2 - 0.00000239
+                * T3; // Moon's argument of latitude
+        double C1 = (0.1734 - 0.000393 * T) * Math.sin(M * dr) + 0.0021
+                * Math.sin(2 * dr * M);
+        C1 = C1 - 0.4068 * Math.sin(Mpr * dr) + 0.0161 * Math.sin(dr * 2 * Mpr);
+        C1 = C1 - 0.0004 * Math.sin(dr * 3 * Mpr);
+        C1 = C1 + 0.0104 * Math.sin(dr * 2 * F) - 0.0051
+                * Math.sin(dr * (M + Mpr));
+        C1 = C1 - 0.0074 * Math.sin(dr * (M - Mpr)) + 0.0004
+                * Math.sin(dr * (2 * F + M));
+        C1 = C1 - 0.0004 * Math.sin(dr * (2 * F - M)) - 0.0006
+                * Math.sin(dr * (2 * F + Mpr));
+        C1 = C1 + 0.0010 * Math.sin(dr * (2 * F - Mpr)) + 0.0005
+                * Math.sin(dr * (2 * Mpr + M));
+        double deltat;
+        if (T < -11) {
+            deltat = 0.001 + 0.000839 * T + 0.0002261 * T2 - 0.00000845 * T3
+                    - 0.000000081 * T * T3;
+        } else {
+            deltat = -0.000278 + 0.000265 * T + 0.000262 * T2;
+        }
+        ;
+        return Jd1 + C1 - deltat;
+    }
+
+    static int INT(double d) {
+        return (int) Math.floor(d);
+    }
+
+    private static double getSunLongitude(int dayNumber, double timeZone) {
+        return SunLongitude(dayNumber - 0.5 - timeZone / 24);
+    }
+
+    static int getNewMoonDay(int k, double timeZone) {
+        double jd = NewMoon(k);
+        return INT(jd + 0.5 + timeZone / 24);
+    }
+
+    static int getSunLongitudeSector(int dayNumber, double timeZone) {
+        return INT(getSunLongitude(dayNumber, timeZone) / 30);
+    }
+
+    static int getLunarMonth11(int yy, double timeZone) {
+        return getLunarMonth11(yy, timeZone, AstroKernel.REFERENCE);
+    }
+
+    static int getLunarMonth11(int yy, double timeZone, AstroKernel kernel) {
+        if (LunarMetrics.ENABLED) {
+            LunarMetrics.increment(LunarMetrics.Counter.LUNAR_MONTH_11);
+        }
+        double off = jdFromDate(31, 12, yy) - 2415021.076998695;
+        int k = INT(off / 29.530588853);
+        int nm = kernel.newMoonDay(k, timeZone);
+        int sunLong = kernel.sunLongitudeSector(nm, timeZone);
+        if (sunLong >= 9) {
+            nm = kernel.newMoonDay(k - 1, timeZone);
+        }
+        return nm;
+    }
+
+    static int getLeapMonthOffset(int a11, double timeZone) {
+        return getLeapMonthOffset(a11, timeZone, AstroKernel.REFERENCE);
+    }
+
+    static int getLeapMonthOffset(int a11, double timeZone, AstroKernel kernel) {
+        if (LunarMetrics.ENABLED) {
+            LunarMetrics.increment(LunarMetrics.Counter.LEAP_MONTH_OFFSET);
+        }
+        int k = INT(0.5 + (a11 - 2415021.076998695) / 29.530588853);
+        int last=0; // Month 11 contains point of sun longutide 3*PI/2 (December
+        // solstice)
+        int i = 1; // We start with the month following lunar month 11
+        int arc = kernel.sunLongitudeSector(kernel.newMoonDay(k + i, timeZone), timeZone);
+//		int arc = INT(getSunLongitude(getNewMoonDay(k + i, timeZone), timeZone) );
+
+        do {
+            last = arc;
+            i++;
+            arc = kernel.sunLongitudeSector(kernel.newMoonDay(k + i, timeZone), timeZone);
+//			arc = INT(getSunLongitude(getNewMoonDay(k + i, timeZone), timeZone));
+
+        } while (arc != last && i < 14);
+        return i - 1;
+    }
+
+    /**
+     * Make all the conversions of the table time zone, inside its years, use the table.
+     * For example, to map a generated file once at startup:
+     *
+     *   LunarCoreHelper.setTable(LunarTableFile.map(new File("lunar-utc7.bin")));
+     *
+     * @param lunarYearTable - the table, or null to always compute
+     */
+    public static void setTable(LunarYearTable lunarYearTable) {
+        table = lunarYearTable;
+    }
+
+    public static LunarYearTable getTable() {
+        return table;
+    }
+
+    /**
+     *
+     * @return the cache of month 11 and leap months used by the conversions, to read its hit/miss counters
+     */
+    public static LunarYearCache getYearCache() {
+        return YEAR_CACHE;
+    }
+
+    /**
+     * Packed dates are used by the allocation-free conversions:
+     * year in the high 32 bits, then month (bits 16..23), leap flag (bits 8..15) and day (bits 0..7).
+     * Comparing two packed dates of the same calendar as longs gives their chronological order.
+     *
+     * @param day
+     * @param month
+     * @param year
+     * @param leap - 1 for a leap lunar month, always 0 for a solar date
+     * @return the packed date
+     */
+    public static long packDate(int day, int month, int year, int leap) {
+        return ((long) year << 32) | (month << 16) | (leap << 8) | day;
+    }
+
+    public static int unpackDay(long date) {
+        return (int) date & 0xFF;
+    }
+
+    public static int unpackMonth(long date) {
+        return (int) (date >>> 16) & 0xFF;
+    }
+
+    public static int unpackYear(long date) {
+        return (int) (date >> 32);
+    }
+
+    public static int unpackLeap(long date) {
+        return (int) (date >>> 8) & 0xFF;
+    }
+
+    /**
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @param timeZone
+     * @return array of [lunarDay, lunarMonth, lunarYear, leapOrNot]
+     */
+    public static int[] convertSolar2Lunar(int solarDay, int solarMonth, int solarYear,
+                                           double timeZone) {
+        return convertSolar2Lunar(solarDay, solarMonth, solarYear, timeZone, new int[4]);
+    }
+
+    /**
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @param timeZone
+     * @param out - array of at least 4 elements, to receive [lunarDay, lunarMonth, lunarYear, leapOrNot]
+     * @return out
+     */
+    public static int[] convertSolar2Lunar(int solarDay, int solarMonth, int solarYear,
+                                           double timeZone, int[] out) {
+        long date = convertSolar2LunarPacked(solarDay, solarMonth, solarYear, timeZone);
+        out[0] = unpackDay(date);
+        out[1] = unpackMonth(date);
+        out[2] = unpackYear(date);
+        out[3] = unpackLeap(date);
+        return out;
+    }
+
+    /**
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @param timeZone
+     * @param out - holder to receive the lunar date, can be reused between calls
+     * @return out
+     */
+    public static MutableLunarDate convertSolar2Lunar(int solarDay, int solarMonth, int solarYear,
+                                                      double timeZone, MutableLunarDate out) {
+        out.set(convertSolar2LunarPacked(solarDay, solarMonth, solarYear, timeZone));
+        return out;
+    }
+
+    /**
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @param timeZone
+     * @return the lunar date packed in a long (see packDate), nothing is allocated
+     */
+    public static long convertSolar2LunarPacked(int solarDay, int solarMonth, int solarYear,
+                                                double timeZone) {
+        return convertSolar2LunarPacked(jdFromDate(solarDay, solarMonth, solarYear), solarYear, timeZone);
+    }
+
+    /**
+     *
+     * @param dayNumber - Julian day number of the solar date
+     * @param solarYear - solar year of the same date
+     * @param timeZone
+     * @return the lunar date packed in a long (see packDate), for callers who already have the Julian day number
+     */
+    static long convertSolar2LunarPacked(int dayNumber, int solarYear, double timeZone) {
+        LunarYearTable t = table;
+        if (t != null && t.getTimeZone() == timeZone && t.covers(solarYear)) {
+            return t.convertSolar2LunarPacked(dayNumber, solarYear);
+        }
+        return computeSolar2LunarPacked(dayNumber, solarYear, timeZone);
+    }
+
+    /**
+     *
+     * @param julianDay - Julian day number of the solar date
+     * @param timeZone
+     * @return the lunar date packed in a long, same as convertSolar2LunarPacked of the same day
+     */
+    public static long convertJulianDay2LunarPacked(int julianDay, double timeZone) {
+        return convertSolar2LunarPacked(julianDay, yearOf(julianDay), timeZone);
+    }
+
+    /**
+     *
+     * @param epochDay - days since 1/1/1970, like java.time.LocalDate.toEpochDay
+     * @param timeZone
+     * @return the lunar date packed in a long, same as convertSolar2LunarPacked of the same day
+     */
+    public static long convertEpochDay2LunarPacked(long epochDay, double timeZone) {
+        return convertJulianDay2LunarPacked(julianDayOf(epochDay), timeZone);
+    }
+
+    /**
+     * Convert a lot of days given as epoch days. Days of the same lunar month as the day before them,
+     * for example in sorted input, only cost an addition.
+     *
+     * @param epochDays - days since 1/1/1970
+     * @param out - receives the lunar dates packed in longs, same as convertEpochDay2LunarPacked
+     * @param offset - first element of epochDays and out
+     * @param count
+     * @param timeZone
+     */
+    public static void convertEpochDays2LunarPacked(long[] epochDays, long[] out, int offset, int count,
+                                                    double timeZone) {
+        convertEpochDays2LunarPacked(epochDays, out, offset, count, timeZone, null);
+    }
+
+    /**
+     * Same as convertEpochDays2LunarPacked, with the conversions of the calendar if it is not null
+     */
+    static void convertEpochDays2LunarPacked(long[] epochDays, long[] out, int offset, int count, double timeZone,
+                                             LunarCalendar calendar) {
+        // The first day of the last converted month, and its lunar date
+        int monthStart = -30;
+        long firstDate = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int jd = julianDayOf(epochDays[i]);
+            int day = jd - monthStart;
+            // Every month has at least 29 days
+            if (day >= 0 && day < 29) {
+                out[i] = firstDate + day;
+                continue;
+            }
+            long date = calendar != null ? calendar.convertSolar2LunarPacked(jd, yearOf(jd))
+                    : convertSolar2LunarPacked(jd, yearOf(jd), timeZone);
+            out[i] = date;
+            monthStart = jd - unpackDay(date) + 1;
+            firstDate = date - unpackDay(date) + 1;
+        }
+    }
+
+    /**
+     * The astronomical way, without any table
+     */
+    static long computeSolar2LunarPacked(int dayNumber, int solarYear, double timeZone) {
+        return computeSolar2LunarPacked(dayNumber, solarYear, timeZone, YEAR_CACHE);
+    }
+
+    /**
+     *
+     * @param dayNumber
+     * @param solarYear
+     * @param timeZone
+     * @param cache - cache of month 11 and leap months to use, for example the one of a LunarCalendar
+     * @return the lunar date packed in a long
+     */
+    static long computeSolar2LunarPacked(int dayNumber, int solarYear, double timeZone, LunarYearCache cache) {
+        if (LunarMetrics.LATENCY_ENABLED) {
+            long start = System.nanoTime();
+            long date = solar2LunarPacked(dayNumber, solarYear, timeZone, cache);
+            LunarMetrics.recordLatency(LunarMetrics.Conversion.SOLAR_TO_LUNAR, System.nanoTime() - start);
+            return date;
+        }
+        return solar2LunarPacked(dayNumber, solarYear, timeZone, cache);
+    }
+
+    private static long solar2LunarPacked(int dayNumber, int solarYear, double timeZone, LunarYearCache cache) {
+        AstroKernel kernel = cache.getKernel();
+        int lunarDay, lunarMonth, lunarYear, lunarLeap;
+        int k = INT((dayNumber - 2415021.076998695) / 29.530588853);
+        int monthStart = kernel.newMoonDay(k + 1, timeZone);
+        if (monthStart > dayNumber) {
+            monthStart = kernel.newMoonDay(k, timeZone);
+        }
+        // k is only an estimate, it may be one month ahead on the day before a new moon
+        if (monthStart > dayNumber) {
+            monthStart = kernel.newMoonDay(k - 1, timeZone);
+        }
+        int a11 = cache.getLunarMonth11(solarYear, timeZone);
+        int b11 = a11;
+        int a11Year = solarYear;
+        if (a11 >= monthStart) {
+            lunarYear = solarYear;
+            a11Year = solarYear - 1;
+            a11 = cache.getLunarMonth11(a11Year, timeZone);
+        } else {
+            lunarYear = solarYear + 1;
+            b11 = cache.getLunarMonth11(solarYear + 1, timeZone);
+        }
+        lunarDay = dayNumber - monthStart + 1;
+        int diff = INT((monthStart - a11) / 29);
+        lunarLeap = 0;
+        lunarMonth = diff + 11;
+        if (b11 - a11 > 365) {
+            int leapMonthDiff = cache.getLeapMonthOffset(a11Year, timeZone);
+
+            if (diff >= leapMonthDiff) {
+                lunarMonth = diff + 10;
+                if (diff == leapMonthDiff) {
+                    lunarLeap = 1;
+                }
+            }
+        }
+        if (lunarMonth > 12) {
+            lunarMonth = lunarMonth - 12;
+        }
+        if (lunarMonth >= 11 && diff < 4) {
+            lunarYear -= 1;
+        }
+        return packDate(lunarDay, lunarMonth, lunarYear, lunarLeap);
+    }
+
+    /**
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @param days - number of consecutive days to convert, starting from the input date
+     * @param timeZone
+     * @return lunar dates of the days, packed in longs (see packDate)
+     */
+    public static long[] convertSolar2LunarRange(int solarDay, int solarMonth, int solarYear, int days,
+                                                 double timeZone) {
+        long[] out = new long[days];
+        convertSolar2LunarRange(solarDay, solarMonth, solarYear, timeZone, out, 0, days);
+        return out;
+    }
+
+    /**
+     * Convert consecutive days at once. Instead of converting each day from scratch,
+     * we walk the new moons one by one: each new moon, month 11 and leap month is computed once,
+     * so a whole year costs about 13 new moon calculations instead of a few thousands.
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @param timeZone
+     * @param out - receives the packed lunar dates (see packDate), the same as convertSolar2LunarPacked of each day
+     * @param offset - first index of out to write
+     * @param count - number of consecutive days to convert
+     */
+    public static void convertSolar2LunarRange(int solarDay, int solarMonth, int solarYear, double timeZone,
+                                               long[] out, int offset, int count) {
+        convertSolar2LunarRange(solarDay, solarMonth, solarYear, timeZone, YEAR_CACHE, out, offset, count);
+    }
+
+    static void convertSolar2LunarRange(int solarDay, int solarMonth, int solarYear, double timeZone,
+                                        LunarYearCache cache, long[] out, int offset, int count) {
+        if (count <= 0) {
+            return;
+        }
+        AstroKernel kernel = cache.getKernel();
+        int dayNumber = jdFromDate(solarDay, solarMonth, solarYear);
+        // Find the lunar year (a11 -> b11) containing the first day
+        int a11Year = solarYear;
+        int a11 = cache.getLunarMonth11(a11Year, timeZone);
+        if (a11 > dayNumber) {
+            a11Year--;
+            a11 = cache.getLunarMonth11(a11Year, timeZone);
+        }
+        int b11 = cache.getLunarMonth11(a11Year + 1, timeZone);
+        int leapOff = b11 - a11 > 365 ? cache.getLeapMonthOffset(a11Year, timeZone) : 0;
+        int k = INT(0.5 + (a11 - 2415021.076998695) / 29.530588853);
+        // Then the month containing the first day
+        int off = (dayNumber - a11) / 29;
+        int monthStart = off == 0 ? a11 : kernel.newMoonDay(k + off, timeZone);
+        if (monthStart > dayNumber) {
+            off--;
+            monthStart = off == 0 ? a11 : kernel.newMoonDay(k + off, timeZone);
+        }
+        int nextMonthStart = kernel.newMoonDay(k + off + 1, timeZone);
+
+        int end = offset + count;
+        int i = offset;
+        while (true) {
+            int lunarLeap = 0;
+            int lunarMonth = off + 11;
+            if (leapOff != 0 && off >= leapOff) {
+                lunarMonth = off + 10;
+                if (off == leapOff) {
+                    lunarLeap = 1;
+                }
+            }
+            if (lunarMonth > 12) {
+                lunarMonth = lunarMonth - 12;
+            }
+            int lunarYear = a11Year + 1;
+            if (lunarMonth >= 11 && off < 4) {
+                lunarYear -= 1;
+            }
+            for (; dayNumber < nextMonthStart && i < end; dayNumber++, i++) {
+                out[i] = packDate(dayNumber - monthStart + 1, lunarMonth, lunarYear, lunarLeap);
+            }
+            if (i == end) {
+                return;
+            }
+            // Next month, which may be the month 11 of the next lunar year
+            monthStart = nextMonthStart;
+            if (monthStart >= b11) {
+                a11Year++;
+                a11 = b11;
+                b11 = cache.getLunarMonth11(a11Year + 1, timeZone);
+                leapOff = b11 - a11 > 365 ? cache.getLeapMonthOffset(a11Year, timeZone) : 0;
+                k = INT(0.5 + (a11 - 2415021.076998695) / 29.530588853);
+                off = 0;
+            } else {
+                off++;
+            }
+            nextMonthStart = kernel.newMoonDay(k + off + 1, timeZone);
+        }
+    }
+
+    /**
+     * Everything needed to draw a month in a calendar view, in one call, see MonthGrid.
+     * Call MonthGrid.fill on your own instance to allocate nothing.
+     *
+     * @param solarYear
+     * @param solarMonth
+     * @param timeZone
+     * @return the 42 cells of the month, weeks starting on Monday
+     */
+    public static MonthGrid monthGrid(int solarYear, int solarMonth, double timeZone) {
+        return new MonthGrid().fill(solarYear, solarMonth, timeZone);
+    }
+
+    /**
+     * The next lunar day/month, for example the next Tết (1/1) or Trung Thu (15/8).
+     * To find many of them, walk a LunarMonthCursor instead.
+     *
+     * @param lunarDay
+     * @param lunarMonth
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @param timeZone
+     * @return the first solar date on or after solarDay/solarMonth/solarYear which is lunarDay/lunarMonth
+     * (not in a leap month), packed in a long (see packDate)
+     */
+    public static long nextLunarDate(int lunarDay, int lunarMonth, int solarDay, int solarMonth, int solarYear,
+                                     double timeZone) {
+        return new LunarMonthCursor(timeZone, YEAR_CACHE)
+                .nextOccurrence(lunarDay, lunarMonth, solarDay, solarMonth, solarYear);
+    }
+
+    public static int[] convertLunar2Solar(int lunarDay, int lunarMonth,
+                                           int lunarYear, int lunarLeap, double timeZone) {
+        return convertLunar2Solar(lunarDay, lunarMonth, lunarYear, lunarLeap, timeZone, new int[3]);
+    }
+
+    /**
+     *
+     * @param lunarDay
+     * @param lunarMonth
+     * @param lunarYear
+     * @param lunarLeap
+     * @param timeZone
+     * @param out - array of at least 3 elements, to receive [solarDay, solarMonth, solarYear]
+     * @return out, filled with zeros if the input is invalid
+     */
+    public static int[] convertLunar2Solar(int lunarDay, int lunarMonth,
+                                           int lunarYear, int lunarLeap, double timeZone, int[] out) {
+        long date = convertLunar2SolarPacked(lunarDay, lunarMonth, lunarYear, lunarLeap, timeZone);
+        out[0] = unpackDay(date);
+        out[1] = unpackMonth(date);
+        out[2] = unpackYear(date);
+        return out;
+    }
+
+    /**
+     *
+     * @param lunarDay
+     * @param lunarMonth
+     * @param lunarYear
+     * @param lunarLeap
+     * @param timeZone
+     * @return the solar date packed in a long (see packDate), or 0 if the input is invalid
+     */
+    public static long convertLunar2SolarPacked(int lunarDay, int lunarMonth,
+                                                int lunarYear, int lunarLeap, double timeZone) {
+        LunarYearTable t = table;
+        if (t != null && t.getTimeZone() == timeZone && t.covers(lunarYear)) {
+            return t.convertLunar2SolarPacked(lunarDay, lunarMonth, lunarYear, lunarLeap);
+        }
+        return computeLunar2SolarPacked(lunarDay, lunarMonth, lunarYear, lunarLeap, timeZone);
+    }
+
+    /**
+     *
+     * @param lunarDay
+     * @param lunarMonth
+     * @param lunarYear
+     * @param lunarLeap
+     * @param timeZone
+     * @return the Julian day number of the solar date, same day as convertLunar2SolarPacked
+     * @throws IllegalArgumentException if the input is invalid (where convertLunar2Solar returns zeros)
+     */
+    public static int convertLunar2JulianDay(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap,
+                                             double timeZone) {
+        LunarYearTable t = table;
+        int jd = t != null && t.getTimeZone() == timeZone && t.covers(lunarYear)
+                ? t.convertLunar2JulianDay(lunarDay, lunarMonth, lunarYear, lunarLeap)
+                : computeLunar2JulianDay(lunarDay, lunarMonth, lunarYear, lunarLeap, timeZone);
+        return checkJulianDay(jd, lunarMonth, lunarYear);
+    }
+
+    /**
+     *
+     * @param lunarDay
+     * @param lunarMonth
+     * @param lunarYear
+     * @param lunarLeap
+     * @param timeZone
+     * @return the solar date as days since 1/1/1970, like java.time.LocalDate.toEpochDay
+     * @throws IllegalArgumentException if the input is invalid (where convertLunar2Solar returns zeros)
+     */
+    public static long convertLunar2EpochDay(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap,
+                                             double timeZone) {
+        return epochDayOf(convertLunar2JulianDay(lunarDay, lunarMonth, lunarYear, lunarLeap, timeZone));
+    }
+
+    static int checkJulianDay(int jd, int lunarMonth, int lunarYear) {
+        if (jd == 0) {
+            throw new IllegalArgumentException("Lunar year " + lunarYear + " has no leap month " + lunarMonth);
+        }
+        return jd;
+    }
+
+    /**
+     * The astronomical way, without any table
+     */
+    static long computeLunar2SolarPacked(int lunarDay, int lunarMonth,
+                                         int lunarYear, int lunarLeap, double timeZone) {
+        return computeLunar2SolarPacked(lunarDay, lunarMonth, lunarYear, lunarLeap, timeZone, YEAR_CACHE);
+    }
+
+    static long computeLunar2SolarPacked(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap,
+                                         double timeZone, LunarYearCache cache) {
+        int jd = computeLunar2JulianDay(lunarDay, lunarMonth, lunarYear, lunarLeap, timeZone, cache);
+        return jd == 0 ? 0 : jdToDatePacked(jd);
+    }
+
+    static int computeLunar2JulianDay(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap, double timeZone) {
+        return computeLunar2JulianDay(lunarDay, lunarMonth, lunarYear, lunarLeap, timeZone, YEAR_CACHE);
+    }
+
+    /**
+     * Same as computeLunar2SolarPacked, as a Julian day number: 0 if the input is invalid
+     */
+    static int computeLunar2JulianDay(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap,
+                                      double timeZone, LunarYearCache cache) {
+        if (LunarMetrics.LATENCY_ENABLED) {
+            long start = System.nanoTime();
+            int jd = lunar2JulianDay(lunarDay, lunarMonth, lunarYear, lunarLeap, timeZone, cache);
+            LunarMetrics.recordLatency(LunarMetrics.Conversion.LUNAR_TO_SOLAR, System.nanoTime() - start);
+            return jd;
+        }
+        return lunar2JulianDay(lunarDay, lunarMonth, lunarYear, lunarLeap, timeZone, cache);
+    }
+
+    private static int lunar2JulianDay(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap,
+                                       double timeZone, LunarYearCache cache) {
+        AstroKernel kernel = cache.getKernel();
+        int a11Year = lunarMonth < 11 ? lunarYear - 1 : lunarYear;
+        int a11 = cache.getLunarMonth11(a11Year, timeZone);
+        int b11 = cache.getLunarMonth11(a11Year + 1, timeZone);
+        int k = INT(0.5 + (a11 - 2415021.076998695) / 29.530588853);
+        int off = lunarMonth - 11;
+        if (off < 0) {
+            off += 12;
+        }
+        if (b11 - a11 > 365) {
+            int leapOff = cache.getLeapMonthOffset(a11Year, timeZone);
+            int leapMonth = leapOff - 2;
+            if (leapMonth < 0) {
+                leapMonth += 12;
+            }
+            if (lunarLeap != 0 && lunarMonth != leapMonth) {
+                // Invalid input: this lunar year has a leap month, but not this one
+                return 0;
+            } else if (lunarLeap != 0 || off >= leapOff) {
+                off += 1;
+            }
+        }
+        int monthStart = kernel.newMoonDay(k + off, timeZone);
+
+        return monthStart + lunarDay - 1;
+    }
+}
@@ -0,0 +1,396 @@
+package com.appota.lunarcore;
+
+/**
+ * An immutable lunar date, packed in one int:
+ *
+ *   bits 0..4   : day, from 1 to 30
+ *   bit 5       : 1 in a leap month
+ *   bits 6..9   : month, from 1 to 12
+ *   bits 10..31 : year (signed)
+ *
+ * A leap month comes right after the normal month of the same number, so the ints (toInt) sort
+ * like the dates, and equals, hashCode and compareTo only use the int: use the object as a map key,
+ * or the int itself in primitive arrays and sorts.
+ *
+ * The arithmetic (plusDays, plusMonths, daysUntil) stays in the lunar calendar: it walks the month lengths
+ * of each lunar year, computed once and kept in the LunarYearCache (see LunarYearCache.getPeriod),
+ * instead of converting to a solar date and back. Like the conversions, the month lengths depend on
+ * the time zone, so these methods take it. They use the cache of LunarCoreHelper: LunarCalendar has
+ * the same methods (plusDays(date, days)...) with its own cache and kernel.
+ *
+ * of only checks the ranges of the fields: a leap month of a year without one, or a 30th of
+ * a 29 day month, is only rejected (IllegalArgumentException) by the methods taking a time zone, see isValid.
+ */
+public final class LunarDate implements Comparable<LunarDate> {
+    private static final int DAY_MASK = 0x1F;
+    private static final int LEAP_BIT = 1 << 5;
+    private static final int MONTH_SHIFT = 6;
+    private static final int MONTH_MASK = 0xF;
+    private static final int YEAR_SHIFT = 10;
+    private static final int MIN_YEAR = -(1 << 21);
+    private static final int MAX_YEAR = (1 << 21) - 1;
+
+    private final int packed;
+
+    private LunarDate(int packed) {
+        this.packed = packed;
+    }
+
+    /**
+     *
+     * @param day - from 1 to 30
+     * @param month - from 1 to 12
+     * @param year
+     * @param leap - 1 for a leap month, else 0
+     * @return the lunar date
+     */
+    public static LunarDate of(int day, int month, int year, int leap) {
+        if (day < 1 || day > 30) {
+            throw new IllegalArgumentException("Not a lunar day: " + day);
+        }
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("Not a lunar month: " + month);
+        }
+        if (leap != 0 && leap != 1) {
+            throw new IllegalArgumentException("Not a leap flag: " + leap);
+        }
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            throw new IllegalArgumentException("Lunar year out of range: " + year);
+        }
+        return new LunarDate((year << YEAR_SHIFT) | (month << MONTH_SHIFT) | (leap == 1 ? LEAP_BIT : 0) | day);
+    }
+
+    /**
+     *
+     * @param packed - a date packed by toInt
+     * @return the lunar date
+     */
+    public static LunarDate fromInt(int packed) {
+        return of(packed & DAY_MASK, (packed >>> MONTH_SHIFT) & MONTH_MASK, packed >> YEAR_SHIFT,
+                (packed & LEAP_BIT) != 0 ? 1 : 0);
+    }
+
+    /**
+     *
+     * @param date - a lunar date packed in a long, see LunarCoreHelper.packDate
+     * @return the lunar date
+     */
+    public static LunarDate fromPacked(long date) {
+        return of(LunarCoreHelper.unpackDay(date), LunarCoreHelper.unpackMonth(date), LunarCoreHelper.unpackYear(date),
+                LunarCoreHelper.unpackLeap(date));
+    }
+
+    /**
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @param timeZone
+     * @return the lunar date of this solar date, same as LunarCoreHelper.convertSolar2Lunar
+     */
+    public static LunarDate fromSolar(int solarDay, int solarMonth, int solarYear, double timeZone) {
+        return fromPacked(LunarCoreHelper.convertSolar2LunarPacked(solarDay, solarMonth, solarYear, timeZone));
+    }
+
+    /**
+     *
+     * @param julianDay - Julian day number of the solar date
+     * @param timeZone
+     * @return the lunar date of this day
+     */
+    public static LunarDate fromJulianDay(int julianDay, double timeZone) {
+        return fromPacked(LunarCoreHelper.convertJulianDay2LunarPacked(julianDay, timeZone));
+    }
+
+    /**
+     *
+     * @param epochDay - days since 1/1/1970, like java.time.LocalDate.toEpochDay
+     * @param timeZone
+     * @return the lunar date of this day
+     */
+    public static LunarDate fromEpochDay(long epochDay, double timeZone) {
+        return fromPacked(LunarCoreHelper.convertEpochDay2LunarPacked(epochDay, timeZone));
+    }
+
+    public int getDay() {
+        return packed & DAY_MASK;
+    }
+
+    public int getMonth() {
+        return (packed >>> MONTH_SHIFT) & MONTH_MASK;
+    }
+
+    public int getYear() {
+        return packed >> YEAR_SHIFT;
+    }
+
+    /**
+     *
+     * @return 1 if the date is in a leap month, 0 if not. Same as the 4th element of convertSolar2Lunar result.
+     */
+    public int getLeap() {
+        return (packed & LEAP_BIT) != 0 ? 1 : 0;
+    }
+
+    public boolean isLeapMonth() {
+        return (packed & LEAP_BIT) != 0;
+    }
+
+    /**
+     *
+     * @return this date packed in an int, in the same order as the dates
+     */
+    public int toInt() {
+        return packed;
+    }
+
+    /**
+     *
+     * @return this date packed in a long, see LunarCoreHelper.packDate
+     */
+    public long toPacked() {
+        return LunarCoreHelper.packDate(getDay(), getMonth(), getYear(), getLeap());
+    }
+
+    /**
+     *
+     * @param timeZone
+     * @return true if the month exists (a leap month only in a year which has this one) and has this day
+     */
+    public boolean isValid(double timeZone) {
+        return isValid(timeZone, LunarCoreHelper.getYearCache());
+    }
+
+    boolean isValid(double timeZone, LunarYearCache cache) {
+        long entry = cache.getPeriod(periodYear(), timeZone);
+        int off = offsetOf(entry);
+        return off >= 0 && getDay() <= lengthOf(entry, off);
+    }
+
+    /**
+     *
+     * @param timeZone
+     * @return 29 or 30
+     */
+    public int lengthOfMonth(double timeZone) {
+        return lengthOfMonth(timeZone, LunarCoreHelper.getYearCache());
+    }
+
+    int lengthOfMonth(double timeZone, LunarYearCache cache) {
+        long entry = cache.getPeriod(periodYear(), timeZone);
+        return lengthOf(entry, checkedOffsetOf(entry));
+    }
+
+    /**
+     *
+     * @param timeZone
+     * @return the Julian day number of this date
+     */
+    public int toJulianDay(double timeZone) {
+        return toJulianDay(timeZone, LunarCoreHelper.getYearCache());
+    }
+
+    int toJulianDay(double timeZone, LunarYearCache cache) {
+        long entry = cache.getPeriod(periodYear(), timeZone);
+        int off = checkedOffsetOf(entry);
+        if (getDay() > lengthOf(entry, off)) {
+            throw new IllegalArgumentException("Not a day of this month: " + this);
+        }
+        return LunarYearTable.monthStartOf(entry, off) + getDay() - 1;
+    }
+
+    /**
+     *
+     * @param timeZone
+     * @return days since 1/1/1970 of this date, like java.time.LocalDate.toEpochDay
+     */
+    public long toEpochDay(double timeZone) {
+        return LunarCoreHelper.epochDayOf(toJulianDay(timeZone));
+    }
+
+    /**
+     *
+     * @param timeZone
+     * @return the solar date packed in a long, same as LunarCoreHelper.convertLunar2SolarPacked
+     */
+    public long toSolarPacked(double timeZone) {
+        return LunarCoreHelper.jdToDatePacked(toJulianDay(timeZone));
+    }
+
+    /**
+     *
+     * @param days - may be negative
+     * @param timeZone
+     * @return the lunar date this number of days later
+     */
+    public LunarDate plusDays(int days, double timeZone) {
+        return plusDays(days, timeZone, LunarCoreHelper.getYearCache());
+    }
+
+    LunarDate plusDays(int days, double timeZone, LunarYearCache cache) {
+        if (days == 0) {
+            return this;
+        }
+        int jd = toJulianDay(timeZone, cache) + days;
+        // Start from the period of this date, moved by whole years first
+        int yy = periodYear() + (int) Math.floor(days / 365.2422);
+        long entry = cache.getPeriod(yy, timeZone);
+        while (jd < LunarYearTable.startOf(entry)) {
+            entry = cache.getPeriod(--yy, timeZone);
+        }
+        while (jd >= LunarYearTable.monthStartOf(entry, monthsOf(entry))) {
+            entry = cache.getPeriod(++yy, timeZone);
+        }
+        // Months are 29 or 30 days long, so offset / 29 is either right or one month too far
+        int off = (jd - LunarYearTable.startOf(entry)) / 29;
+        int monthStart = LunarYearTable.monthStartOf(entry, off);
+        if (monthStart > jd) {
+            off--;
+            monthStart = LunarYearTable.monthStartOf(entry, off);
+        }
+        return dateOf(entry, yy, off, jd - monthStart + 1);
+    }
+
+    public LunarDate minusDays(int days, double timeZone) {
+        return plusDays(-days, timeZone);
+    }
+
+    /**
+     * Move by lunar months, leap months included: one month after 15/2/2023 is 15/2 leap/2023.
+     * A 30th moved to a month of 29 days becomes the 29th.
+     *
+     * @param months - may be negative
+     * @param timeZone
+     * @return the lunar date this number of months later
+     */
+    public LunarDate plusMonths(int months, double timeZone) {
+        return plusMonths(months, timeZone, LunarCoreHelper.getYearCache());
+    }
+
+    LunarDate plusMonths(int months, double timeZone, LunarYearCache cache) {
+        int yy = periodYear();
+        long entry = cache.getPeriod(yy, timeZone);
+        int off = checkedOffsetOf(entry) + months;
+        while (off >= monthsOf(entry)) {
+            off -= monthsOf(entry);
+            entry = cache.getPeriod(++yy, timeZone);
+        }
+        while (off < 0) {
+            entry = cache.getPeriod(--yy, timeZone);
+            off += monthsOf(entry);
+        }
+        return dateOf(entry, yy, off, Math.min(getDay(), lengthOf(entry, off)));
+    }
+
+    public LunarDate minusMonths(int months, double timeZone) {
+        return plusMonths(-months, timeZone);
+    }
+
+    /**
+     *
+     * @param other
+     * @param timeZone
+     * @return the number of days from this date to the other, negative if the other is before
+     */
+    public int daysUntil(LunarDate other, double timeZone) {
+        return daysUntil(other, timeZone, LunarCoreHelper.getYearCache());
+    }
+
+    int daysUntil(LunarDate other, double timeZone, LunarYearCache cache) {
+        return other.toJulianDay(timeZone, cache) - toJulianDay(timeZone, cache);
+    }
+
+    /**
+     *
+     * @return the year whose month 11 starts the period of this date (see LunarYearCache.getPeriod)
+     */
+    private int periodYear() {
+        return getMonth() < 11 ? getYear() - 1 : getYear();
+    }
+
+    /**
+     *
+     * @param entry - the period of this date
+     * @return the offset of the month of this date in the period, -1 if it is not a leap month of this period
+     */
+    private int offsetOf(long entry) {
+        int month = getMonth();
+        int off = month - 11;
+        if (off < 0) {
+            off += 12;
+        }
+        int leapOff = LunarYearTable.leapOffsetOf(entry);
+        if (leapOff == 0) {
+            return isLeapMonth() ? -1 : off;
+        }
+        int leapMonth = leapOff - 2;
+        if (leapMonth < 0) {
+            leapMonth += 12;
+        }
+        if (isLeapMonth() && month != leapMonth) {
+            return -1;
+        }
+        return isLeapMonth() || off >= leapOff ? off + 1 : off;
+    }
+
+    private int checkedOffsetOf(long entry) {
+        int off = offsetOf(entry);
+        if (off < 0) {
+            throw new IllegalArgumentException("Not a leap month: " + this);
+        }
+        return off;
+    }
+
+    private static int monthsOf(long entry) {
+        return LunarYearTable.leapOffsetOf(entry) != 0 ? 13 : 12;
+    }
+
+    private static int lengthOf(long entry, int off) {
+        return 29 + ((LunarYearTable.monthLengthsOf(entry) >>> off) & 1);
+    }
+
+    /**
+     *
+     * @param entry - a period
+     * @param yy - the year of its first month 11
+     * @param off - offset of the month in the period
+     * @param day
+     * @return the lunar date
+     */
+    private static LunarDate dateOf(long entry, int yy, int off, int day) {
+        int month = off + 11;
+        int leap = 0;
+        int leapOff = LunarYearTable.leapOffsetOf(entry);
+        if (leapOff != 0 && off >= leapOff) {
+            month = off + 10;
+            if (off == leapOff) {
+                leap = 1;
+            }
+        }
+        if (month > 12) {
+            month -= 12;
+        }
+        int year = month >= 11 && off < 4 ? yy : yy + 1;
+        return of(day, month, year, leap);
+    }
+
+    @Override
+    public int compareTo(LunarDate other) {
+        return packed < other.packed ? -1 : packed == other.packed ? 0 : 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof LunarDate && ((LunarDate) o).packed == packed;
+    }
+
+    @Override
+    public int hashCode() {
+        return packed;
+    }
+
+    @Override
+    public String toString() {
+        return getDay() + "/" + getMonth() + "/" + getYear() + (isLeapMonth() ? " (leap)" : "");
+    }
+}
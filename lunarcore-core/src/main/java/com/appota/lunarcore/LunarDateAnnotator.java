@@ -0,0 +1,392 @@
+package com.appota.lunarcore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Annotates a CSV (or any line based) stream of solar dates with their lunar date and day Can-Chi.
+ * Each line is copied as it is, followed by 5 more columns:
+ *
+ *   lunar_day, lunar_month, lunar_year, leap (0 or 1), can_chi (like "Giáp Tý", in UTF-8)
+ *
+ * Dates are read from one column, either as yyyy-mm-dd (ISO, anything after the day like a time is ignored)
+ * or as dd/mm/yyyy. Lines without a valid date get empty columns.
+ *
+ * Everything is done on bytes: no regex, no String.split, no String per line. Complete lines are taken
+ * from a fixed input buffer, converted a chunk at a time (see DateKernels and LunarCalendar), and written
+ * to a fixed output buffer, so the memory used doesn't depend on the size of the input.
+ * Lines must fit in the buffer. Not thread-safe, use one annotator per thread.
+ */
+public class LunarDateAnnotator {
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final int CHUNK = 1024;
+    // Longest annotation: 5 separators, day, month, a 6 digits year, leap, a Can-Chi name, and "\r\n"
+    private static final int MAX_ANNOTATION = 64;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final byte[][] CAN_CHI_NAMES = new byte[60][];
+
+    static {
+        for (int i = 0; i < 60; i++) {
+            CAN_CHI_NAMES[i] = CanChi.getName(i).getBytes(UTF_8);
+        }
+    }
+
+    private final LunarCalendar calendar;
+    private final int dateColumn;
+    private final byte separator;
+    private final int bufferSize;
+    private boolean header;
+
+    // Current chunk of lines: where they are in the input buffer, and their dates
+    private final int[] lineStarts = new int[CHUNK];
+    private final int[] lineEnds = new int[CHUNK];
+    private final boolean[] lineBreaks = new boolean[CHUNK];
+    private final boolean[] crlf = new boolean[CHUNK];
+    private final boolean[] valid = new boolean[CHUNK];
+    private final int[] days = new int[CHUNK];
+    private final int[] months = new int[CHUNK];
+    private final int[] years = new int[CHUNK];
+    private final int[] julianDays = new int[CHUNK];
+    private final int[] canChi = new int[CHUNK];
+
+    /**
+     *
+     * @param timeZone
+     * @param dateColumn - index of the date column, from 0
+     * @param separator - column separator, like ',' or '\t'. Only ASCII.
+     */
+    public LunarDateAnnotator(double timeZone, int dateColumn, char separator) {
+        this(timeZone, dateColumn, separator, DEFAULT_BUFFER_SIZE);
+    }
+
+    public LunarDateAnnotator(double timeZone, int dateColumn, char separator, int bufferSize) {
+        if (dateColumn < 0 || separator > 127 || separator == '\n' || separator == '"' || bufferSize < 256) {
+            throw new IllegalArgumentException();
+        }
+        this.calendar = LunarCalendar.forOffset(timeZone);
+        this.dateColumn = dateColumn;
+        this.separator = (byte) separator;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     *
+     * @param header - true if the first line is a header: the names of the new columns are added to it
+     */
+    public void setHeader(boolean header) {
+        this.header = header;
+    }
+
+    public Stats annotate(InputStream in, OutputStream out) throws IOException {
+        return annotate(Channels.newChannel(in), Channels.newChannel(out));
+    }
+
+    /**
+     * Annotate the whole input. The channels are not closed.
+     *
+     * @param in
+     * @param out
+     * @return counters and timing of the run
+     * @throws IOException if reading or writing fails, or a line doesn't fit in the buffer
+     */
+    public Stats annotate(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        Stats stats = new Stats();
+        long start = System.nanoTime();
+        ByteBuffer input = ByteBuffer.allocate(bufferSize);
+        ByteBuffer output = ByteBuffer.allocate(bufferSize + MAX_ANNOTATION);
+        byte[] bytes = input.array();
+        boolean headerLine = header;
+        boolean eof = false;
+        while (!eof) {
+            int read = in.read(input);
+            if (read < 0) {
+                eof = true;
+            } else {
+                stats.bytesRead += read;
+                if (input.hasRemaining()) {
+                    continue;
+                }
+            }
+            int limit = input.position();
+            int lineStart = 0;
+            int count = 0;
+            for (int i = 0; i < limit; i++) {
+                if (bytes[i] == '\n') {
+                    boolean cr = i > lineStart && bytes[i - 1] == '\r';
+                    if (headerLine) {
+                        writeHeader(bytes, lineStart, cr ? i - 1 : i, true, cr, output, out, stats);
+                        headerLine = false;
+                    } else {
+                        addLine(count++, bytes, lineStart, cr ? i - 1 : i, true, cr);
+                        if (count == CHUNK) {
+                            writeChunk(count, bytes, output, out, stats);
+                            count = 0;
+                        }
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            if (eof && lineStart < limit) {
+                // Last line, without a line break
+                if (headerLine) {
+                    writeHeader(bytes, lineStart, limit, false, false, output, out, stats);
+                } else {
+                    addLine(count++, bytes, lineStart, limit, false, false);
+                }
+                lineStart = limit;
+            }
+            writeChunk(count, bytes, output, out, stats);
+            if (!eof && lineStart == 0) {
+                throw new IOException("Line longer than the buffer (" + bufferSize + " bytes)");
+            }
+            // Keep the incomplete line for the next read
+            System.arraycopy(bytes, lineStart, bytes, 0, limit - lineStart);
+            input.position(limit - lineStart);
+        }
+        drain(output, out, stats);
+        stats.nanos = System.nanoTime() - start;
+        return stats;
+    }
+
+    private void addLine(int line, byte[] bytes, int start, int end, boolean lineBreak, boolean cr) {
+        lineStarts[line] = start;
+        lineEnds[line] = end;
+        lineBreaks[line] = lineBreak;
+        crlf[line] = cr;
+        parseDate(line, bytes, start, end);
+    }
+
+    /**
+     * Find the date column and parse it into days, months and years, valid is false if there is no valid date
+     */
+    private void parseDate(int line, byte[] bytes, int start, int end) {
+        valid[line] = false;
+        int column = 0;
+        boolean quoted = false;
+        int i = start;
+        while (column < dateColumn && i < end) {
+            byte b = bytes[i++];
+            if (b == '"') {
+                quoted = !quoted;
+            } else if (b == separator && !quoted) {
+                column++;
+            }
+        }
+        if (column < dateColumn) {
+            return;
+        }
+        while (i < end && (bytes[i] == ' ' || bytes[i] == '"')) {
+            i++;
+        }
+        int n1 = 0, n2 = 0, n3 = 0;
+        int digits1 = 0;
+        for (; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++, digits1++) {
+            n1 = n1 * 10 + bytes[i] - '0';
+        }
+        if (digits1 == 0 || digits1 > 6 || i == end || (bytes[i] != '-' && bytes[i] != '/')) {
+            return;
+        }
+        byte dateSeparator = bytes[i++];
+        int digits2 = 0;
+        for (; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++, digits2++) {
+            n2 = n2 * 10 + bytes[i] - '0';
+        }
+        if (digits2 == 0 || digits2 > 2 || i == end || bytes[i] != dateSeparator) {
+            return;
+        }
+        i++;
+        int digits3 = 0;
+        for (; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++, digits3++) {
+            n3 = n3 * 10 + bytes[i] - '0';
+        }
+        if (digits3 == 0 || digits3 > 6) {
+            return;
+        }
+        int day, month, year;
+        if (digits1 == 4 && dateSeparator == '-') {
+            year = n1;
+            month = n2;
+            day = n3;
+        } else if (digits1 <= 2 && dateSeparator == '/') {
+            day = n1;
+            month = n2;
+            year = n3;
+        } else {
+            return;
+        }
+        if (month < 1 || month > 12 || day < 1 || day > 31 || year > DateKernels.MAX_YEAR
+                || day > daysInMonth(month, year)) {
+            return;
+        }
+        days[line] = day;
+        months[line] = month;
+        years[line] = year;
+        valid[line] = true;
+    }
+
+    private static int daysInMonth(int month, int year) {
+        int next = month == 12 ? LunarCoreHelper.jdFromDate(1, 1, year + 1) : LunarCoreHelper.jdFromDate(1, month + 1, year);
+        return next - LunarCoreHelper.jdFromDate(1, month, year);
+    }
+
+    private void writeChunk(int count, byte[] bytes, ByteBuffer output, WritableByteChannel out, Stats stats)
+            throws IOException {
+        if (count == 0) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            if (!valid[i]) {
+                // Any date in the range of the kernels, it won't be written
+                days[i] = 1;
+                months[i] = 1;
+                years[i] = 2000;
+            }
+        }
+        DateKernels.jdFromDates(days, months, years, julianDays, 0, count);
+        DateKernels.dayCanChi(julianDays, canChi, 0, count);
+        for (int i = 0; i < count; i++) {
+            int length = lineEnds[i] - lineStarts[i];
+            if (output.remaining() < length + MAX_ANNOTATION) {
+                drain(output, out, stats);
+            }
+            output.put(bytes, lineStarts[i], length);
+            byte[] o = output.array();
+            int p = output.position();
+            if (!valid[i]) {
+                for (int k = 0; k < 5; k++) {
+                    o[p++] = separator;
+                }
+                stats.invalidLines++;
+            } else {
+                long lunar = calendar.convertSolar2LunarPacked(julianDays[i], years[i]);
+                o[p++] = separator;
+                p = writeInt(o, p, LunarCoreHelper.unpackDay(lunar));
+                o[p++] = separator;
+                p = writeInt(o, p, LunarCoreHelper.unpackMonth(lunar));
+                o[p++] = separator;
+                p = writeInt(o, p, LunarCoreHelper.unpackYear(lunar));
+                o[p++] = separator;
+                o[p++] = (byte) ('0' + LunarCoreHelper.unpackLeap(lunar));
+                o[p++] = separator;
+                byte[] name = CAN_CHI_NAMES[canChi[i]];
+                System.arraycopy(name, 0, o, p, name.length);
+                p += name.length;
+            }
+            p = writeLineBreak(o, p, lineBreaks[i], crlf[i]);
+            output.position(p);
+            stats.lines++;
+        }
+    }
+
+    private void writeHeader(byte[] bytes, int start, int end, boolean lineBreak, boolean cr, ByteBuffer output,
+                             WritableByteChannel out, Stats stats) throws IOException {
+        if (output.remaining() < end - start + MAX_ANNOTATION) {
+            drain(output, out, stats);
+        }
+        output.put(bytes, start, end - start);
+        String[] names = { "lunar_day", "lunar_month", "lunar_year", "leap", "can_chi" };
+        for (String name : names) {
+            output.put(separator);
+            output.put(name.getBytes(UTF_8));
+        }
+        output.position(writeLineBreak(output.array(), output.position(), lineBreak, cr));
+    }
+
+    private static int writeLineBreak(byte[] o, int p, boolean lineBreak, boolean cr) {
+        if (lineBreak) {
+            if (cr) {
+                o[p++] = '\r';
+            }
+            o[p++] = '\n';
+        }
+        return p;
+    }
+
+    /**
+     * Write the decimal digits of value at p, without any String
+     *
+     * @return the position after the last digit
+     */
+    static int writeInt(byte[] o, int p, int value) {
+        if (value < 0) {
+            o[p++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (int v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        for (int k = p + digits - 1; k >= p; k--) {
+            o[k] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return p + digits;
+    }
+
+    private static void drain(ByteBuffer output, WritableByteChannel out, Stats stats) throws IOException {
+        output.flip();
+        while (output.hasRemaining()) {
+            stats.bytesWritten += out.write(output);
+        }
+        output.clear();
+    }
+
+    /**
+     * Counters of one annotate call
+     */
+    public static class Stats {
+        private long lines;
+        private long invalidLines;
+        private long bytesRead;
+        private long bytesWritten;
+        private long nanos;
+
+        /**
+         *
+         * @return number of lines, without the header
+         */
+        public long getLines() {
+            return lines;
+        }
+
+        /**
+         *
+         * @return number of lines without a valid date, written with empty columns
+         */
+        public long getInvalidLines() {
+            return invalidLines;
+        }
+
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public double getLinesPerSecond() {
+            return nanos == 0 ? 0 : lines * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = nanos / 1e9;
+            return lines + " lines (" + invalidLines + " without a valid date), " + bytesRead + " bytes read, "
+                    + bytesWritten + " bytes written in " + (nanos / 1000000) + " ms: "
+                    + Math.round(getLinesPerSecond()) + " lines/s, "
+                    + (seconds == 0 ? 0 : Math.round(bytesRead / seconds / (1024 * 1024))) + " MB/s";
+        }
+    }
+}
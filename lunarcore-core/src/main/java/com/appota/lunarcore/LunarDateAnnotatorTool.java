@@ -0,0 +1,62 @@
+package com.appota.lunarcore;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Command line tool to annotate a CSV file of solar dates (see LunarDateAnnotator), for example:
+ *
+ *   java com.appota.lunarcore.LunarDateAnnotatorTool --column 2 --header events.csv events-lunar.csv
+ *
+ * Use - to read from the standard input or write to the standard output.
+ * The counters and the throughput are printed on the standard error at the end.
+ */
+public class LunarDateAnnotatorTool {
+
+    public static void main(String[] args) throws IOException {
+        double timeZone = 7.0;
+        int column = 0;
+        char separator = ',';
+        boolean header = false;
+        int i = 0;
+        for (; i < args.length - 2; i++) {
+            if ("--time-zone".equals(args[i])) {
+                timeZone = Double.parseDouble(args[++i]);
+            } else if ("--column".equals(args[i])) {
+                column = Integer.parseInt(args[++i]);
+            } else if ("--separator".equals(args[i])) {
+                String value = args[++i];
+                separator = "tab".equals(value) ? '\t' : value.charAt(0);
+            } else if ("--header".equals(args[i])) {
+                header = true;
+            } else {
+                break;
+            }
+        }
+        if (args.length - i != 2) {
+            System.err.println("Usage: LunarDateAnnotatorTool [--time-zone 7.0] [--column 0] [--separator ,|tab] [--header]"
+                    + " <input file|-> <output file|->");
+            System.exit(2);
+        }
+
+        LunarDateAnnotator annotator = new LunarDateAnnotator(timeZone, column, separator);
+        annotator.setHeader(header);
+        ReadableByteChannel in = "-".equals(args[i]) ? Channels.newChannel(System.in)
+                : new FileInputStream(args[i]).getChannel();
+        try {
+            WritableByteChannel out = "-".equals(args[i + 1]) ? Channels.newChannel(System.out)
+                    : new FileOutputStream(args[i + 1]).getChannel();
+            try {
+                System.err.println(annotator.annotate(in, out));
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.appota.lunarcore;
+
+import java.util.Arrays;
+
+/**
+ * The attributes of every day of a solar range, indexed for queries like
+ * "the Good days of branch Dần in the next 6 months" or "the 1st of each lunar month on a Giáp day".
+ *
+ * Each day has its lunar day, lunar month, leap flag, Can (stem), Chi (branch) and rating in compact byte columns,
+ * and one bitset per value of each attribute (bit i is the i-th day of the range). A query (see Filter) ORs
+ * the bitsets of the values it accepts for an attribute, ANDs the attributes, 64 days at a time,
+ * and counts or lists the matching days: no conversion, no String and no allocation.
+ *
+ * The lunar dates are computed once, by LunarCoreHelper.convertSolar2LunarRange, and the index grows
+ * at the end with extendTo when the range of the queries moves forward: only the new days are computed.
+ *
+ *   LunarDayIndex index = LunarDayIndex.build(1, 1, 2024, 31, 12, 2024, 7.0);
+ *   LunarDayIndex.Filter goodDan = new LunarDayIndex.Filter().ratings(DayRating.GOOD).branches(2);
+ *   int count = index.find(goodDan, 1, 3, 2024, 31, 8, 2024, julianDays);
+ *
+ * Not thread-safe while it grows, queries can run concurrently otherwise.
+ */
+public class LunarDayIndex {
+    private static final DayRating[] RATINGS = DayRating.values();
+    // Number of days converted by one call of convertSolar2LunarRange when the index grows
+    private static final int CHUNK = 512;
+
+    private final double timeZone;
+    private final LunarYearCache cache;
+    private final int startJulianDay;
+    private int length;
+
+    private byte[] lunarDays = new byte[0];
+    private byte[] lunarMonths = new byte[0];
+    private byte[] leaps = new byte[0];
+    private byte[] stems = new byte[0];
+    private byte[] branches = new byte[0];
+    private byte[] ratings = new byte[0];
+
+    // One bitset per value: lunar day - 1, lunar month - 1, stem, branch, rating ordinal,
+    // and the leap months (the other days are the normal months)
+    private long[][] lunarDayBits = new long[30][0];
+    private long[][] lunarMonthBits = new long[12][0];
+    private long[][] stemBits = new long[10][0];
+    private long[][] branchBits = new long[12][0];
+    private long[][] ratingBits = new long[RATINGS.length][0];
+    private long[] leapBits = new long[0];
+
+    LunarDayIndex(int startJulianDay, double timeZone, LunarYearCache cache) {
+        this.startJulianDay = startJulianDay;
+        this.timeZone = timeZone;
+        this.cache = cache;
+    }
+
+    /**
+     *
+     * @param fromDay
+     * @param fromMonth
+     * @param fromYear
+     * @param toDay
+     * @param toMonth
+     * @param toYear
+     * @param timeZone
+     * @return the index of the days from a solar date to another, both included
+     */
+    public static LunarDayIndex build(int fromDay, int fromMonth, int fromYear, int toDay, int toMonth, int toYear,
+                                      double timeZone) {
+        return build(fromDay, fromMonth, fromYear, toDay, toMonth, toYear, timeZone, LunarCoreHelper.getYearCache());
+    }
+
+    static LunarDayIndex build(int fromDay, int fromMonth, int fromYear, int toDay, int toMonth, int toYear,
+                               double timeZone, LunarYearCache cache) {
+        int from = LunarCoreHelper.jdFromDate(fromDay, fromMonth, fromYear);
+        if (LunarCoreHelper.jdFromDate(toDay, toMonth, toYear) < from) {
+            throw new IllegalArgumentException("The range ends before it starts");
+        }
+        LunarDayIndex index = new LunarDayIndex(from, timeZone, cache);
+        index.extendTo(toDay, toMonth, toYear);
+        return index;
+    }
+
+    /**
+     * Add the days after the end of the index, up to a solar date included. Nothing is done if it is already in the index.
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @return this
+     */
+    public LunarDayIndex extendTo(int solarDay, int solarMonth, int solarYear) {
+        int newLength = LunarCoreHelper.jdFromDate(solarDay, solarMonth, solarYear) - startJulianDay + 1;
+        if (newLength <= length) {
+            return this;
+        }
+        ensureCapacity(newLength);
+        long[] lunarDates = new long[Math.min(CHUNK, newLength - length)];
+        while (length < newLength) {
+            int count = Math.min(lunarDates.length, newLength - length);
+            long solar = LunarCoreHelper.jdToDatePacked(startJulianDay + length);
+            LunarCoreHelper.convertSolar2LunarRange(LunarCoreHelper.unpackDay(solar), LunarCoreHelper.unpackMonth(solar),
+                    LunarCoreHelper.unpackYear(solar), timeZone, cache, lunarDates, 0, count);
+            int canChi = CanChi.dayIndex(startJulianDay + length);
+            for (int i = 0; i < count; i++) {
+                add(lunarDates[i], canChi);
+                canChi = canChi == 59 ? 0 : canChi + 1;
+            }
+        }
+        return this;
+    }
+
+    private void ensureCapacity(int days) {
+        if (days <= lunarDays.length) {
+            return;
+        }
+        int capacity = Math.max(days, lunarDays.length * 2);
+        lunarDays = Arrays.copyOf(lunarDays, capacity);
+        lunarMonths = Arrays.copyOf(lunarMonths, capacity);
+        leaps = Arrays.copyOf(leaps, capacity);
+        stems = Arrays.copyOf(stems, capacity);
+        branches = Arrays.copyOf(branches, capacity);
+        ratings = Arrays.copyOf(ratings, capacity);
+        int words = (capacity + 63) >>> 6;
+        growBitsets(lunarDayBits, words);
+        growBitsets(lunarMonthBits, words);
+        growBitsets(stemBits, words);
+        growBitsets(branchBits, words);
+        growBitsets(ratingBits, words);
+        leapBits = Arrays.copyOf(leapBits, words);
+    }
+
+    private static void growBitsets(long[][] bitsets, int words) {
+        for (int i = 0; i < bitsets.length; i++) {
+            bitsets[i] = Arrays.copyOf(bitsets[i], words);
+        }
+    }
+
+    private void add(long lunarDate, int canChi) {
+        int day = length++;
+        int word = day >>> 6;
+        long bit = 1L << day;
+        int lunarDay = LunarCoreHelper.unpackDay(lunarDate);
+        int lunarMonth = LunarCoreHelper.unpackMonth(lunarDate);
+        int stem = CanChi.canOf(canChi);
+        int branch = CanChi.chiOf(canChi);
+        int rating = LunarCoreHelper.rateDay(branch, lunarMonth).ordinal();
+        lunarDays[day] = (byte) lunarDay;
+        lunarMonths[day] = (byte) lunarMonth;
+        leaps[day] = (byte) LunarCoreHelper.unpackLeap(lunarDate);
+        stems[day] = (byte) stem;
+        branches[day] = (byte) branch;
+        ratings[day] = (byte) rating;
+        lunarDayBits[lunarDay - 1][word] |= bit;
+        lunarMonthBits[lunarMonth - 1][word] |= bit;
+        stemBits[stem][word] |= bit;
+        branchBits[branch][word] |= bit;
+        ratingBits[rating][word] |= bit;
+        if (leaps[day] == 1) {
+            leapBits[word] |= bit;
+        }
+    }
+
+    /**
+     *
+     * @param filter
+     * @param fromDay
+     * @param fromMonth
+     * @param fromYear
+     * @param toDay
+     * @param toMonth
+     * @param toYear
+     * @return the number of days of the filter from a solar date to another, both included and in the index
+     */
+    public int count(Filter filter, int fromDay, int fromMonth, int fromYear, int toDay, int toMonth, int toYear) {
+        return find(filter, fromDay, fromMonth, fromYear, toDay, toMonth, toYear, null);
+    }
+
+    /**
+     *
+     * @param filter
+     * @param fromDay
+     * @param fromMonth
+     * @param fromYear
+     * @param toDay
+     * @param toMonth
+     * @param toYear
+     * @param outJulianDays - filled with the Julian days of the filter in increasing order, as many as it can hold.
+     *                      May be null to only count them.
+     * @return the number of days of the filter from a solar date to another, both included and in the index
+     */
+    public int find(Filter filter, int fromDay, int fromMonth, int fromYear, int toDay, int toMonth, int toYear,
+                    int[] outJulianDays) {
+        int from = LunarCoreHelper.jdFromDate(fromDay, fromMonth, fromYear) - startJulianDay;
+        int to = LunarCoreHelper.jdFromDate(toDay, toMonth, toYear) - startJulianDay;
+        if (from < 0 || to >= length) {
+            throw new IllegalArgumentException("Not in the index: " + fromDay + "/" + fromMonth + "/" + fromYear
+                    + " - " + toDay + "/" + toMonth + "/" + toYear + ", see extendTo");
+        }
+        int count = 0;
+        int lastWord = to >>> 6;
+        for (int word = from >>> 6; word <= lastWord; word++) {
+            long bits = filter.match(this, word);
+            if (word == from >>> 6) {
+                bits &= -1L << from;
+            }
+            if (word == lastWord) {
+                bits &= -1L >>> (63 - (to & 63));
+            }
+            if (outJulianDays == null) {
+                count += Long.bitCount(bits);
+                continue;
+            }
+            while (bits != 0) {
+                if (count < outJulianDays.length) {
+                    outJulianDays[count] = startJulianDay + (word << 6) + Long.numberOfTrailingZeros(bits);
+                }
+                count++;
+                bits &= bits - 1;
+            }
+        }
+        return count;
+    }
+
+    public double getTimeZone() {
+        return timeZone;
+    }
+
+    public int getStartJulianDay() {
+        return startJulianDay;
+    }
+
+    /**
+     *
+     * @return number of days in the index
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public int getLunarDay(int julianDay) {
+        return lunarDays[dayOf(julianDay)];
+    }
+
+    public int getLunarMonth(int julianDay) {
+        return lunarMonths[dayOf(julianDay)];
+    }
+
+    /**
+     *
+     * @param julianDay
+     * @return 1 for a day of a leap month, else 0
+     */
+    public int getLeap(int julianDay) {
+        return leaps[dayOf(julianDay)];
+    }
+
+    /**
+     *
+     * @param julianDay
+     * @return Can (Stem) index of the day, from 0 (Giáp) to 9 (Quý)
+     */
+    public int getStem(int julianDay) {
+        return stems[dayOf(julianDay)];
+    }
+
+    /**
+     *
+     * @param julianDay
+     * @return Chi (Branch) index of the day, from 0 (Tý) to 11 (Hợi)
+     */
+    public int getBranch(int julianDay) {
+        return branches[dayOf(julianDay)];
+    }
+
+    public DayRating getRating(int julianDay) {
+        return RATINGS[ratings[dayOf(julianDay)]];
+    }
+
+    private int dayOf(int julianDay) {
+        int day = julianDay - startJulianDay;
+        if (day < 0 || day >= length) {
+            throw new IllegalArgumentException("Not in the index: Julian day " + julianDay);
+        }
+        return day;
+    }
+
+    /**
+     * The days a query accepts: for each attribute, the set of accepted values, all of them by default.
+     * The setters replace the set of an attribute and return this, so a filter reads like the query:
+     *
+     *   new LunarDayIndex.Filter().ratings(DayRating.GOOD).branches(2, 6, 10).lunarDays(1, 15)
+     *
+     * A filter can be reused for many queries and indexes.
+     */
+    public static class Filter {
+        private static final int ALL_LUNAR_DAYS = (1 << 30) - 1;
+        private static final int ALL_LUNAR_MONTHS = (1 << 12) - 1;
+        private static final int ALL_STEMS = (1 << 10) - 1;
+        private static final int ALL_BRANCHES = (1 << 12) - 1;
+        private static final int ALL_RATINGS = (1 << RATINGS.length) - 1;
+        // Bit 0: the normal months, bit 1: the leap months
+        private static final int ALL_LEAPS = 3;
+
+        private int lunarDayMask = ALL_LUNAR_DAYS;
+        private int lunarMonthMask = ALL_LUNAR_MONTHS;
+        private int stemMask = ALL_STEMS;
+        private int branchMask = ALL_BRANCHES;
+        private int ratingMask = ALL_RATINGS;
+        private int leapMask = ALL_LEAPS;
+
+        /**
+         *
+         * @param values - lunar days, from 1 to 30
+         * @return this
+         */
+        public Filter lunarDays(int... values) {
+            lunarDayMask = mask(values, 1, 30);
+            return this;
+        }
+
+        /**
+         *
+         * @param values - lunar months, from 1 to 12
+         * @return this
+         */
+        public Filter lunarMonths(int... values) {
+            lunarMonthMask = mask(values, 1, 12);
+            return this;
+        }
+
+        /**
+         *
+         * @param leap - true for the days of leap months only, false for the days of normal months only
+         * @return this
+         */
+        public Filter leapMonth(boolean leap) {
+            leapMask = leap ? 2 : 1;
+            return this;
+        }
+
+        /**
+         *
+         * @param values - Can (Stem) indexes, from 0 (Giáp) to 9 (Quý)
+         * @return this
+         */
+        public Filter stems(int... values) {
+            stemMask = mask(values, 0, 9);
+            return this;
+        }
+
+        /**
+         *
+         * @param values - Chi (Branch) indexes, from 0 (Tý) to 11 (Hợi)
+         * @return this
+         */
+        public Filter branches(int... values) {
+            branchMask = mask(values, 0, 11);
+            return this;
+        }
+
+        public Filter ratings(DayRating... values) {
+            int mask = 0;
+            for (DayRating rating : values) {
+                mask |= 1 << rating.ordinal();
+            }
+            ratingMask = mask;
+            return this;
+        }
+
+        private static int mask(int[] values, int min, int max) {
+            int mask = 0;
+            for (int value : values) {
+                if (value < min || value > max) {
+                    throw new IllegalArgumentException("Not in " + min + ".." + max + ": " + value);
+                }
+                mask |= 1 << (value - min);
+            }
+            return mask;
+        }
+
+        long match(LunarDayIndex index, int word) {
+            long bits = select(index.ratingBits, ratingMask, ALL_RATINGS, word);
+            if (bits != 0) {
+                bits &= select(index.branchBits, branchMask, ALL_BRANCHES, word);
+            }
+            if (bits != 0) {
+                bits &= select(index.stemBits, stemMask, ALL_STEMS, word);
+            }
+            if (bits != 0) {
+                bits &= select(index.lunarDayBits, lunarDayMask, ALL_LUNAR_DAYS, word);
+            }
+            if (bits != 0) {
+                bits &= select(index.lunarMonthBits, lunarMonthMask, ALL_LUNAR_MONTHS, word);
+            }
+            if (bits != 0 && leapMask != ALL_LEAPS) {
+                long leapBits = index.leapBits[word];
+                bits &= leapMask == 2 ? leapBits : ~leapBits;
+            }
+            return bits;
+        }
+
+        private static long select(long[][] bitsets, int mask, int all, int word) {
+            if (mask == all) {
+                return -1L;
+            }
+            long bits = 0;
+            for (int m = mask; m != 0; m &= m - 1) {
+                bits |= bitsets[Integer.numberOfTrailingZeros(m)][word];
+            }
+            return bits;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.appota.lunarcore;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Optional counters of the expensive steps of the conversions, and a histogram of the conversion latencies,
+ * to see from outside why some conversions are slow (a leap year runs the getLeapMonthOffset loop
+ * up to 13 times, a date near the month 11 needs one more getLunarMonth11...).
+ *
+ * Disabled by default. Enable it with system properties, before the first conversion:
+ *
+ *   -Dlunarcore.metrics=true           counters
+ *   -Dlunarcore.metrics.latency=true   counters and latencies (two System.nanoTime calls per computed conversion)
+ *
+ * The flags are static final, so when disabled the JIT removes the counting code from the hot path,
+ * nothing is allocated and every count stays at 0.
+ *
+ * Counting is striped like a LongAdder (not available on Java 7 and old Android versions):
+ * each thread increments the cells of its own stripe, the readers sum all the stripes.
+ * Reads are not an atomic snapshot of all the counters, which is fine for monitoring.
+ */
+public final class LunarMetrics {
+
+    public enum Counter {
+        /** NewMoonAA98 evaluations */
+        NEW_MOON("new_moon"),
+        /** SunLongitudeAA98 evaluations */
+        SUN_LONGITUDE("sun_longitude"),
+        /** getLunarMonth11 computations */
+        LUNAR_MONTH_11("lunar_month_11"),
+        /** getLeapMonthOffset computations */
+        LEAP_MONTH_OFFSET("leap_month_offset"),
+        /** LunarYearCache lookups found in the cache, of all the caches */
+        YEAR_CACHE_HIT("year_cache_hit"),
+        /** LunarYearCache lookups computed */
+        YEAR_CACHE_MISS("year_cache_miss"),
+        /** conversions answered by a LunarYearTable, without any computation */
+        TABLE_LOOKUP("table_lookup");
+
+        private final String metricName;
+
+        Counter(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    public enum Conversion {
+        SOLAR_TO_LUNAR("solar_to_lunar"),
+        LUNAR_TO_SOLAR("lunar_to_solar");
+
+        private final String metricName;
+
+        Conversion(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    /**
+     * Latencies are counted in power of 2 buckets: bucket i counts the latencies from 2^i to 2^(i+1) - 1 nanoseconds,
+     * the last one everything above
+     */
+    public static final int LATENCY_BUCKETS = 32;
+
+    static final boolean LATENCY_ENABLED = Boolean.getBoolean("lunarcore.metrics.latency");
+    static final boolean ENABLED = LATENCY_ENABLED || Boolean.getBoolean("lunarcore.metrics");
+
+    private static final int COUNTERS = Counter.values().length;
+    private static final int HISTOGRAMS_OFFSET = COUNTERS;
+    // Per conversion: the buckets, then the sum of the latencies
+    private static final int HISTOGRAM_SIZE = LATENCY_BUCKETS + 1;
+    private static final int CELLS_PER_STRIPE = COUNTERS + Conversion.values().length * HISTOGRAM_SIZE;
+    // Each stripe starts on its own cache line (8 longs), so the threads don't write to the same lines
+    private static final int STRIPE_SIZE = (CELLS_PER_STRIPE + 7) & ~7;
+    private static final int STRIPES = ENABLED ? stripeCount() : 0;
+    private static final AtomicLongArray CELLS = new AtomicLongArray(STRIPES * STRIPE_SIZE);
+
+    private LunarMetrics() {
+    }
+
+    /**
+     *
+     * @return number of stripes of the striped counters, a power of 2: about two per processor
+     */
+    static int stripeCount() {
+        int processors = Math.min(Runtime.getRuntime().availableProcessors(), 64);
+        return Integer.highestOneBit(Math.max(processors * 2 - 1, 1)) << 1;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static boolean isLatencyEnabled() {
+        return LATENCY_ENABLED;
+    }
+
+    private static int stripe() {
+        // Thread ids are given in sequence, so threads running together usually get different stripes
+        return ((int) Thread.currentThread().getId() & (STRIPES - 1)) * STRIPE_SIZE;
+    }
+
+    /**
+     * Callers check ENABLED first, so nothing is left of the call when disabled:
+     *
+     *   if (LunarMetrics.ENABLED) {
+     *       LunarMetrics.increment(LunarMetrics.Counter.NEW_MOON);
+     *   }
+     */
+    static void increment(Counter counter) {
+        CELLS.incrementAndGet(stripe() + counter.ordinal());
+    }
+
+    /**
+     * Callers check LATENCY_ENABLED first
+     *
+     * @param conversion
+     * @param nanos - duration of one conversion
+     */
+    static void recordLatency(Conversion conversion, long nanos) {
+        int bucket = Math.min(63 - Long.numberOfLeadingZeros(nanos | 1), LATENCY_BUCKETS - 1);
+        int histogram = stripe() + HISTOGRAMS_OFFSET + conversion.ordinal() * HISTOGRAM_SIZE;
+        CELLS.incrementAndGet(histogram + bucket);
+        CELLS.addAndGet(histogram + LATENCY_BUCKETS, nanos);
+    }
+
+    private static long sum(int cell) {
+        long sum = 0;
+        for (int s = 0; s < STRIPES; s++) {
+            sum += CELLS.get(s * STRIPE_SIZE + cell);
+        }
+        return sum;
+    }
+
+    /**
+     *
+     * @param counter
+     * @return number of events since the start (or the last reset), 0 when disabled
+     */
+    public static long getCount(Counter counter) {
+        return sum(counter.ordinal());
+    }
+
+    /**
+     *
+     * @param conversion
+     * @return number of conversions of each latency bucket (see LATENCY_BUCKETS), zeros when latencies are disabled
+     */
+    public static long[] getLatencyHistogram(Conversion conversion) {
+        long[] histogram = new long[LATENCY_BUCKETS];
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            histogram[i] = sum(HISTOGRAMS_OFFSET + conversion.ordinal() * HISTOGRAM_SIZE + i);
+        }
+        return histogram;
+    }
+
+    /**
+     *
+     * @param conversion
+     * @return sum of the latencies of all the conversions, in nanoseconds
+     */
+    public static long getLatencyTotalNanos(Conversion conversion) {
+        return sum(HISTOGRAMS_OFFSET + conversion.ordinal() * HISTOGRAM_SIZE + LATENCY_BUCKETS);
+    }
+
+    /**
+     *
+     * @param conversion
+     * @param percentile - from 0 to 100
+     * @return upper bound in nanoseconds of the bucket of this percentile, 0 if there is no latency recorded
+     */
+    public static long getLatencyPercentile(Conversion conversion, double percentile) {
+        long[] histogram = getLatencyHistogram(conversion);
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(LATENCY_BUCKETS - 1);
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket == LATENCY_BUCKETS - 1 ? Long.MAX_VALUE : (2L << bucket) - 1;
+    }
+
+    /**
+     * Set all the counters and latencies back to 0
+     */
+    public static void reset() {
+        for (int i = 0; i < CELLS.length(); i++) {
+            CELLS.set(i, 0);
+        }
+    }
+
+    /**
+     * All the metrics in the Prometheus text format, for example to serve them on a /metrics endpoint:
+     *
+     *   lunarcore_calls_total{step="new_moon"} 1234
+     *   lunarcore_conversion_latency_nanoseconds_bucket{conversion="solar_to_lunar",le="1023"} 56
+     *
+     * @param out - to append the metrics to
+     * @return out
+     */
+    public static StringBuilder export(StringBuilder out) {
+        out.append("# TYPE lunarcore_calls_total counter\n");
+        for (Counter counter : Counter.values()) {
+            out.append("lunarcore_calls_total{step=\"").append(counter.metricName).append("\"} ")
+                    .append(getCount(counter)).append('\n');
+        }
+        if (!LATENCY_ENABLED) {
+            return out;
+        }
+        out.append("# TYPE lunarcore_conversion_latency_nanoseconds histogram\n");
+        for (Conversion conversion : Conversion.values()) {
+            long[] histogram = getLatencyHistogram(conversion);
+            long cumulative = 0;
+            for (int i = 0; i < LATENCY_BUCKETS - 1; i++) {
+                cumulative += histogram[i];
+                out.append("lunarcore_conversion_latency_nanoseconds_bucket{conversion=\"")
+                        .append(conversion.metricName).append("\",le=\"").append(upperBound(i)).append("\"} ")
+                        .append(cumulative).append('\n');
+            }
+            cumulative += histogram[LATENCY_BUCKETS - 1];
+            out.append("lunarcore_conversion_latency_nanoseconds_bucket{conversion=\"")
+                    .append(conversion.metricName).append("\",le=\"+Inf\"} ").append(cumulative).append('\n');
+            out.append("lunarcore_conversion_latency_nanoseconds_sum{conversion=\"")
+                    .append(conversion.metricName).append("\"} ").append(getLatencyTotalNanos(conversion)).append('\n');
+            out.append("lunarcore_conversion_latency_nanoseconds_count{conversion=\"")
+                    .append(conversion.metricName).append("\"} ").append(cumulative).append('\n');
+        }
+        return out;
+    }
+
+    /**
+     *
+     * @return all the metrics in the Prometheus text format, see export(StringBuilder)
+     */
+    public static String export() {
+        return export(new StringBuilder()).toString();
+    }
+}
@@ -0,0 +1,306 @@
+package com.appota.lunarcore;
+
+/**
+ * A position on the lunar months of a time zone, moving one month forward or backward at a time.
+ *
+ * Months are walked by successive new moons: the end of a month is the start of the next one,
+ * so a step only computes one new moon. The month numbers and the leap month come from the period
+ * between two months 11 the cursor is in (see LunarYearCache), which only changes once a year.
+ * To list the Tết of the next 50 years, or every 1st and 15th of a decade, use one cursor
+ * instead of a convertLunar2Solar per date, which computes the months 11 and the leap month each time:
+ *
+ *   LunarMonthCursor cursor = LunarMonthCursor.at(day, month, year, 7.0);
+ *   for (int i = 0; i < 50; i++) {
+ *       long tet = cursor.nextOccurrence(1, 1);
+ *   }
+ *
+ * Not thread-safe: keep one per thread, like MutableLunarDate.
+ */
+public class LunarMonthCursor {
+    private final double timeZone;
+    private final LunarYearCache cache;
+    private final AstroKernel kernel;
+
+    // The period of the current month: from the month 11 of a11Year (a11) to the next month 11 (b11)
+    private int a11Year;
+    private int a11;
+    private int b11;
+    private int a11K;
+    private int leapOffset;
+
+    // The current month: k-th new moon (see AstroKernel.newMoonDay), from start to end - 1
+    private int k;
+    private int start;
+    private int end;
+    private int month;
+    private int year;
+    private int leap;
+
+    LunarMonthCursor(double timeZone, LunarYearCache cache) {
+        this.timeZone = timeZone;
+        this.cache = cache;
+        this.kernel = cache.getKernel();
+    }
+
+    /**
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @param timeZone
+     * @return a cursor on the lunar month of this solar date
+     */
+    public static LunarMonthCursor at(int solarDay, int solarMonth, int solarYear, double timeZone) {
+        return new LunarMonthCursor(timeZone, LunarCoreHelper.getYearCache())
+                .moveToSolarDate(solarDay, solarMonth, solarYear);
+    }
+
+    /**
+     *
+     * @param lunarMonth
+     * @param lunarYear
+     * @param lunarLeap - 1 for the leap month
+     * @param timeZone
+     * @return a cursor on this lunar month
+     * @throws IllegalArgumentException if the month is not valid, for example a leap month of a year without one
+     */
+    public static LunarMonthCursor of(int lunarMonth, int lunarYear, int lunarLeap, double timeZone) {
+        return new LunarMonthCursor(timeZone, LunarCoreHelper.getYearCache())
+                .moveToLunarMonth(lunarMonth, lunarYear, lunarLeap);
+    }
+
+    /**
+     * Move to the lunar month of a solar date
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @return this
+     */
+    public LunarMonthCursor moveToSolarDate(int solarDay, int solarMonth, int solarYear) {
+        int dayNumber = LunarCoreHelper.jdFromDate(solarDay, solarMonth, solarYear);
+        int newMoon = LunarCoreHelper.INT((dayNumber - 2415021.076998695) / 29.530588853) + 1;
+        int monthStart = kernel.newMoonDay(newMoon, timeZone);
+        // The estimate may be up to two months ahead, as in LunarCoreHelper.convertSolar2Lunar
+        while (monthStart > dayNumber) {
+            newMoon--;
+            monthStart = kernel.newMoonDay(newMoon, timeZone);
+        }
+        int period = cache.getLunarMonth11(solarYear, timeZone) > monthStart ? solarYear - 1 : solarYear;
+        setPeriod(period);
+        setMonth(newMoon, monthStart, kernel.newMoonDay(newMoon + 1, timeZone));
+        return this;
+    }
+
+    /**
+     * Move to a lunar month
+     *
+     * @param lunarMonth
+     * @param lunarYear
+     * @param lunarLeap - 1 for the leap month
+     * @return this
+     * @throws IllegalArgumentException if the month is not valid, for example a leap month of a year without one
+     */
+    public LunarMonthCursor moveToLunarMonth(int lunarMonth, int lunarYear, int lunarLeap) {
+        if (lunarMonth < 1 || lunarMonth > 12) {
+            throw new IllegalArgumentException("Not a lunar month: " + lunarMonth);
+        }
+        setPeriod(lunarMonth < 11 ? lunarYear - 1 : lunarYear);
+        int off = lunarMonth - 11;
+        if (off < 0) {
+            off += 12;
+        }
+        if (leapOffset != 0) {
+            if (lunarLeap != 0 && off != leapOffset - 1) {
+                throw new IllegalArgumentException("Month " + lunarMonth + " of " + lunarYear + " is not a leap month");
+            }
+            if (lunarLeap != 0 || off >= leapOffset) {
+                off++;
+            }
+        } else if (lunarLeap != 0) {
+            throw new IllegalArgumentException("Lunar year " + lunarYear + " has no leap month");
+        }
+        int newMoon = a11K + off;
+        setMonth(newMoon, kernel.newMoonDay(newMoon, timeZone),
+                kernel.newMoonDay(newMoon + 1, timeZone));
+        return this;
+    }
+
+    /**
+     * Move to the next lunar month, the leap one included
+     *
+     * @return this
+     */
+    public LunarMonthCursor next() {
+        int monthStart = end;
+        if (monthStart >= b11) {
+            setPeriod(a11Year + 1);
+        }
+        setMonth(k + 1, monthStart, kernel.newMoonDay(k + 2, timeZone));
+        return this;
+    }
+
+    /**
+     * Move to the previous lunar month, the leap one included
+     *
+     * @return this
+     */
+    public LunarMonthCursor previous() {
+        int monthEnd = start;
+        int monthStart = kernel.newMoonDay(k - 1, timeZone);
+        if (monthStart < a11) {
+            setPeriod(a11Year - 1);
+        }
+        setMonth(k - 1, monthStart, monthEnd);
+        return this;
+    }
+
+    /**
+     * Move to the next month with this number which is not a leap month, or stay if the current one is
+     *
+     * @param lunarMonth
+     * @return this
+     */
+    public LunarMonthCursor seek(int lunarMonth) {
+        if (lunarMonth < 1 || lunarMonth > 12) {
+            throw new IllegalArgumentException("Not a lunar month: " + lunarMonth);
+        }
+        while (month != lunarMonth || leap != 0) {
+            next();
+        }
+        return this;
+    }
+
+    /**
+     * The solar date of the next lunar day/month, starting with the current month, then move to the month after it.
+     * Leap months are skipped (the festivals of a month are in the normal one), and so are the months
+     * too short for the day (a 30th of a 29 day month).
+     *
+     * @param lunarDay - from 1 to 30
+     * @param lunarMonth
+     * @return the solar date packed in a long (see LunarCoreHelper.packDate)
+     */
+    public long nextOccurrence(int lunarDay, int lunarMonth) {
+        if (lunarDay < 1 || lunarDay > 30) {
+            throw new IllegalArgumentException("Not a lunar day: " + lunarDay);
+        }
+        seek(lunarMonth);
+        while (lunarDay > getLength()) {
+            next().seek(lunarMonth);
+        }
+        long date = getSolarDatePacked(lunarDay);
+        next();
+        return date;
+    }
+
+    /**
+     * The first solar date on or after a solar date which is lunarDay/lunarMonth, see nextOccurrence(lunarDay, lunarMonth).
+     * The cursor is then on the month after it.
+     *
+     * @param lunarDay - from 1 to 30
+     * @param lunarMonth
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @return the solar date packed in a long (see LunarCoreHelper.packDate)
+     */
+    public long nextOccurrence(int lunarDay, int lunarMonth, int solarDay, int solarMonth, int solarYear) {
+        moveToSolarDate(solarDay, solarMonth, solarYear);
+        if (month == lunarMonth && leap == 0
+                && start + lunarDay - 1 < LunarCoreHelper.jdFromDate(solarDay, solarMonth, solarYear)) {
+            next();
+        }
+        return nextOccurrence(lunarDay, lunarMonth);
+    }
+
+    private void setPeriod(int period) {
+        a11Year = period;
+        a11 = cache.getLunarMonth11(period, timeZone);
+        b11 = cache.getLunarMonth11(period + 1, timeZone);
+        a11K = LunarCoreHelper.INT(0.5 + (a11 - 2415021.076998695) / 29.530588853);
+        leapOffset = b11 - a11 > 365 ? cache.getLeapMonthOffset(period, timeZone) : 0;
+    }
+
+    private void setMonth(int newMoon, int monthStart, int monthEnd) {
+        k = newMoon;
+        start = monthStart;
+        end = monthEnd;
+        int diff = newMoon - a11K;
+        leap = 0;
+        int m = diff + 11;
+        if (leapOffset != 0 && diff >= leapOffset) {
+            m = diff + 10;
+            if (diff == leapOffset) {
+                leap = 1;
+            }
+        }
+        month = m > 12 ? m - 12 : m;
+        year = month >= 11 && diff < 4 ? a11Year : a11Year + 1;
+    }
+
+    public double getTimeZone() {
+        return timeZone;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     *
+     * @return 1 if the current month is a leap month, 0 if not
+     */
+    public int getLeap() {
+        return leap;
+    }
+
+    public boolean isLeapMonth() {
+        return leap != 0;
+    }
+
+    /**
+     *
+     * @return number of days of the current month, 29 or 30
+     */
+    public int getLength() {
+        return end - start;
+    }
+
+    /**
+     *
+     * @return Julian day number of the first day of the current month
+     */
+    public int getStartJulianDay() {
+        return start;
+    }
+
+    /**
+     *
+     * @param lunarDay - day of the current month
+     * @return its solar date packed in a long (see LunarCoreHelper.packDate), or 0 if the month is shorter
+     */
+    public long getSolarDatePacked(int lunarDay) {
+        if (lunarDay < 1 || lunarDay > end - start) {
+            return 0;
+        }
+        return LunarCoreHelper.jdToDatePacked(start + lunarDay - 1);
+    }
+
+    /**
+     *
+     * @param lunarDay - day of the current month
+     * @return the lunar date packed in a long (see LunarCoreHelper.packDate)
+     */
+    public long getLunarDatePacked(int lunarDay) {
+        return LunarCoreHelper.packDate(lunarDay, month, year, leap);
+    }
+
+    @Override
+    public String toString() {
+        return "LunarMonthCursor{" + month + (leap != 0 ? " leap" : "") + "/" + year + ", " + getLength() + " days}";
+    }
+}
@@ -0,0 +1,91 @@
+package com.appota.lunarcore;
+
+import java.util.Arrays;
+
+/**
+ * The occurrences of lunar recurrence rules in a solar window (see LunarRecurrenceExpander), sorted by day:
+ * for each occurrence, its Julian day, the index of its rule and its lunar date, in parallel primitive arrays.
+ * Occurrences of the same day are sorted by lunar day of their rule, then by rule index.
+ *
+ * The getters return the arrays themselves: only the first getCount() elements are valid,
+ * and they are overwritten when the instance is filled again. The arrays grow as needed,
+ * so filling the same instance again and again allocates nothing once it is big enough. Not thread-safe.
+ */
+public class LunarOccurrences {
+    private int count;
+    private int[] julianDays;
+    private int[] rules;
+    private long[] lunarDates;
+
+    public LunarOccurrences() {
+        this(64);
+    }
+
+    /**
+     *
+     * @param capacity - initial number of occurrences
+     */
+    public LunarOccurrences(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        julianDays = new int[capacity];
+        rules = new int[capacity];
+        lunarDates = new long[capacity];
+    }
+
+    void clear() {
+        count = 0;
+    }
+
+    void add(int julianDay, int rule, long lunarDate) {
+        if (count == julianDays.length) {
+            int capacity = count * 2;
+            julianDays = Arrays.copyOf(julianDays, capacity);
+            rules = Arrays.copyOf(rules, capacity);
+            lunarDates = Arrays.copyOf(lunarDates, capacity);
+        }
+        julianDays[count] = julianDay;
+        rules[count] = rule;
+        lunarDates[count] = lunarDate;
+        count++;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     *
+     * @return the Julian day of each occurrence, in increasing order
+     */
+    public int[] getJulianDays() {
+        return julianDays;
+    }
+
+    /**
+     *
+     * @return the index of the rule of each occurrence, in the arrays given to the LunarRecurrenceExpander
+     */
+    public int[] getRules() {
+        return rules;
+    }
+
+    /**
+     *
+     * @return the lunar date of each occurrence, packed (see LunarCoreHelper.packDate).
+     * It is the date the occurrence falls on, for example the 29th for a rule on the 30th with ShortMonthPolicy.LAST_DAY
+     */
+    public long[] getLunarDates() {
+        return lunarDates;
+    }
+
+    /**
+     *
+     * @param index - from 0 to getCount() - 1
+     * @return the solar date of the occurrence, packed like LunarCoreHelper.convertLunar2SolarPacked
+     */
+    public long getSolarDatePacked(int index) {
+        return LunarCoreHelper.jdToDatePacked(julianDays[index]);
+    }
+}
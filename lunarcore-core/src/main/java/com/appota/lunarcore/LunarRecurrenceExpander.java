@@ -0,0 +1,197 @@
+package com.appota.lunarcore;
+
+/**
+ * Expands a batch of lunar recurrence rules (death anniversaries, festivals, the 1st and 15th of each month)
+ * into their solar dates in a window: a rule is a lunar day, and a lunar month or EVERY_MONTH.
+ *
+ * The rules are sorted once, by month then day, when the expander is created. An expansion then walks
+ * the lunar months of the window with a LunarMonthCursor (one new moon per month), and in each month
+ * merges the rules of this month with the rules of every month, already in day order: the occurrences
+ * come out sorted by day, with no sort and no allocation besides the growth of the LunarOccurrences.
+ *
+ * Leap and short months follow explicit policies:
+ * - a rule of month M only occurs in the normal month M, or also in the leap month M of a year which has one
+ *   (LeapMonthPolicy). The rules of EVERY_MONTH occur in every month, leap months included.
+ * - a rule on the 30th in a 29 day month is skipped for this month, or moved to the 29th (ShortMonthPolicy).
+ *
+ *   LunarRecurrenceExpander expander = new LunarRecurrenceExpander(lunarDays, lunarMonths,
+ *           LunarRecurrenceExpander.LeapMonthPolicy.NORMAL_MONTH_ONLY, LunarRecurrenceExpander.ShortMonthPolicy.LAST_DAY);
+ *   LunarOccurrences occurrences = expander.expand(1, 1, 2024, 31, 12, 2024, 7.0, new LunarOccurrences());
+ *
+ * Immutable and thread-safe, the LunarOccurrences are not.
+ */
+public class LunarRecurrenceExpander {
+    public static final int EVERY_MONTH = 0;
+
+    /**
+     * When the rules of a month occur if the year has a leap month of the same number
+     */
+    public enum LeapMonthPolicy {
+        /**
+         * In the normal month only, the usual way for anniversaries and festivals
+         */
+        NORMAL_MONTH_ONLY,
+        /**
+         * In the normal month, and again in the leap month after it
+         */
+        BOTH_MONTHS
+    }
+
+    /**
+     * What a rule on the 30th does in a month of 29 days
+     */
+    public enum ShortMonthPolicy {
+        /**
+         * No occurrence this month
+         */
+        SKIP,
+        /**
+         * Occurs on the 29th, the last day of the month
+         */
+        LAST_DAY
+    }
+
+    // Keys of the counting sort: month * 31 + day, the month being 0 for EVERY_MONTH
+    private static final int KEYS = 13 * 31;
+
+    private final int ruleCount;
+    private final LeapMonthPolicy leapMonthPolicy;
+    private final ShortMonthPolicy shortMonthPolicy;
+    // The rule indexes sorted by month, then day, then index: the rules of month m are
+    // from monthStarts[m] to monthStarts[m + 1] - 1, m = 0 being EVERY_MONTH
+    private final int[] sortedRules;
+    private final int[] sortedDays;
+    private final int[] monthStarts = new int[14];
+
+    /**
+     *
+     * @param lunarDays - lunar day of each rule, from 1 to 30
+     * @param lunarMonths - lunar month of each rule, from 1 to 12, or EVERY_MONTH
+     * @param leapMonthPolicy
+     * @param shortMonthPolicy
+     */
+    public LunarRecurrenceExpander(int[] lunarDays, int[] lunarMonths, LeapMonthPolicy leapMonthPolicy,
+                                   ShortMonthPolicy shortMonthPolicy) {
+        if (lunarDays.length != lunarMonths.length) {
+            throw new IllegalArgumentException(lunarDays.length + " days for " + lunarMonths.length + " months");
+        }
+        if (leapMonthPolicy == null || shortMonthPolicy == null) {
+            throw new IllegalArgumentException("No policy");
+        }
+        this.ruleCount = lunarDays.length;
+        this.leapMonthPolicy = leapMonthPolicy;
+        this.shortMonthPolicy = shortMonthPolicy;
+
+        int[] keyStarts = new int[KEYS + 1];
+        for (int i = 0; i < ruleCount; i++) {
+            int day = lunarDays[i];
+            int month = lunarMonths[i];
+            if (day < 1 || day > 30) {
+                throw new IllegalArgumentException("Rule " + i + ": not a lunar day: " + day);
+            }
+            if (month < EVERY_MONTH || month > 12) {
+                throw new IllegalArgumentException("Rule " + i + ": not a lunar month: " + month);
+            }
+            keyStarts[month * 31 + day + 1]++;
+        }
+        for (int key = 0; key < KEYS; key++) {
+            keyStarts[key + 1] += keyStarts[key];
+        }
+        for (int month = 0; month <= 13; month++) {
+            monthStarts[month] = keyStarts[month * 31];
+        }
+        sortedRules = new int[ruleCount];
+        sortedDays = new int[ruleCount];
+        for (int i = 0; i < ruleCount; i++) {
+            int position = keyStarts[lunarMonths[i] * 31 + lunarDays[i]]++;
+            sortedRules[position] = i;
+            sortedDays[position] = lunarDays[i];
+        }
+    }
+
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    public LeapMonthPolicy getLeapMonthPolicy() {
+        return leapMonthPolicy;
+    }
+
+    public ShortMonthPolicy getShortMonthPolicy() {
+        return shortMonthPolicy;
+    }
+
+    /**
+     * The occurrences of all the rules from a solar date to another, both included
+     *
+     * @param fromDay
+     * @param fromMonth
+     * @param fromYear
+     * @param toDay
+     * @param toMonth
+     * @param toYear
+     * @param timeZone
+     * @param out - filled with the occurrences, sorted by day
+     * @return out
+     */
+    public LunarOccurrences expand(int fromDay, int fromMonth, int fromYear, int toDay, int toMonth, int toYear,
+                                   double timeZone, LunarOccurrences out) {
+        return expand(fromDay, fromMonth, fromYear, toDay, toMonth, toYear, timeZone, LunarCoreHelper.getYearCache(), out);
+    }
+
+    LunarOccurrences expand(int fromDay, int fromMonth, int fromYear, int toDay, int toMonth, int toYear,
+                            double timeZone, LunarYearCache cache, LunarOccurrences out) {
+        int from = LunarCoreHelper.jdFromDate(fromDay, fromMonth, fromYear);
+        int to = LunarCoreHelper.jdFromDate(toDay, toMonth, toYear);
+        if (to < from) {
+            throw new IllegalArgumentException("The window ends before it starts");
+        }
+        out.clear();
+        LunarMonthCursor cursor = new LunarMonthCursor(timeZone, cache).moveToSolarDate(fromDay, fromMonth, fromYear);
+        while (cursor.getStartJulianDay() <= to) {
+            expandMonth(cursor, from, to, out);
+            cursor.next();
+        }
+        return out;
+    }
+
+    private void expandMonth(LunarMonthCursor cursor, int from, int to, LunarOccurrences out) {
+        int month = cursor.getMonth();
+        int start = cursor.getStartJulianDay();
+        int length = cursor.getLength();
+        int leap = cursor.getLeap();
+        long monthPacked = LunarCoreHelper.packDate(0, month, cursor.getYear(), leap);
+
+        // Merge the rules of this month with the rules of every month, by day then index
+        int i = monthStarts[month];
+        int iEnd = monthStarts[month + 1];
+        if (leap == 1 && leapMonthPolicy == LeapMonthPolicy.NORMAL_MONTH_ONLY) {
+            i = iEnd;
+        }
+        int j = monthStarts[EVERY_MONTH];
+        int jEnd = monthStarts[EVERY_MONTH + 1];
+        while (i < iEnd || j < jEnd) {
+            int position;
+            if (j == jEnd || i < iEnd && (sortedDays[i] < sortedDays[j]
+                    || sortedDays[i] == sortedDays[j] && sortedRules[i] < sortedRules[j])) {
+                position = i++;
+            } else {
+                position = j++;
+            }
+            int day = sortedDays[position];
+            if (day > length) {
+                if (shortMonthPolicy == ShortMonthPolicy.SKIP) {
+                    continue;
+                }
+                day = length;
+            }
+            int jd = start + day - 1;
+            if (jd > to) {
+                return;
+            }
+            if (jd >= from) {
+                out.add(jd, sortedRules[position], monthPacked | day);
+            }
+        }
+    }
+}
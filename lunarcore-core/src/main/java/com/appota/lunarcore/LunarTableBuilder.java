@@ -0,0 +1,99 @@
+package com.appota.lunarcore;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Builds a LunarYearTable with the years split between the threads of a ForkJoinPool,
+ * for servers and build tools (see LunarTableGenerator).
+ *
+ * Kept out of LunarYearTable: ForkJoinPool only exists from Android API 21, and the core classes
+ * must load on older devices. Each year only depends on its own new moons, so the result is
+ * exactly the same as LunarYearTable.build.
+ */
+public final class LunarTableBuilder {
+
+    private LunarTableBuilder() {
+    }
+
+    /**
+     *
+     * @param fromYear
+     * @param toYear
+     * @param timeZone
+     * @param pool
+     * @return a table covering all solar dates from 1/1/fromYear to 31/12/toYear, same as LunarYearTable.build
+     */
+    public static LunarYearTable buildParallel(int fromYear, int toYear, double timeZone, ForkJoinPool pool) {
+        return buildParallel(fromYear, toYear, timeZone, AstroKernel.REFERENCE, pool);
+    }
+
+    /**
+     * Same as buildParallel(fromYear, toYear, timeZone, pool), computed with this kernel
+     */
+    public static LunarYearTable buildParallel(int fromYear, int toYear, double timeZone, AstroKernel kernel,
+                                               ForkJoinPool pool) {
+        if (toYear < fromYear) {
+            throw new IllegalArgumentException("toYear < fromYear");
+        }
+        long[] entries = new long[toYear - fromYear + 2];
+        pool.invoke(new BuildTask(fromYear, timeZone, kernel, entries, 0, entries.length));
+        return new LunarYearTable(fromYear, toYear, timeZone, entries);
+    }
+
+    /**
+     * Same as buildParallel(fromYear, toYear, timeZone, pool), in a pool started for this table only
+     */
+    public static LunarYearTable buildParallel(int fromYear, int toYear, double timeZone) {
+        return buildParallel(fromYear, toYear, timeZone, AstroKernel.REFERENCE);
+    }
+
+    public static LunarYearTable buildParallel(int fromYear, int toYear, double timeZone, AstroKernel kernel) {
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            return buildParallel(fromYear, toYear, timeZone, kernel, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Fills entries[from, to), splitting the range until it is small enough
+     */
+    private static class BuildTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 16;
+
+        private final int fromYear;
+        private final double timeZone;
+        private final AstroKernel kernel;
+        private final long[] entries;
+        private final int from;
+        private final int to;
+
+        BuildTask(int fromYear, double timeZone, AstroKernel kernel, long[] entries, int from, int to) {
+            this.fromYear = fromYear;
+            this.timeZone = timeZone;
+            this.kernel = kernel;
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BuildTask(fromYear, timeZone, kernel, entries, from, middle),
+                        new BuildTask(fromYear, timeZone, kernel, entries, middle, to));
+                return;
+            }
+            int a11 = LunarCoreHelper.getLunarMonth11(fromYear + from - 1, timeZone, kernel);
+            for (int i = from; i < to; i++) {
+                int b11 = LunarCoreHelper.getLunarMonth11(fromYear + i, timeZone, kernel);
+                entries[i] = LunarYearTable.computeEntry(a11, b11, timeZone, kernel);
+                a11 = b11;
+            }
+        }
+    }
+}
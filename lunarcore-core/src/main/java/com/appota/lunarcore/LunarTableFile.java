@@ -0,0 +1,183 @@
+package com.appota.lunarcore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Binary file format of a LunarYearTable, so a table can be generated once (see LunarTableGenerator),
+ * then shipped as a resource or a file and loaded without any astronomical computation.
+ *
+ * Everything is big-endian. A 32 bytes header, then one 8 bytes entry per lunar year (see LunarYearTable):
+ *
+ *   0  : int    magic, "LNRT"
+ *   4  : short  version, 1
+ *   6  : short  reserved, 0
+ *   8  : int    fromYear
+ *   12 : int    toYear
+ *   16 : long   timeZone (Double.doubleToLongBits)
+ *   24 : int    number of entries (toYear - fromYear + 2)
+ *   28 : int    CRC32 of the entries
+ *   32 : long[] entries
+ *
+ * The same table always gives the same bytes, and entries are 8 bytes aligned so the file can be mapped in memory.
+ *
+ * A mapped table (see map) reads its entries straight from the file: nothing is copied to the heap,
+ * the pages are shared by all the processes mapping the same file, and loading it needs no astronomical computation.
+ */
+public class LunarTableFile {
+    public static final int MAGIC = 0x4C4E5254;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+
+    static final int OFFSET_FROM_YEAR = 8;
+    static final int OFFSET_TO_YEAR = 12;
+    static final int OFFSET_TIME_ZONE = 16;
+    static final int OFFSET_COUNT = 24;
+    static final int OFFSET_CRC = 28;
+
+    public static void write(LunarYearTable table, OutputStream out) throws IOException {
+        int count = table.getEntryCount();
+        ByteBuffer entries = ByteBuffer.allocate(count * 8);
+        for (int i = 0; i < count; i++) {
+            entries.putLong(table.getEntry(i));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(entries.array());
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeShort(0);
+        data.writeInt(table.getFromYear());
+        data.writeInt(table.getToYear());
+        data.writeLong(Double.doubleToLongBits(table.getTimeZone()));
+        data.writeInt(count);
+        data.writeInt((int) crc.getValue());
+        data.write(entries.array());
+        data.flush();
+    }
+
+    public static byte[] toBytes(LunarYearTable table) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_SIZE + table.getEntryCount() * 8);
+        try {
+            write(table, out);
+        } catch (IOException e) {
+            // Not possible with a ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     *
+     * @param in - the whole stream is read, but not closed
+     * @return the table
+     * @throws IOException if the stream can't be read or is not a valid table file
+     */
+    public static LunarYearTable read(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            bytes.write(buffer, 0, n);
+        }
+        return read(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    /**
+     *
+     * @param buffer - a table file, from its position. Heap or mapped buffers both work.
+     * @return the table, its entries copied to the heap
+     * @throws IOException if the buffer is not a valid table file
+     */
+    public static LunarYearTable read(ByteBuffer buffer) throws IOException {
+        ByteBuffer file = checkHeader(buffer);
+        int count = file.getInt(OFFSET_COUNT);
+        long[] entries = new long[count];
+        file.position(HEADER_SIZE);
+        file.asLongBuffer().get(entries);
+        return new LunarYearTable(file.getInt(OFFSET_FROM_YEAR), file.getInt(OFFSET_TO_YEAR),
+                Double.longBitsToDouble(file.getLong(OFFSET_TIME_ZONE)), entries);
+    }
+
+    /**
+     *
+     * @param file - a table file
+     * @return a table reading its entries in place from the file mapped in memory (read only)
+     * @throws IOException if the file can't be read or is not a valid table file
+     */
+    public static LunarYearTable map(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            return map(raf.getChannel());
+        } finally {
+            // The mapping stays valid after the channel is closed
+            raf.close();
+        }
+    }
+
+    public static LunarYearTable map(FileChannel channel) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        return wrap(buffer);
+    }
+
+    /**
+     *
+     * @param buffer - a table file, from its position
+     * @return a table reading its entries in place from the buffer, which must not be changed afterwards
+     * @throws IOException if the buffer is not a valid table file
+     */
+    public static LunarYearTable wrap(ByteBuffer buffer) throws IOException {
+        ByteBuffer file = checkHeader(buffer);
+        int count = file.getInt(OFFSET_COUNT);
+        file.position(HEADER_SIZE);
+        file.limit(HEADER_SIZE + count * 8);
+        return new LunarYearTable(file.getInt(OFFSET_FROM_YEAR), file.getInt(OFFSET_TO_YEAR),
+                Double.longBitsToDouble(file.getLong(OFFSET_TIME_ZONE)), file.slice().asLongBuffer());
+    }
+
+    /**
+     *
+     * @param buffer
+     * @return a big-endian view of the file, starting at the header, after checking the header and the CRC
+     * @throws IOException if the buffer is not a valid table file
+     */
+    static ByteBuffer checkHeader(ByteBuffer buffer) throws IOException {
+        ByteBuffer file = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+        if (file.remaining() < HEADER_SIZE || file.getInt(0) != MAGIC) {
+            throw new IOException("Not a lunar table file");
+        }
+        if (file.getShort(4) != VERSION) {
+            throw new IOException("Unsupported lunar table version " + file.getShort(4));
+        }
+        int count = file.getInt(OFFSET_COUNT);
+        if (count != file.getInt(OFFSET_TO_YEAR) - file.getInt(OFFSET_FROM_YEAR) + 2
+                || file.remaining() < HEADER_SIZE + (long) count * 8) {
+            throw new IOException("Truncated lunar table file");
+        }
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[4096];
+        ByteBuffer entries = file.duplicate();
+        entries.position(HEADER_SIZE);
+        entries.limit(HEADER_SIZE + count * 8);
+        while (entries.hasRemaining()) {
+            int n = Math.min(chunk.length, entries.remaining());
+            entries.get(chunk, 0, n);
+            crc.update(chunk, 0, n);
+        }
+        if ((int) crc.getValue() != file.getInt(OFFSET_CRC)) {
+            throw new IOException("Corrupted lunar table file");
+        }
+        return file;
+    }
+}
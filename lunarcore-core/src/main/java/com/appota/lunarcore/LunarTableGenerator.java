@@ -0,0 +1,52 @@
+package com.appota.lunarcore;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Command line tool to generate a table file (see LunarTableFile), for example at build time:
+ *
+ *   java com.appota.lunarcore.LunarTableGenerator 1 3000 7.0 lunar-1-3000-utc7.bin --verify
+ *
+ * Years are computed in parallel (see LunarTableBuilder). With --verify, the table is also built on a single thread,
+ * and the tool fails if both are not exactly the same.
+ */
+public class LunarTableGenerator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: LunarTableGenerator <fromYear> <toYear> <timeZone> <output file> [--verify]");
+            System.exit(2);
+        }
+        int fromYear = Integer.parseInt(args[0]);
+        int toYear = Integer.parseInt(args[1]);
+        double timeZone = Double.parseDouble(args[2]);
+        boolean verify = args.length > 4 && "--verify".equals(args[4]);
+
+        long start = System.nanoTime();
+        LunarYearTable table = LunarTableBuilder.buildParallel(fromYear, toYear, timeZone);
+        System.out.println("Built years " + fromYear + "-" + toYear + " (UTC" + (timeZone >= 0 ? "+" : "") + timeZone
+                + ") in " + (System.nanoTime() - start) / 1000000 + " ms");
+
+        if (verify) {
+            start = System.nanoTime();
+            LunarYearTable sequential = LunarYearTable.build(fromYear, toYear, timeZone);
+            System.out.println("Built on a single thread in " + (System.nanoTime() - start) / 1000000 + " ms");
+            if (!table.equals(sequential)) {
+                System.err.println("The parallel table is different from the sequential one!");
+                System.exit(1);
+            }
+            System.out.println("Verified: both tables are the same");
+        }
+
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(args[3]));
+        try {
+            LunarTableFile.write(table, out);
+        } finally {
+            out.close();
+        }
+        System.out.println("Wrote " + args[3]);
+    }
+}
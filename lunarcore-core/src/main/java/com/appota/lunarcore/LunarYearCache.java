@@ -0,0 +1,287 @@
+package com.appota.lunarcore;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A small, bounded, thread-safe cache for the two expensive per-year values of the conversion:
+ * the start of the lunar month 11 of a year (getLunarMonth11), and the leap month offset
+ * of the period starting at that month 11 (getLeapMonthOffset).
+ *
+ * Both only depend on (year, timeZone), so we pack everything in one long per slot:
+ *
+ *   bits 32..63 : key, (year << 8) | (timeZone in quarters of an hour)
+ *   bits 0..25  : Julian day number of the month 11
+ *   bits 26..29 : leap month offset
+ *   bit 30      : leap month offset is known
+ *   bit 31      : slot is used
+ *
+ * A slot is read and written as a whole, so there is no lock and no allocation on lookups.
+ * On a miss, we probe a few slots, and if all of them are taken, the home slot is overwritten (evicted).
+ * Time zones which are not a multiple of 15 minutes are not cached, they are always computed.
+ *
+ * The month lengths of a period (getPeriod, used by the LunarDate arithmetic) don't fit in the same slot:
+ * they are kept in a second array of the same size, one immutable {key, entry} pair per slot,
+ * only allocated on a miss. A key only has one slot there, a colliding year replaces it.
+ *
+ * The hit and miss counters are striped like the ones of LunarMetrics, so the threads sharing a cache
+ * don't all write to the same cache line on each lookup.
+ */
+public class LunarYearCache {
+    private static final int PROBES = 4;
+    private static final long JD_MASK = 0x3FFFFFFL;
+    private static final int LEAP_SHIFT = 26;
+    private static final long LEAP_MASK = 0xFL;
+    private static final long LEAP_KNOWN = 1L << 30;
+    private static final long USED = 1L << 31;
+    private static final long NO_KEY = Long.MIN_VALUE;
+    private static final int HITS = 0;
+    private static final int MISSES = 1;
+    // One cache line (8 longs) per stripe
+    private static final int STRIPE_SIZE = 8;
+
+    private final AstroKernel kernel;
+    private final AtomicLongArray slots;
+    private final AtomicReferenceArray<long[]> periods;
+    private final int mask;
+    private final AtomicLongArray counters;
+    private final int stripeMask;
+
+    /**
+     *
+     * @param capacity - maximum number of (year, timeZone) pairs kept, rounded up to a power of 2
+     */
+    public LunarYearCache(int capacity) {
+        this(capacity, AstroKernel.REFERENCE);
+    }
+
+    /**
+     *
+     * @param capacity - maximum number of (year, timeZone) pairs kept, rounded up to a power of 2
+     * @param kernel - computes the missing values, and the conversions using this cache
+     */
+    public LunarYearCache(int capacity, AstroKernel kernel) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(capacity, PROBES) - 1) << 1;
+        this.kernel = kernel;
+        slots = new AtomicLongArray(size);
+        periods = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+        int stripes = LunarMetrics.stripeCount();
+        counters = new AtomicLongArray(stripes * STRIPE_SIZE);
+        stripeMask = stripes - 1;
+    }
+
+    /**
+     *
+     * @param yy
+     * @param timeZone
+     * @return same as LunarCoreHelper.getLunarMonth11(yy, timeZone, kernel)
+     */
+    public int getLunarMonth11(int yy, double timeZone) {
+        return lunarMonth11(yy, timeZone, true);
+    }
+
+    /**
+     * getLunarMonth11, counted in the hits and misses or not
+     */
+    private int lunarMonth11(int yy, double timeZone, boolean counted) {
+        long key = keyOf(yy, timeZone);
+        if (key == NO_KEY) {
+            if (counted) {
+                miss();
+            }
+            return LunarCoreHelper.getLunarMonth11(yy, timeZone, kernel);
+        }
+        long slot = find(key);
+        if (slot != 0) {
+            if (counted) {
+                hit();
+            }
+            return (int) (slot & JD_MASK);
+        }
+        if (counted) {
+            miss();
+        }
+        int a11 = LunarCoreHelper.getLunarMonth11(yy, timeZone, kernel);
+        store(key, a11, 0);
+        return a11;
+    }
+
+    /**
+     *
+     * @param yy
+     * @param timeZone
+     * @return same as LunarCoreHelper.getLeapMonthOffset(getLunarMonth11(yy, timeZone), timeZone),
+     * that is the leap month offset of the lunar year starting with the month 11 of yy
+     */
+    public int getLeapMonthOffset(int yy, double timeZone) {
+        return leapMonthOffset(yy, timeZone, true);
+    }
+
+    /**
+     * getLeapMonthOffset, counted in the hits and misses or not
+     */
+    private int leapMonthOffset(int yy, double timeZone, boolean counted) {
+        long key = keyOf(yy, timeZone);
+        if (key == NO_KEY) {
+            if (counted) {
+                miss();
+            }
+            return LunarCoreHelper.getLeapMonthOffset(LunarCoreHelper.getLunarMonth11(yy, timeZone, kernel),
+                    timeZone, kernel);
+        }
+        long slot = find(key);
+        if (slot != 0 && (slot & LEAP_KNOWN) != 0) {
+            if (counted) {
+                hit();
+            }
+            return (int) ((slot >>> LEAP_SHIFT) & LEAP_MASK);
+        }
+        if (counted) {
+            miss();
+        }
+        int a11 = slot != 0 ? (int) (slot & JD_MASK) : LunarCoreHelper.getLunarMonth11(yy, timeZone, kernel);
+        int leapOff = LunarCoreHelper.getLeapMonthOffset(a11, timeZone, kernel);
+        store(key, a11, LEAP_KNOWN | ((long) leapOff << LEAP_SHIFT));
+        return leapOff;
+    }
+
+    /**
+     *
+     * @param yy
+     * @param timeZone
+     * @return the months of the lunar year starting with the month 11 of yy, until the next month 11:
+     * first day, month lengths and leap month offset, packed like a LunarYearTable entry
+     */
+    long getPeriod(int yy, double timeZone) {
+        long key = keyOf(yy, timeZone);
+        if (key != NO_KEY) {
+            long[] period = periods.get(indexOf(key));
+            if (period != null && period[0] == key) {
+                hit();
+                return period[1];
+            }
+        }
+        miss();
+        // One lookup, one count: the values it is made of are not counted again
+        int a11 = lunarMonth11(yy, timeZone, false);
+        int b11 = lunarMonth11(yy + 1, timeZone, false);
+        int leapOff = b11 - a11 > 365 ? leapMonthOffset(yy, timeZone, false) : 0;
+        long entry = LunarYearTable.computeEntry(a11, b11, leapOff, timeZone, kernel);
+        if (key != NO_KEY) {
+            periods.set(indexOf(key), new long[] { key, entry });
+        }
+        return entry;
+    }
+
+    public AstroKernel getKernel() {
+        return kernel;
+    }
+
+    public long getHitCount() {
+        return sum(HITS);
+    }
+
+    public long getMissCount() {
+        return sum(MISSES);
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * Drop all cached values, and reset the counters
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, 0);
+            periods.set(i, null);
+        }
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    private void hit() {
+        counters.incrementAndGet(stripe() + HITS);
+        if (LunarMetrics.ENABLED) {
+            LunarMetrics.increment(LunarMetrics.Counter.YEAR_CACHE_HIT);
+        }
+    }
+
+    private void miss() {
+        counters.incrementAndGet(stripe() + MISSES);
+        if (LunarMetrics.ENABLED) {
+            LunarMetrics.increment(LunarMetrics.Counter.YEAR_CACHE_MISS);
+        }
+    }
+
+    private int stripe() {
+        // Same stripes as LunarMetrics: thread ids are given in sequence
+        return ((int) Thread.currentThread().getId() & stripeMask) * STRIPE_SIZE;
+    }
+
+    private long sum(int counter) {
+        long sum = 0;
+        for (int i = counter; i < counters.length(); i += STRIPE_SIZE) {
+            sum += counters.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     *
+     * @param yy
+     * @param timeZone
+     * @return the 32 bits key of (yy, timeZone), or NO_KEY if this pair can't be cached
+     */
+    private static long keyOf(int yy, double timeZone) {
+        double quarters = timeZone * 4;
+        int q = (int) quarters;
+        if (q != quarters || q < -128 || q > 127 || yy < -(1 << 23) || yy >= (1 << 23)) {
+            return NO_KEY;
+        }
+        return ((yy << 8) | (q & 0xFF)) & 0xFFFFFFFFL;
+    }
+
+    private int indexOf(long key) {
+        int h = (int) key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private long find(long key) {
+        int index = indexOf(key);
+        for (int i = 0; i < PROBES; i++) {
+            long slot = slots.get((index + i) & mask);
+            if (slot == 0) {
+                return 0;
+            }
+            if ((slot >>> 32) == key) {
+                return slot;
+            }
+        }
+        return 0;
+    }
+
+    private void store(long key, int a11, long leapBits) {
+        if (a11 < 0 || a11 > JD_MASK) {
+            return;
+        }
+        long value = (key << 32) | USED | leapBits | a11;
+        int index = indexOf(key);
+        for (int i = 0; i < PROBES; i++) {
+            int pos = (index + i) & mask;
+            long slot = slots.get(pos);
+            if (slot == 0 || (slot >>> 32) == key) {
+                slots.set(pos, value);
+                return;
+            }
+        }
+        // All the probed slots are taken by other years, evict the home slot
+        slots.set(index, value);
+    }
+}
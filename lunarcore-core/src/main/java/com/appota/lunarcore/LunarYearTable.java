@@ -0,0 +1,344 @@
+package com.appota.lunarcore;
+
+import java.nio.LongBuffer;
+
+/**
+ * A precomputed, packed table of lunar years for a fixed range of solar years and a fixed time zone.
+ *
+ * Each entry describes one "period" between two consecutive lunar months 11, the same unit
+ * LunarCoreHelper works with (a11 -> b11). Entry for year Y starts at the month 11 of year Y - 1
+ * and ends right before the month 11 of year Y. It is packed into a single long:
+ *
+ *   bits 0..12  : month lengths, bit i set means the i-th month of the period has 30 days (else 29)
+ *   bits 13..16 : leap month offset inside the period (0 if the period has no leap month)
+ *   bits 17..63 : Julian day number of the first day of the period (a11)
+ *
+ * Inside the range, both conversion directions are a table lookup plus some integer math.
+ * Outside the range we simply fall back to the astronomical path of LunarCoreHelper.
+ *
+ * Entries are either in a long array (built or read tables), or read in place from a buffer,
+ * for example a file mapped in memory by LunarTableFile.map.
+ */
+public class LunarYearTable {
+    private static final int LENGTHS_MASK = 0x1FFF;
+    private static final int LEAP_SHIFT = 13;
+    private static final int LEAP_MASK = 0xF;
+    private static final int START_SHIFT = 17;
+
+    private final int fromYear;
+    private final int toYear;
+    private final double timeZone;
+    // entries[i] describes the period ending with the month 11 of year (fromYear + i)
+    private final long[] entries;
+    // or, when the table is read in place, the same entries in a buffer
+    private final LongBuffer entryBuffer;
+    private final int entryCount;
+
+    LunarYearTable(int fromYear, int toYear, double timeZone, long[] entries) {
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.timeZone = timeZone;
+        this.entries = entries;
+        this.entryBuffer = null;
+        this.entryCount = entries.length;
+    }
+
+    LunarYearTable(int fromYear, int toYear, double timeZone, LongBuffer entryBuffer) {
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.timeZone = timeZone;
+        this.entries = null;
+        this.entryBuffer = entryBuffer;
+        this.entryCount = entryBuffer.capacity();
+    }
+
+    /**
+     *
+     * @param fromYear
+     * @param toYear
+     * @param timeZone
+     * @return a table covering all solar dates from 1/1/fromYear to 31/12/toYear, and the lunar years in the same range.
+     * Building a table costs about 16 new moon computations per year, so keep it and reuse it.
+     */
+    public static LunarYearTable build(int fromYear, int toYear, double timeZone) {
+        return build(fromYear, toYear, timeZone, AstroKernel.REFERENCE);
+    }
+
+    /**
+     * Same as build(fromYear, toYear, timeZone), computed with this kernel (the entries are the same with any kernel)
+     */
+    public static LunarYearTable build(int fromYear, int toYear, double timeZone, AstroKernel kernel) {
+        if (toYear < fromYear) {
+            throw new IllegalArgumentException("toYear < fromYear");
+        }
+        // One more period on the right: the last days of toYear belong to the period ending in toYear + 1
+        long[] entries = new long[toYear - fromYear + 2];
+        int a11 = LunarCoreHelper.getLunarMonth11(fromYear - 1, timeZone, kernel);
+        for (int i = 0; i < entries.length; i++) {
+            int b11 = LunarCoreHelper.getLunarMonth11(fromYear + i, timeZone, kernel);
+            entries[i] = computeEntry(a11, b11, timeZone, kernel);
+            a11 = b11;
+        }
+        return new LunarYearTable(fromYear, toYear, timeZone, entries);
+    }
+
+    /**
+     *
+     * @param a11
+     * @param b11
+     * @param timeZone
+     * @param kernel
+     * @return packed entry of the period [a11, b11)
+     */
+    static long computeEntry(int a11, int b11, double timeZone, AstroKernel kernel) {
+        int leapOff = b11 - a11 > 365 ? LunarCoreHelper.getLeapMonthOffset(a11, timeZone, kernel) : 0;
+        return computeEntry(a11, b11, leapOff, timeZone, kernel);
+    }
+
+    /**
+     * Same as computeEntry(a11, b11, timeZone, kernel), with a known leap month offset
+     */
+    static long computeEntry(int a11, int b11, int leapOff, double timeZone, AstroKernel kernel) {
+        int k = LunarCoreHelper.INT(0.5 + (a11 - 2415021.076998695) / 29.530588853);
+        int months = b11 - a11 > 365 ? 13 : 12;
+        int lengths = 0;
+        int monthStart = a11;
+        for (int i = 0; i < months; i++) {
+            int next = i == months - 1 ? b11 : kernel.newMoonDay(k + i + 1, timeZone);
+            if (next - monthStart == 30) {
+                lengths |= 1 << i;
+            }
+            monthStart = next;
+        }
+        return ((long) a11 << START_SHIFT) | ((long) leapOff << LEAP_SHIFT) | lengths;
+    }
+
+    static int startOf(long entry) {
+        return (int) (entry >>> START_SHIFT);
+    }
+
+    static int leapOffsetOf(long entry) {
+        return (int) (entry >>> LEAP_SHIFT) & LEAP_MASK;
+    }
+
+    static int monthLengthsOf(long entry) {
+        return (int) entry & LENGTHS_MASK;
+    }
+
+    /**
+     *
+     * @param entry
+     * @param off
+     * @return first day (Julian day number) of the off-th month of the period
+     */
+    static int monthStartOf(long entry, int off) {
+        return startOf(entry) + 29 * off + Integer.bitCount(monthLengthsOf(entry) & ((1 << off) - 1));
+    }
+
+    public int getFromYear() {
+        return fromYear;
+    }
+
+    public int getToYear() {
+        return toYear;
+    }
+
+    public double getTimeZone() {
+        return timeZone;
+    }
+
+    int getEntryCount() {
+        return entryCount;
+    }
+
+    long getEntry(int index) {
+        return entries != null ? entries[index] : entryBuffer.get(index);
+    }
+
+    /**
+     *
+     * @param solarYear
+     * @return true if the dates of the solar year are converted with the table
+     */
+    public boolean covers(int solarYear) {
+        return solarYear >= fromYear && solarYear <= toYear;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LunarYearTable)) {
+            return false;
+        }
+        LunarYearTable other = (LunarYearTable) o;
+        if (fromYear != other.fromYear || toYear != other.toYear || Double.compare(timeZone, other.timeZone) != 0) {
+            return false;
+        }
+        for (int i = 0; i < entryCount; i++) {
+            if (getEntry(i) != other.getEntry(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = fromYear;
+        for (int i = 0; i < entryCount; i++) {
+            long entry = getEntry(i);
+            hash = 31 * hash + (int) (entry ^ (entry >>> 32));
+        }
+        return hash;
+    }
+
+    /**
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @return array of [lunarDay, lunarMonth, lunarYear, leapOrNot], same as LunarCoreHelper.convertSolar2Lunar
+     */
+    public int[] convertSolar2Lunar(int solarDay, int solarMonth, int solarYear) {
+        return convertSolar2Lunar(solarDay, solarMonth, solarYear, new int[4]);
+    }
+
+    public int[] convertSolar2Lunar(int solarDay, int solarMonth, int solarYear, int[] out) {
+        long date = convertSolar2LunarPacked(solarDay, solarMonth, solarYear);
+        out[0] = LunarCoreHelper.unpackDay(date);
+        out[1] = LunarCoreHelper.unpackMonth(date);
+        out[2] = LunarCoreHelper.unpackYear(date);
+        out[3] = LunarCoreHelper.unpackLeap(date);
+        return out;
+    }
+
+    public MutableLunarDate convertSolar2Lunar(int solarDay, int solarMonth, int solarYear, MutableLunarDate out) {
+        out.set(convertSolar2LunarPacked(solarDay, solarMonth, solarYear));
+        return out;
+    }
+
+    /**
+     *
+     * @param solarDay
+     * @param solarMonth
+     * @param solarYear
+     * @return the lunar date packed in a long, same as LunarCoreHelper.convertSolar2LunarPacked
+     */
+    public long convertSolar2LunarPacked(int solarDay, int solarMonth, int solarYear) {
+        return convertSolar2LunarPacked(LunarCoreHelper.jdFromDate(solarDay, solarMonth, solarYear), solarYear);
+    }
+
+    /**
+     *
+     * @param dayNumber - Julian day number of the solar date
+     * @param solarYear - solar year of the same date
+     * @return the lunar date packed in a long
+     */
+    long convertSolar2LunarPacked(int dayNumber, int solarYear) {
+        if (solarYear < fromYear || solarYear > toYear) {
+            return LunarCoreHelper.computeSolar2LunarPacked(dayNumber, solarYear, timeZone);
+        }
+        if (LunarMetrics.ENABLED) {
+            LunarMetrics.increment(LunarMetrics.Counter.TABLE_LOOKUP);
+        }
+        int index = solarYear - fromYear;
+        long entry = getEntry(index + 1);
+        if (dayNumber < startOf(entry)) {
+            entry = getEntry(index);
+        } else {
+            index++;
+        }
+        int offset = dayNumber - startOf(entry);
+        // Months are 29 or 30 days long, so offset / 29 is either right or one month too far
+        int off = offset / 29;
+        int monthStart = monthStartOf(entry, off);
+        if (monthStart > dayNumber) {
+            off--;
+            monthStart = monthStartOf(entry, off);
+        }
+        int lunarYear = fromYear + index;
+        int lunarLeap = 0;
+        int lunarMonth = off + 11;
+        int leapOff = leapOffsetOf(entry);
+        if (leapOff != 0 && off >= leapOff) {
+            lunarMonth = off + 10;
+            if (off == leapOff) {
+                lunarLeap = 1;
+            }
+        }
+        if (lunarMonth > 12) {
+            lunarMonth = lunarMonth - 12;
+        }
+        if (lunarMonth >= 11 && off < 4) {
+            lunarYear -= 1;
+        }
+        return LunarCoreHelper.packDate(dayNumber - monthStart + 1, lunarMonth, lunarYear, lunarLeap);
+    }
+
+    /**
+     *
+     * @param lunarDay
+     * @param lunarMonth
+     * @param lunarYear
+     * @param lunarLeap
+     * @return array of [solarDay, solarMonth, solarYear], same as LunarCoreHelper.convertLunar2Solar
+     */
+    public int[] convertLunar2Solar(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap) {
+        return convertLunar2Solar(lunarDay, lunarMonth, lunarYear, lunarLeap, new int[3]);
+    }
+
+    public int[] convertLunar2Solar(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap, int[] out) {
+        long date = convertLunar2SolarPacked(lunarDay, lunarMonth, lunarYear, lunarLeap);
+        out[0] = LunarCoreHelper.unpackDay(date);
+        out[1] = LunarCoreHelper.unpackMonth(date);
+        out[2] = LunarCoreHelper.unpackYear(date);
+        return out;
+    }
+
+    /**
+     *
+     * @param lunarDay
+     * @param lunarMonth
+     * @param lunarYear
+     * @param lunarLeap
+     * @return the solar date packed in a long, same as LunarCoreHelper.convertLunar2SolarPacked
+     */
+    public long convertLunar2SolarPacked(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap) {
+        int jd = convertLunar2JulianDay(lunarDay, lunarMonth, lunarYear, lunarLeap);
+        return jd == 0 ? 0 : LunarCoreHelper.jdToDatePacked(jd);
+    }
+
+    /**
+     *
+     * @return same as convertLunar2SolarPacked, as a Julian day number: 0 if the input is invalid
+     */
+    int convertLunar2JulianDay(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap) {
+        int index = lunarMonth < 11 ? lunarYear - fromYear : lunarYear - fromYear + 1;
+        if (index < 0 || index >= entryCount) {
+            return LunarCoreHelper.computeLunar2JulianDay(lunarDay, lunarMonth, lunarYear, lunarLeap, timeZone);
+        }
+        if (LunarMetrics.ENABLED) {
+            LunarMetrics.increment(LunarMetrics.Counter.TABLE_LOOKUP);
+        }
+        long entry = getEntry(index);
+        int off = lunarMonth - 11;
+        if (off < 0) {
+            off += 12;
+        }
+        int leapOff = leapOffsetOf(entry);
+        if (leapOff != 0) {
+            int leapMonth = leapOff - 2;
+            if (leapMonth < 0) {
+                leapMonth += 12;
+            }
+            if (lunarLeap != 0 && lunarMonth != leapMonth) {
+                return 0;
+            } else if (lunarLeap != 0 || off >= leapOff) {
+                off += 1;
+            }
+        }
+        return monthStartOf(entry, off) + lunarDay - 1;
+    }
+}
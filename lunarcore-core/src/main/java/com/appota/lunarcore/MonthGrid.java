@@ -0,0 +1,196 @@
+package com.appota.lunarcore;
+
+import java.util.Calendar;
+
+/**
+ * Everything a calendar view shows for a solar month, in one call: the 42 cells (6 weeks) of the month grid,
+ * starting on the first day of the week containing the 1st, with the lunar date, the Can-Chi of the day
+ * and its rating.
+ *
+ * The new moons are computed once for the whole grid (see LunarCoreHelper.convertSolar2LunarRange),
+ * the Can-Chi and the rating of each cell are integer math, and no String is involved.
+ * Values are stored in parallel primitive arrays, one element per cell: the getters return
+ * the arrays themselves, which are overwritten when the grid is filled again.
+ *
+ * Fill the same instance again and again to allocate nothing. Not thread-safe.
+ */
+public class MonthGrid {
+    public static final int CELLS = 42;
+
+    private static final DayRating[] RATINGS = DayRating.values();
+
+    private final int[] julianDays = new int[CELLS];
+    private final int[] solarDays = new int[CELLS];
+    private final int[] solarMonths = new int[CELLS];
+    private final int[] solarYears = new int[CELLS];
+    private final int[] lunarDays = new int[CELLS];
+    private final int[] lunarMonths = new int[CELLS];
+    private final int[] lunarYears = new int[CELLS];
+    private final int[] leaps = new int[CELLS];
+    private final int[] stems = new int[CELLS];
+    private final int[] branches = new int[CELLS];
+    private final int[] ratings = new int[CELLS];
+    private final long[] lunarDates = new long[CELLS];
+
+    private int year;
+    private int month;
+    private int firstCell;
+    private int daysInMonth;
+
+    /**
+     * Fill the grid, with weeks starting on Monday
+     *
+     * @param year - solar year
+     * @param month - solar month, from 1 to 12
+     * @param timeZone
+     * @return this
+     */
+    public MonthGrid fill(int year, int month, double timeZone) {
+        return fill(year, month, Calendar.MONDAY, timeZone);
+    }
+
+    /**
+     *
+     * @param year - solar year
+     * @param month - solar month, from 1 to 12
+     * @param firstDayOfWeek - from Calendar.SUNDAY to Calendar.SATURDAY
+     * @param timeZone
+     * @return this
+     */
+    public MonthGrid fill(int year, int month, int firstDayOfWeek, double timeZone) {
+        return fill(year, month, firstDayOfWeek, timeZone, LunarCoreHelper.getYearCache());
+    }
+
+    MonthGrid fill(int year, int month, int firstDayOfWeek, double timeZone, LunarYearCache cache) {
+        if (firstDayOfWeek < Calendar.SUNDAY || firstDayOfWeek > Calendar.SATURDAY) {
+            throw new IllegalArgumentException("Not a day of week: " + firstDayOfWeek);
+        }
+        int first = LunarCoreHelper.jdFromDate(1, month, year);
+        // (jd + 1) % 7 is 0 on Sunday, the same as Calendar.SUNDAY - 1
+        int dayOfWeek = (first + 1) % 7;
+        firstCell = (dayOfWeek - (firstDayOfWeek - Calendar.SUNDAY) + 7) % 7;
+        daysInMonth = (month == 12 ? LunarCoreHelper.jdFromDate(1, 1, year + 1)
+                : LunarCoreHelper.jdFromDate(1, month + 1, year)) - first;
+        this.year = year;
+        this.month = month;
+
+        int start = first - firstCell;
+        long solar = LunarCoreHelper.jdToDatePacked(start);
+        LunarCoreHelper.convertSolar2LunarRange(LunarCoreHelper.unpackDay(solar), LunarCoreHelper.unpackMonth(solar),
+                LunarCoreHelper.unpackYear(solar), timeZone, cache, lunarDates, 0, CELLS);
+        int canChi = CanChi.dayIndex(start);
+        for (int i = 0; i < CELLS; i++) {
+            int jd = start + i;
+            if (i > 0) {
+                solar = LunarCoreHelper.jdToDatePacked(jd);
+            }
+            long lunar = lunarDates[i];
+            julianDays[i] = jd;
+            solarDays[i] = LunarCoreHelper.unpackDay(solar);
+            solarMonths[i] = LunarCoreHelper.unpackMonth(solar);
+            solarYears[i] = LunarCoreHelper.unpackYear(solar);
+            lunarDays[i] = LunarCoreHelper.unpackDay(lunar);
+            lunarMonths[i] = LunarCoreHelper.unpackMonth(lunar);
+            lunarYears[i] = LunarCoreHelper.unpackYear(lunar);
+            leaps[i] = LunarCoreHelper.unpackLeap(lunar);
+            stems[i] = CanChi.canOf(canChi);
+            branches[i] = CanChi.chiOf(canChi);
+            ratings[i] = LunarCoreHelper.rateDay(branches[i], lunarMonths[i]).ordinal();
+            canChi = canChi == 59 ? 0 : canChi + 1;
+        }
+        return this;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    /**
+     *
+     * @return the cell of the 1st of the month, from 0 to 6. Cells before it are in the previous month.
+     */
+    public int getFirstCell() {
+        return firstCell;
+    }
+
+    public int getDaysInMonth() {
+        return daysInMonth;
+    }
+
+    /**
+     *
+     * @param cell
+     * @return true if the cell is a day of the month, false if it is in the previous or next month
+     */
+    public boolean isInMonth(int cell) {
+        return cell >= firstCell && cell < firstCell + daysInMonth;
+    }
+
+    public int[] getJulianDays() {
+        return julianDays;
+    }
+
+    public int[] getSolarDays() {
+        return solarDays;
+    }
+
+    public int[] getSolarMonths() {
+        return solarMonths;
+    }
+
+    public int[] getSolarYears() {
+        return solarYears;
+    }
+
+    public int[] getLunarDays() {
+        return lunarDays;
+    }
+
+    public int[] getLunarMonths() {
+        return lunarMonths;
+    }
+
+    public int[] getLunarYears() {
+        return lunarYears;
+    }
+
+    /**
+     *
+     * @return 1 for the cells in a leap lunar month, else 0
+     */
+    public int[] getLeaps() {
+        return leaps;
+    }
+
+    /**
+     *
+     * @return Can (Stem) index of each day, from 0 (Giáp) to 9 (Quý)
+     */
+    public int[] getStems() {
+        return stems;
+    }
+
+    /**
+     *
+     * @return Chi (Branch) index of each day, from 0 (Tý) to 11 (Hợi)
+     */
+    public int[] getBranches() {
+        return branches;
+    }
+
+    /**
+     *
+     * @return DayRating ordinal of each day, see getRating
+     */
+    public int[] getRatings() {
+        return ratings;
+    }
+
+    public DayRating getRating(int cell) {
+        return RATINGS[ratings[cell]];
+    }
+}
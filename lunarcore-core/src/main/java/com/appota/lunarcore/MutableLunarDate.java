@@ -0,0 +1,68 @@
+package com.appota.lunarcore;
+
+/**
+ * A reusable holder of a lunar date, filled by the conversion methods.
+ * Keep one per thread (or per list item view) and pass it again and again, so nothing is allocated.
+ * Not thread-safe, of course.
+ */
+public class MutableLunarDate {
+    private int day;
+    private int month;
+    private int year;
+    private int leap;
+
+    public int getDay() {
+        return day;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     *
+     * @return 1 if the date is in a leap month, 0 if not. Same as the 4th element of convertSolar2Lunar result.
+     */
+    public int getLeap() {
+        return leap;
+    }
+
+    public boolean isLeapMonth() {
+        return leap != 0;
+    }
+
+    /**
+     *
+     * @param date - lunar date packed by LunarCoreHelper.packDate
+     */
+    public void set(long date) {
+        day = LunarCoreHelper.unpackDay(date);
+        month = LunarCoreHelper.unpackMonth(date);
+        year = LunarCoreHelper.unpackYear(date);
+        leap = LunarCoreHelper.unpackLeap(date);
+    }
+
+    public void set(int day, int month, int year, int leap) {
+        this.day = day;
+        this.month = month;
+        this.year = year;
+        this.leap = leap;
+    }
+
+    /**
+     *
+     * @return this date packed in a long, see LunarCoreHelper.packDate
+     */
+    public long toPacked() {
+        return LunarCoreHelper.packDate(day, month, year, leap);
+    }
+
+    @Override
+    public String toString() {
+        return day + "/" + month + "/" + year + (leap != 0 ? " (leap)" : "");
+    }
+}
@@ -0,0 +1,195 @@
+package com.appota.lunarcore;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The 24 solar terms (Tiết khí, or 节气): the moments when the sun longitude is a multiple of 15 degrees.
+ *
+ * Terms are numbered in the order they happen in a solar year, from Tiểu hàn (285 degrees, early January)
+ * to Đông chí (270 degrees, December solstice).
+ *
+ * Each term is found by a root search on the sun longitude, starting from the mean motion of the sun,
+ * so a whole year costs about a hundred sun longitude evaluations instead of a scan over every day.
+ * The instants don't depend on the time zone, so they are cached per year, the time zone is only used
+ * to find the local day of each instant.
+ */
+public class SolarTerms {
+    public static final int COUNT = 24;
+
+    // Vietnamese names (or "Tiết khí")
+    private static final String[] NAMES = { "Tiểu hàn", "Đại hàn", "Lập xuân", "Vũ thủy", "Kinh trập",
+            "Xuân phân", "Thanh minh", "Cốc vũ", "Lập hạ", "Tiểu mãn", "Mang chủng", "Hạ chí", "Tiểu thử",
+            "Đại thử", "Lập thu", "Xử thử", "Bạch lộ", "Thu phân", "Hàn lộ", "Sương giáng", "Lập đông",
+            "Tiểu tuyết", "Đại tuyết", "Đông chí" };
+    // Chinese names (or "节气")
+    private static final String[] CHINESE_NAMES = { "小寒", "大寒", "立春", "雨水", "惊蛰", "春分", "清明",
+            "谷雨", "立夏", "小满", "芒种", "夏至", "小暑", "大暑", "立秋", "处暑", "白露", "秋分", "寒露",
+            "霜降", "立冬", "小雪", "大雪", "冬至" };
+
+    private static final double J2000 = 2451545.0;
+    // Mean longitude of the sun at J2000, and its mean motion in degrees per day
+    private static final double MEAN_LONGITUDE_J2000 = 280.46646;
+    private static final double MEAN_MOTION = 0.98564736;
+    private static final double TROPICAL_YEAR = 365.2422;
+    // We stop searching when the instant moves less than about a second
+    private static final double PRECISION = 1e-5;
+
+    private static final int CACHE_SIZE = 64;
+    private static final AtomicReferenceArray<Year> CACHE = new AtomicReferenceArray<>(CACHE_SIZE);
+
+    private static class Year {
+        final int year;
+        final double[] instants;
+
+        Year(int year, double[] instants) {
+            this.year = year;
+            this.instants = instants;
+        }
+    }
+
+    public static String getName(int term) {
+        return NAMES[term];
+    }
+
+    public static String getChineseName(int term) {
+        return CHINESE_NAMES[term];
+    }
+
+    /**
+     *
+     * @param term - from 0 (Tiểu hàn) to 23 (Đông chí)
+     * @return the sun longitude of the term, in degrees
+     */
+    public static int getLongitude(int term) {
+        return (285 + 15 * term) % 360;
+    }
+
+    /**
+     *
+     * @param year - solar year
+     * @param term - from 0 (Tiểu hàn) to 23 (Đông chí)
+     * @return the Julian date (days since noon UTC on 1 January 4713 BC) of the term
+     */
+    public static double getTermInstant(int year, int term) {
+        return instantsOf(year)[term];
+    }
+
+    /**
+     *
+     * @param year - solar year
+     * @param term - from 0 (Tiểu hàn) to 23 (Đông chí)
+     * @param timeZone
+     * @return Julian day number of the local day of the term
+     */
+    public static int getTermDay(int year, int term, double timeZone) {
+        return dayOf(instantsOf(year)[term], timeZone);
+    }
+
+    /**
+     *
+     * @param year - solar year
+     * @param term - from 0 (Tiểu hàn) to 23 (Đông chí)
+     * @param timeZone
+     * @return array of [solarDay, solarMonth, solarYear] of the term
+     */
+    public static int[] getTermDate(int year, int term, double timeZone) {
+        return LunarCoreHelper.jdToDate(getTermDay(year, term, timeZone));
+    }
+
+    /**
+     *
+     * @param year - solar year
+     * @param timeZone
+     * @param out - array of at least 24 elements, to receive the Julian day numbers of the local days of all terms
+     * @return out
+     */
+    public static int[] getTermDays(int year, double timeZone, int[] out) {
+        double[] instants = instantsOf(year);
+        for (int i = 0; i < COUNT; i++) {
+            out[i] = dayOf(instants[i], timeZone);
+        }
+        return out;
+    }
+
+    public static int[] getTermDays(int year, double timeZone) {
+        return getTermDays(year, timeZone, new int[COUNT]);
+    }
+
+    /**
+     *
+     * @param year - solar year
+     * @return Julian dates of the 24 terms of the year (a copy, change it as you like)
+     */
+    public static double[] getTermInstants(int year) {
+        return instantsOf(year).clone();
+    }
+
+    private static int dayOf(double instant, double timeZone) {
+        return LunarCoreHelper.INT(instant + 0.5 + timeZone / 24);
+    }
+
+    private static double[] instantsOf(int year) {
+        int slot = year & (CACHE_SIZE - 1);
+        Year cached = CACHE.get(slot);
+        if (cached != null && cached.year == year) {
+            return cached.instants;
+        }
+        double[] instants = new double[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            instants[i] = findTerm(year, getLongitude(i));
+        }
+        CACHE.set(slot, new Year(year, instants));
+        return instants;
+    }
+
+    /**
+     *
+     * @param year
+     * @param longitude - in degrees
+     * @return the Julian date when the sun reaches the longitude, in the given solar year
+     */
+    static double findTerm(int year, double longitude) {
+        // First guess: when the mean sun reaches the longitude. The true sun is at most about 2 days away.
+        double days = longitude - MEAN_LONGITUDE_J2000;
+        if (days < 0) {
+            days += 360;
+        }
+        double t = J2000 + days / MEAN_MOTION + TROPICAL_YEAR * (year - 2000);
+        double error = angleDiff(LunarCoreHelper.SunLongitude(t), longitude);
+        // A first step with the mean motion, then secant steps with the measured motion
+        double previousT = t;
+        double previousError = error;
+        t -= error / MEAN_MOTION;
+        for (int i = 0; i < 10; i++) {
+            error = angleDiff(LunarCoreHelper.SunLongitude(t), longitude);
+            double motion = (error - previousError) / (t - previousT);
+            if (motion <= 0) {
+                motion = MEAN_MOTION;
+            }
+            double step = error / motion;
+            previousT = t;
+            previousError = error;
+            t -= step;
+            if (Math.abs(step) < PRECISION) {
+                break;
+            }
+        }
+        return t;
+    }
+
+    /**
+     *
+     * @param a
+     * @param b
+     * @return a - b, in degrees, between -180 and 180
+     */
+    private static double angleDiff(double a, double b) {
+        double d = (a - b) % 360;
+        if (d > 180) {
+            d -= 360;
+        } else if (d <= -180) {
+            d += 360;
+        }
+        return d;
+    }
+}
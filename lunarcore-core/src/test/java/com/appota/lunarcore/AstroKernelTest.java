@@ -0,0 +1,78 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * AstroKernel.FAST must give exactly the same days as REFERENCE: checked for every new moon and every day of 1800-2200,
+ * in the time zones of Vietnam and China.
+ */
+public class AstroKernelTest {
+    private static final double[] TIME_ZONES = { 7.0, 8.0 };
+    private static final int FROM = LunarCoreHelper.jdFromDate(1, 1, 1800);
+    private static final int TO = LunarCoreHelper.jdFromDate(31, 12, 2200);
+
+    @Test
+    public void newMoonDays() {
+        int fromK = LunarCoreHelper.INT((FROM - 2415021.076998695) / 29.530588853) - 1;
+        int toK = LunarCoreHelper.INT((TO - 2415021.076998695) / 29.530588853) + 2;
+        for (double timeZone : TIME_ZONES) {
+            for (int k = fromK; k <= toK; k++) {
+                assertEquals("k = " + k, AstroKernel.REFERENCE.newMoonDay(k, timeZone),
+                        AstroKernel.FAST.newMoonDay(k, timeZone));
+            }
+        }
+    }
+
+    @Test
+    public void sunLongitudeSectors() {
+        for (double timeZone : TIME_ZONES) {
+            for (int jd = FROM; jd <= TO; jd++) {
+                assertEquals("jd = " + jd, AstroKernel.REFERENCE.sunLongitudeSector(jd, timeZone),
+                        AstroKernel.FAST.sunLongitudeSector(jd, timeZone));
+            }
+        }
+    }
+
+    @Test
+    public void everyDay_sameLunarDates() {
+        for (double timeZone : TIME_ZONES) {
+            LunarYearCache reference = new LunarYearCache(1024, AstroKernel.REFERENCE);
+            LunarYearCache fast = new LunarYearCache(1024, AstroKernel.FAST);
+            int[] solar = new int[3];
+            for (int jd = FROM; jd <= TO; jd++) {
+                long date = LunarCoreHelper.jdToDatePacked(jd);
+                int year = LunarCoreHelper.unpackYear(date);
+                long lunar = LunarCoreHelper.computeSolar2LunarPacked(jd, year, timeZone, reference);
+                assertEquals("jd = " + jd, lunar, LunarCoreHelper.computeSolar2LunarPacked(jd, year, timeZone, fast));
+                int lunarDay = LunarCoreHelper.unpackDay(lunar);
+                if (lunarDay == 1 || lunarDay == 30) {
+                    assertEquals(date, LunarCoreHelper.computeLunar2SolarPacked(lunarDay, LunarCoreHelper.unpackMonth(lunar),
+                            LunarCoreHelper.unpackYear(lunar), LunarCoreHelper.unpackLeap(lunar), timeZone, fast));
+                }
+            }
+
+            long[] referenceRange = new long[TO - FROM + 1];
+            long[] fastRange = new long[TO - FROM + 1];
+            LunarCoreHelper.convertSolar2LunarRange(1, 1, 1800, timeZone, reference, referenceRange, 0, referenceRange.length);
+            LunarCoreHelper.convertSolar2LunarRange(1, 1, 1800, timeZone, fast, fastRange, 0, fastRange.length);
+            assertArrayEquals(referenceRange, fastRange);
+
+            assertEquals(LunarYearTable.build(1800, 2200, timeZone),
+                    LunarYearTable.build(1800, 2200, timeZone, AstroKernel.FAST));
+        }
+    }
+
+    @Test
+    public void calendar() {
+        LunarCalendar calendar = LunarCalendar.forOffset(7.0, AstroKernel.FAST);
+        assertSame(calendar, LunarCalendar.forOffset(7.0, AstroKernel.FAST));
+        assertNotSame(calendar, LunarCalendar.forOffset(7.0));
+        assertEquals(AstroKernel.FAST, calendar.getAstroKernel());
+        assertEquals(AstroKernel.FAST, calendar.getYearCache().getKernel());
+        assertEquals("LunarCalendar[UTC+7.0, FAST]", calendar.toString());
+        assertArrayEquals(new int[] { 1, 1, 2024, 0 }, calendar.convertSolar2Lunar(10, 2, 2024));
+        assertEquals(LunarCoreHelper.packDate(22, 3, 2023, 0), calendar.monthCursorOf(2, 2023, 1).getSolarDatePacked(1));
+    }
+}
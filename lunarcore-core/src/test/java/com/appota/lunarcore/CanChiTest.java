@@ -0,0 +1,61 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CanChiTest {
+    @Test
+    public void dayIndex_matchesPivotDay() {
+        // March 1st 1996 is Đinh Dậu, the old "pivot" day
+        int index = CanChi.dayIndex(1, 3, 1996);
+        assertEquals(3, CanChi.canOf(index));
+        assertEquals(9, CanChi.chiOf(index));
+        assertEquals("Đinh", LunarCoreHelper.getCanDayLunar(1, 3, 1996));
+        assertEquals("Dậu", LunarCoreHelper.getChiDayLunar(1, 3, 1996));
+    }
+
+    @Test
+    public void dayIndex_doesNotDependOnDefaultTimeZone() {
+        java.util.TimeZone saved = java.util.TimeZone.getDefault();
+        try {
+            java.util.TimeZone.setDefault(java.util.TimeZone.getTimeZone("America/New_York"));
+            // 1/1/1900 is Giáp Tuất, and the day after a DST change is not shifted
+            assertEquals("Giáp", LunarCoreHelper.getCanDayLunar(1, 1, 1900));
+            assertEquals("Tuất", LunarCoreHelper.getChiDayLunar(1, 1, 1900));
+            assertEquals(CanChi.dayIndex(7, 4, 1996) + 1, CanChi.dayIndex(8, 4, 1996));
+        } finally {
+            java.util.TimeZone.setDefault(saved);
+        }
+    }
+
+    @Test
+    public void yearAndMonthIndex() {
+        // 1984 Giáp Tý, 2024 Giáp Thìn
+        assertEquals(0, CanChi.yearIndex(1984));
+        assertEquals(CanChi.fromCanChi(0, 4), CanChi.yearIndex(2024));
+        // Month 1 of a Giáp year is Bính Dần, of an Ất year is Mậu Dần
+        assertEquals(CanChi.fromCanChi(2, 2), CanChi.monthIndex(1, 2024));
+        assertEquals(CanChi.fromCanChi(4, 2), CanChi.monthIndex(1, 2025));
+    }
+
+    @Test
+    public void pillars() {
+        // 10/2/2024 12:00 in Vietnam: 1st day of Giáp Thìn, month Bính Dần, day Giáp Thìn, hour Canh Ngọ
+        int pillars = CanChi.pillars(10, 2, 2024, 12, 7.0);
+        assertEquals("Giáp Thìn", CanChi.getName(CanChi.pillarYear(pillars)));
+        assertEquals("Bính Dần", CanChi.getName(CanChi.pillarMonth(pillars)));
+        assertEquals("甲辰", CanChi.getChineseName(CanChi.pillarDay(pillars)));
+        assertEquals("Canh Ngọ", CanChi.getName(CanChi.pillarHour(pillars)));
+        // 23:00 is already the Tý hour of the next day (Ất Tỵ), so Bính Tý
+        assertEquals("Bính Tý", CanChi.getName(CanChi.hourIndex(CanChi.pillarDay(pillars), 23)));
+        assertEquals("Giáp Tý", CanChi.getName(CanChi.hourIndex(CanChi.pillarDay(pillars), 0)));
+    }
+
+    @Test
+    public void names_areShared() {
+        assertSame(CanChi.getName(0), CanChi.getName(0));
+        assertEquals("Quý Hợi", CanChi.getName(59));
+        assertEquals("癸亥", CanChi.getChineseName(59));
+    }
+}
@@ -0,0 +1,85 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+import static org.junit.Assert.*;
+
+public class DateKernelsTest {
+    private static final int BATCH = 4096;
+
+    @Test
+    public void sameAsScalar_wholeRange() {
+        int[] jd = new int[BATCH];
+        int[] days = new int[BATCH];
+        int[] months = new int[BATCH];
+        int[] years = new int[BATCH];
+        int[] back = new int[BATCH];
+        int[] indexes = new int[BATCH];
+        int[] fused = new int[BATCH];
+        int[] stems = new int[BATCH];
+        int[] branches = new int[BATCH];
+        int last = LunarCoreHelper.jdFromDate(31, 12, DateKernels.MAX_YEAR);
+        for (int start = 0; start <= last; start += BATCH) {
+            for (int i = 0; i < BATCH; i++) {
+                jd[i] = start + i;
+            }
+            DateKernels.jdToDates(jd, days, months, years);
+            DateKernels.jdFromDates(days, months, years, back);
+            DateKernels.dayCanChi(jd, indexes);
+            DateKernels.dayCanChi(days, months, years, fused, 0, BATCH);
+            DateKernels.stemsAndBranches(indexes, stems, branches);
+            for (int i = 0; i < BATCH; i++) {
+                long date = LunarCoreHelper.jdToDatePacked(jd[i]);
+                if (days[i] != LunarCoreHelper.unpackDay(date) || months[i] != LunarCoreHelper.unpackMonth(date)
+                        || years[i] != LunarCoreHelper.unpackYear(date)) {
+                    fail("jdToDates " + jd[i]);
+                }
+                // jdFromDate is not the inverse of jdToDate in the gap of 1582, compare with it, not with jd
+                if (back[i] != LunarCoreHelper.jdFromDate(days[i], months[i], years[i])) {
+                    fail("jdFromDates " + days[i] + "/" + months[i] + "/" + years[i]);
+                }
+                int index = CanChi.dayIndex(jd[i]);
+                if (indexes[i] != index || fused[i] != CanChi.dayIndex(back[i])
+                        || stems[i] != CanChi.canOf(index) || branches[i] != CanChi.chiOf(index)) {
+                    fail("dayCanChi " + jd[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void jdFromDates_invalidDays() {
+        // Like jdFromDate, days out of the month just overflow to the next month
+        int[] out = new int[3];
+        DateKernels.jdFromDates(new int[] { 0, 32, 31 }, new int[] { 3, 1, 2 }, new int[] { 2024, 1900, 2000 }, out);
+        assertArrayEquals(new int[] { LunarCoreHelper.jdFromDate(0, 3, 2024), LunarCoreHelper.jdFromDate(32, 1, 1900),
+                LunarCoreHelper.jdFromDate(31, 2, 2000) }, out);
+    }
+
+    @Test
+    public void buffers() {
+        int[] days = { 9, 1, 10, 2, 31 };
+        int[] months = { 9, 1, 2, 5, 12 };
+        int[] years = { 9, 1900, 2024, 2016, 1799 };
+        IntBuffer out = IntBuffer.allocate(5);
+        out.position(1);
+        IntBuffer daysBuffer = IntBuffer.wrap(days, 1, 4);
+        DateKernels.jdFromDates(daysBuffer, IntBuffer.wrap(months, 1, 4), IntBuffer.wrap(years, 1, 4), out);
+        assertEquals(5, out.position());
+        assertEquals(5, daysBuffer.position());
+        for (int i = 1; i < 5; i++) {
+            assertEquals(LunarCoreHelper.jdFromDate(days[i], months[i], years[i]), out.get(i));
+        }
+
+        // Direct buffers, read one by one
+        IntBuffer direct = ByteBuffer.allocateDirect(16).asIntBuffer();
+        DateKernels.dayCanChi(IntBuffer.wrap(days, 1, 4), IntBuffer.wrap(months, 1, 4), IntBuffer.wrap(years, 1, 4), direct);
+        assertFalse(direct.hasRemaining());
+        for (int i = 1; i < 5; i++) {
+            assertEquals(CanChi.dayIndex(days[i], months[i], years[i]), direct.get(i - 1));
+        }
+    }
+}
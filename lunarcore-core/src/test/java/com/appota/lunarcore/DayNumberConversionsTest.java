@@ -0,0 +1,93 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DayNumberConversionsTest {
+    private static final int FROM = LunarCoreHelper.jdFromDate(1, 1, 1800);
+    private static final int TO = LunarCoreHelper.jdFromDate(31, 12, 2200);
+
+    @Test
+    public void everyDay_sameAsSolarDates() {
+        for (double timeZone : new double[] { 7.0, 8.0 }) {
+            LunarCalendar calendar = LunarCalendar.forOffset(timeZone);
+            for (int jd = FROM; jd <= TO; jd++) {
+                int[] solar = LunarCoreHelper.jdToDate(jd);
+                long epochDay = LunarCoreHelper.epochDayOf(jd);
+                long lunar = LunarCoreHelper.convertSolar2LunarPacked(solar[0], solar[1], solar[2], timeZone);
+                assertEquals(lunar, LunarCoreHelper.convertJulianDay2LunarPacked(jd, timeZone));
+                assertEquals(lunar, LunarCoreHelper.convertEpochDay2LunarPacked(epochDay, timeZone));
+                assertEquals(lunar, calendar.convertEpochDay2LunarPacked(epochDay));
+                assertEquals(LunarDate.fromPacked(lunar), LunarDate.fromEpochDay(epochDay, timeZone));
+
+                int lunarDay = LunarCoreHelper.unpackDay(lunar);
+                int lunarMonth = LunarCoreHelper.unpackMonth(lunar);
+                int lunarYear = LunarCoreHelper.unpackYear(lunar);
+                int lunarLeap = LunarCoreHelper.unpackLeap(lunar);
+                assertEquals(jd, LunarCoreHelper.convertLunar2JulianDay(lunarDay, lunarMonth, lunarYear, lunarLeap,
+                        timeZone));
+                assertEquals(epochDay, LunarCoreHelper.convertLunar2EpochDay(lunarDay, lunarMonth, lunarYear,
+                        lunarLeap, timeZone));
+                assertEquals(epochDay, calendar.convertLunar2EpochDay(lunarDay, lunarMonth, lunarYear, lunarLeap));
+                assertEquals(epochDay, LunarDate.fromPacked(lunar).toEpochDay(timeZone));
+
+                assertEquals(CanChi.dayIndex(solar[0], solar[1], solar[2]), CanChi.epochDayIndex(epochDay));
+            }
+        }
+    }
+
+    @Test
+    public void epochDay_ofKnownDays() {
+        assertEquals(LunarCoreHelper.EPOCH_JULIAN_DAY, LunarCoreHelper.jdFromDate(1, 1, 1970));
+        assertEquals(0, LunarCoreHelper.epochDayOf(LunarCoreHelper.jdFromDate(1, 1, 1970)));
+        // Tết 2024 is 10/2/2024
+        assertEquals(LunarCoreHelper.jdFromDate(10, 2, 2024), LunarCoreHelper.julianDayOf(
+                LunarCoreHelper.convertLunar2EpochDay(1, 1, 2024, 0, 7.0)));
+        assertEquals(CanChi.dayIndex(1, 3, 1996), CanChi.epochDayIndex(LunarCoreHelper.epochDayOf(2450144)));
+    }
+
+    @Test
+    public void bulk_sameAsOneByOne() {
+        int count = TO - FROM + 1;
+        long[] sorted = new long[count + 2];
+        for (int i = 0; i < count; i++) {
+            sorted[i + 1] = LunarCoreHelper.epochDayOf(FROM + i);
+        }
+        long[] shuffled = new long[5000];
+        Random random = new Random(42);
+        for (int i = 0; i < shuffled.length; i++) {
+            // Runs of neighbour days, and jumps back and forth
+            shuffled[i] = i % 3 == 0 ? LunarCoreHelper.epochDayOf(FROM + random.nextInt(count))
+                    : shuffled[i - 1] + random.nextInt(61) - 30;
+        }
+        LunarCalendar calendar = LunarCalendar.forOffset(7.0);
+        calendar.precompute(1900, 2100);
+        for (long[] epochDays : new long[][] { sorted, shuffled }) {
+            long[] out = new long[epochDays.length];
+            LunarCoreHelper.convertEpochDays2LunarPacked(epochDays, out, 1, epochDays.length - 2, 7.0);
+            long[] fromCalendar = new long[epochDays.length];
+            calendar.convertEpochDays2LunarPacked(epochDays, fromCalendar, 1, epochDays.length - 2);
+            assertEquals(0, out[0]);
+            assertEquals(0, out[out.length - 1]);
+            for (int i = 1; i < epochDays.length - 1; i++) {
+                long expected = LunarCoreHelper.convertEpochDay2LunarPacked(epochDays[i], 7.0);
+                assertEquals(expected, out[i]);
+                assertEquals(expected, fromCalendar[i]);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void lunar2EpochDay_invalidLeapMonth() {
+        // 2023 has a leap month 2, not 3
+        LunarCoreHelper.convertLunar2EpochDay(1, 3, 2023, 1, 7.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void julianDayOf_outOfRange() {
+        LunarCoreHelper.julianDayOf(Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,28 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DayRatingTest {
+    @Test
+    public void rateDay_byIndex() {
+        // Month 1: Tý, Sửu, Tỵ, Mùi are good, Ngọ, Mão, Hợi, Dậu are bad
+        assertEquals(DayRating.GOOD, LunarCoreHelper.rateDay(0, 1));
+        assertEquals(DayRating.GOOD, LunarCoreHelper.rateDay(5, 1));
+        assertEquals(DayRating.BAD, LunarCoreHelper.rateDay(6, 1));
+        assertEquals(DayRating.NORMAL, LunarCoreHelper.rateDay(2, 1));
+        // Sửu is in both tables of month 5, good wins
+        assertEquals(DayRating.GOOD, LunarCoreHelper.rateDay(1, 5));
+    }
+
+    @Test
+    public void rateDay_byName() {
+        assertEquals("Good", LunarCoreHelper.rateDay("Tý", 1));
+        assertEquals("Good", LunarCoreHelper.rateDay("TÝ", 1));
+        assertEquals("Bad", LunarCoreHelper.rateDay("Ngọ", 1));
+        assertEquals("Bad", LunarCoreHelper.rateDay("ngo", 1));
+        assertEquals("Normal", LunarCoreHelper.rateDay("Dần", 1));
+        assertEquals("Normal", LunarCoreHelper.rateDay("unknown", 1));
+    }
+}
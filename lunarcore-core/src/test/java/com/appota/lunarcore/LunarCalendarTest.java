@@ -0,0 +1,109 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class LunarCalendarTest {
+    @Test
+    public void forOffset_sameInstance() {
+        assertSame(LunarCalendar.forOffset(7.0), LunarCalendar.forOffset(7));
+        assertNotSame(LunarCalendar.forOffset(7.0), LunarCalendar.forOffset(8.0));
+        assertEquals(5.75, LunarCalendar.forOffset(5.75).getTimeZone(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void forOffset_invalid() {
+        LunarCalendar.forOffset(7.1);
+    }
+
+    @Test
+    public void sameAsHelper() {
+        for (double timeZone : new double[] { 7.0, 8.0, 9.0 }) {
+            LunarCalendar calendar = LunarCalendar.forOffset(timeZone);
+            for (int year = 1990; year <= 2030; year++) {
+                for (int month = 1; month <= 12; month++) {
+                    for (int day = 1; day <= 28; day += 3) {
+                        long lunar = LunarCoreHelper.convertSolar2LunarPacked(day, month, year, timeZone);
+                        assertEquals(lunar, calendar.convertSolar2LunarPacked(day, month, year));
+                        assertEquals(LunarCoreHelper.packDate(day, month, year, 0),
+                                calendar.convertLunar2SolarPacked(LunarCoreHelper.unpackDay(lunar),
+                                        LunarCoreHelper.unpackMonth(lunar), LunarCoreHelper.unpackYear(lunar),
+                                        LunarCoreHelper.unpackLeap(lunar)));
+                    }
+                }
+            }
+            assertArrayEquals(LunarCoreHelper.convertSolar2LunarRange(1, 1, 2020, 400, timeZone),
+                    calendar.convertSolar2LunarRange(1, 1, 2020, 400));
+        }
+    }
+
+    @Test
+    public void zonesDontShareCaches() {
+        LunarCalendar vietnam = LunarCalendar.forOffset(7.0);
+        LunarCalendar korea = LunarCalendar.forOffset(9.0);
+        vietnam.convertSolar2Lunar(10, 2, 2024);
+        long misses = vietnam.getYearCache().getMissCount();
+        for (int year = 1800; year < 2200; year++) {
+            korea.convertSolar2Lunar(1, 6, year);
+        }
+        vietnam.convertSolar2Lunar(10, 2, 2024);
+        assertEquals(misses, vietnam.getYearCache().getMissCount());
+    }
+
+    @Test
+    public void precompute() {
+        LunarCalendar calendar = LunarCalendar.forOffset(-5.0);
+        int[] expected = calendar.convertSolar2Lunar(10, 2, 2024);
+        calendar.precompute(2000, 2050);
+        try {
+            assertArrayEquals(expected, calendar.convertSolar2Lunar(10, 2, 2024));
+            assertArrayEquals(LunarCoreHelper.convertLunar2Solar(1, 1, 1900, 0, -5.0),
+                    calendar.convertLunar2Solar(1, 1, 1900, 0));
+        } finally {
+            calendar.setTable(null);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setTable_otherTimeZone() {
+        LunarCalendar.forOffset(7.0).setTable(LunarYearTable.build(2000, 2001, 8.0));
+    }
+
+    @Test
+    public void concurrent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                final double timeZone = 7.0 + i % 3;
+                results.add(executor.submit(new Callable<Long>() {
+                    @Override
+                    public Long call() {
+                        long sum = 0;
+                        for (long date : LunarCalendar.forOffset(timeZone).convertSolar2LunarRange(1, 1, 1950, 36500)) {
+                            sum += date;
+                        }
+                        return sum;
+                    }
+                }));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                long expected = 0;
+                for (long date : LunarCoreHelper.convertSolar2LunarRange(1, 1, 1950, 36500, 7.0 + i % 3)) {
+                    expected += date;
+                }
+                assertEquals(expected, (long) results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
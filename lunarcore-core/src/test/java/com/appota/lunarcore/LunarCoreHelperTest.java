@@ -0,0 +1,122 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LunarCoreHelperTest {
+
+    @Test
+    public void overloads_sameResult() {
+        int[] lunarOut = { -1, -1, -1, -1 };
+        int[] solarOut = { -1, -1, -1 };
+        MutableLunarDate lunarDate = new MutableLunarDate();
+        LunarYearTable table = LunarYearTable.build(1990, 2030, 7.0);
+        for (int year = 1900; year <= 2100; year += 7) {
+            for (int month = 1; month <= 12; month++) {
+                for (int day = 1; day <= 28; day += 9) {
+                    int[] lunar = LunarCoreHelper.convertSolar2Lunar(day, month, year, 7.0);
+                    long packed = LunarCoreHelper.convertSolar2LunarPacked(day, month, year, 7.0);
+                    assertEquals(LunarCoreHelper.packDate(lunar[0], lunar[1], lunar[2], lunar[3]), packed);
+                    // The same out objects are reused for every date
+                    assertSame(lunarOut, LunarCoreHelper.convertSolar2Lunar(day, month, year, 7.0, lunarOut));
+                    assertArrayEquals(lunar, lunarOut);
+                    assertSame(lunarDate, LunarCoreHelper.convertSolar2Lunar(day, month, year, 7.0, lunarDate));
+                    assertEquals(packed, lunarDate.toPacked());
+                    assertEquals(lunar[3] == 1, lunarDate.isLeapMonth());
+                    assertArrayEquals(lunar, table.convertSolar2Lunar(day, month, year, new int[4]));
+
+                    int[] solar = LunarCoreHelper.convertLunar2Solar(lunar[0], lunar[1], lunar[2], lunar[3], 7.0);
+                    assertArrayEquals(new int[] { day, month, year }, solar);
+                    assertSame(solarOut, LunarCoreHelper.convertLunar2Solar(lunar[0], lunar[1], lunar[2], lunar[3],
+                            7.0, solarOut));
+                    assertArrayEquals(solar, solarOut);
+                    assertEquals(LunarCoreHelper.packDate(day, month, year, 0),
+                            LunarCoreHelper.convertLunar2SolarPacked(lunar[0], lunar[1], lunar[2], lunar[3], 7.0));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void packing() {
+        for (int year : new int[] { -4712, -1, 0, 1, 2024, 100000 }) {
+            long date = LunarCoreHelper.packDate(30, 12, year, 1);
+            assertEquals(30, LunarCoreHelper.unpackDay(date));
+            assertEquals(12, LunarCoreHelper.unpackMonth(date));
+            assertEquals(year, LunarCoreHelper.unpackYear(date));
+            assertEquals(1, LunarCoreHelper.unpackLeap(date));
+        }
+        // Packed dates sort like the dates
+        assertTrue(LunarCoreHelper.packDate(30, 2, 2023, 0) < LunarCoreHelper.packDate(1, 2, 2023, 1));
+        assertTrue(LunarCoreHelper.packDate(1, 1, -1, 0) < LunarCoreHelper.packDate(1, 1, 0, 0));
+
+        MutableLunarDate lunarDate = new MutableLunarDate();
+        lunarDate.set(1, 2, 2023, 1);
+        assertEquals(LunarCoreHelper.packDate(1, 2, 2023, 1), lunarDate.toPacked());
+        lunarDate.set(LunarCoreHelper.packDate(15, 8, 2024, 0));
+        assertEquals(15, lunarDate.getDay());
+        assertEquals(8, lunarDate.getMonth());
+        assertEquals(2024, lunarDate.getYear());
+        assertEquals(0, lunarDate.getLeap());
+    }
+
+    @Test
+    public void range_sameAsEachDay() {
+        for (double timeZone : new double[] { 7.0, 8.0 }) {
+            int from = LunarCoreHelper.jdFromDate(1, 1, 1800);
+            int days = LunarCoreHelper.jdFromDate(31, 12, 2200) - from + 1;
+            long[] range = LunarCoreHelper.convertSolar2LunarRange(1, 1, 1800, days, timeZone);
+            for (int i = 0; i < days; i++) {
+                int[] solar = LunarCoreHelper.jdToDate(from + i);
+                assertEquals(solar[0] + "/" + solar[1] + "/" + solar[2],
+                        LunarCoreHelper.convertSolar2LunarPacked(solar[0], solar[1], solar[2], timeZone), range[i]);
+            }
+        }
+    }
+
+    @Test
+    public void range_startsAnywhere() {
+        long[] out = new long[60];
+        // Around Tết, a leap month, a month 11 and the day before a new moon
+        int[][] starts = { { 1, 2, 2024 }, { 15, 3, 2023 }, { 10, 12, 2024 }, { 13, 4, 1877 }, { 31, 12, 1999 } };
+        for (int[] start : starts) {
+            for (int offset : new int[] { 0, 7 }) {
+                LunarCoreHelper.convertSolar2LunarRange(start[0], start[1], start[2], 7.0, out, offset, 40);
+                int jd = LunarCoreHelper.jdFromDate(start[0], start[1], start[2]);
+                for (int i = 0; i < 40; i++) {
+                    int[] solar = LunarCoreHelper.jdToDate(jd + i);
+                    assertEquals(LunarCoreHelper.convertSolar2LunarPacked(solar[0], solar[1], solar[2], 7.0),
+                            out[offset + i]);
+                }
+            }
+        }
+        // Nothing written for an empty range
+        out[0] = -1;
+        LunarCoreHelper.convertSolar2LunarRange(1, 1, 2024, 7.0, out, 0, 0);
+        assertEquals(-1, out[0]);
+    }
+
+    @Test
+    public void isValidSolarDate() {
+        assertTrue(LunarCoreHelper.isValidSolarDate(29, 2, 2024));
+        assertFalse(LunarCoreHelper.isValidSolarDate(29, 2, 2023));
+        assertFalse(LunarCoreHelper.isValidSolarDate(29, 2, 1900));
+        assertFalse(LunarCoreHelper.isValidSolarDate(31, 4, 2024));
+        assertFalse(LunarCoreHelper.isValidSolarDate(0, 1, 2024));
+        assertFalse(LunarCoreHelper.isValidSolarDate(40, 13, 2024));
+        // Julian calendar before 15/10/1582
+        assertTrue(LunarCoreHelper.isValidSolarDate(29, 2, 1500));
+        assertTrue(LunarCoreHelper.isValidSolarDate(4, 10, 1582));
+        assertFalse(LunarCoreHelper.isValidSolarDate(10, 10, 1582));
+        assertTrue(LunarCoreHelper.isValidSolarDate(15, 10, 1582));
+    }
+
+    @Test
+    public void invalidLeapMonth_zeros() {
+        // 2023 has a leap month 2, not 3
+        assertEquals(0, LunarCoreHelper.convertLunar2SolarPacked(1, 3, 2023, 1, 7.0));
+        assertArrayEquals(new int[] { 0, 0, 0 }, LunarCoreHelper.convertLunar2Solar(1, 3, 2023, 1, 7.0,
+                new int[] { 5, 5, 5 }));
+    }
+}
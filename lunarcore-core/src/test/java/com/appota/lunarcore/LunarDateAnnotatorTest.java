@@ -0,0 +1,81 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.*;
+
+public class LunarDateAnnotatorTest {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static String annotate(LunarDateAnnotator annotator, String input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LunarDateAnnotator.Stats stats = annotator.annotate(new ByteArrayInputStream(input.getBytes(UTF_8)), out);
+        assertEquals(input.getBytes(UTF_8).length, stats.getBytesRead());
+        assertEquals(out.size(), stats.getBytesWritten());
+        return new String(out.toByteArray(), UTF_8);
+    }
+
+    @Test
+    public void annotate() throws IOException {
+        LunarDateAnnotator annotator = new LunarDateAnnotator(7.0, 1, ',');
+        annotator.setHeader(true);
+        String output = annotate(annotator, "id,date,name\n"
+                + "1,2024-02-10,Tết\r\n"
+                + "2,\"10/02/2024\",\"a, b\"\n"
+                + "3,2024-02-30,invalid\n"
+                + "4,,empty\n"
+                + "\"5,x\",2023-03-22T10:00:00,quoted\n"
+                + "6,1/1/1900");
+        assertEquals("id,date,name,lunar_day,lunar_month,lunar_year,leap,can_chi\n"
+                + "1,2024-02-10,Tết,1,1,2024,0,Giáp Thìn\r\n"
+                + "2,\"10/02/2024\",\"a, b\",1,1,2024,0,Giáp Thìn\n"
+                + "3,2024-02-30,invalid,,,,,\n"
+                + "4,,empty,,,,,\n"
+                + "\"5,x\",2023-03-22T10:00:00,quoted,1,2,2023,1,Kỷ Mão\n"
+                + "6,1/1/1900,1,12,1899,0,Giáp Tuất", output);
+    }
+
+    @Test
+    public void sameAsHelper_smallBuffer() throws IOException {
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        int jd = LunarCoreHelper.jdFromDate(1, 1, 1990);
+        for (int i = 0; i < 5000; i++, jd += 7) {
+            int[] solar = LunarCoreHelper.jdToDate(jd);
+            String line = i + "\t" + solar[2] + "-" + (solar[1] < 10 ? "0" : "") + solar[1] + "-"
+                    + (solar[0] < 10 ? "0" : "") + solar[0];
+            int[] lunar = LunarCoreHelper.convertSolar2Lunar(solar[0], solar[1], solar[2], 8.0);
+            input.append(line).append('\n');
+            expected.append(line).append('\t').append(lunar[0]).append('\t').append(lunar[1]).append('\t')
+                    .append(lunar[2]).append('\t').append(lunar[3]).append('\t')
+                    .append(LunarCoreHelper.getCanDayLunar(solar[0], solar[1], solar[2])).append(' ')
+                    .append(LunarCoreHelper.getChiDayLunar(solar[0], solar[1], solar[2])).append('\n');
+        }
+        LunarDateAnnotator annotator = new LunarDateAnnotator(8.0, 1, '\t', 256);
+        assertEquals(expected.toString(), annotate(annotator, input.toString()));
+        // The same annotator can be used again
+        assertEquals(expected.toString(), annotate(annotator, input.toString()));
+    }
+
+    @Test(expected = IOException.class)
+    public void lineLongerThanBuffer() throws IOException {
+        StringBuilder line = new StringBuilder("2024-02-10,");
+        while (line.length() < 300) {
+            line.append('x');
+        }
+        annotate(new LunarDateAnnotator(7.0, 0, ',', 256), line + "\n");
+    }
+
+    @Test
+    public void writeInt() {
+        byte[] bytes = new byte[16];
+        assertEquals(1, LunarDateAnnotator.writeInt(bytes, 0, 0));
+        assertEquals(6, LunarDateAnnotator.writeInt(bytes, 1, -2024));
+        assertEquals("0-2024", new String(bytes, 0, 6, UTF_8));
+    }
+}
@@ -0,0 +1,152 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class LunarDateTest {
+    private static final int FROM = LunarCoreHelper.jdFromDate(1, 1, 1800);
+    private static final int TO = LunarCoreHelper.jdFromDate(31, 12, 2200);
+
+    private static LunarDate lunarDateOf(int jd, double timeZone) {
+        int[] solar = LunarCoreHelper.jdToDate(jd);
+        return LunarDate.fromSolar(solar[0], solar[1], solar[2], timeZone);
+    }
+
+    @Test
+    public void everyDay_sameAsHelper() {
+        for (double timeZone : new double[] { 7.0, 8.0 }) {
+            LunarDate previous = lunarDateOf(FROM - 1, timeZone);
+            for (int jd = FROM; jd <= TO; jd++) {
+                int[] solar = LunarCoreHelper.jdToDate(jd);
+                LunarDate date = LunarDate.fromSolar(solar[0], solar[1], solar[2], timeZone);
+                assertEquals(LunarCoreHelper.convertSolar2LunarPacked(solar[0], solar[1], solar[2], timeZone),
+                        date.toPacked());
+                assertEquals(date.toString(), jd, date.toJulianDay(timeZone));
+                assertTrue(date.isValid(timeZone));
+                assertEquals(date, previous.plusDays(1, timeZone));
+                assertEquals(previous, date.minusDays(1, timeZone));
+                // The ints sort like the dates
+                assertTrue(previous.toInt() < date.toInt());
+                assertTrue(previous.compareTo(date) < 0);
+                previous = date;
+            }
+        }
+    }
+
+    @Test
+    public void plusDays_farAway() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            int jd = FROM + random.nextInt(TO - FROM - 20000) + 10000;
+            int days = random.nextInt(20001) - 10000;
+            LunarDate date = lunarDateOf(jd, 7.0);
+            LunarDate moved = date.plusDays(days, 7.0);
+            assertEquals(lunarDateOf(jd + days, 7.0), moved);
+            assertEquals(days, date.daysUntil(moved, 7.0));
+        }
+    }
+
+    @Test
+    public void plusMonths_sameAsCursor() {
+        LunarMonthCursor cursor = LunarMonthCursor.at(1, 1, 1900, 7.0);
+        while (cursor.getLength() != 30) {
+            cursor.next();
+        }
+        // A 30th, moved to the 29th in the short months
+        LunarDate first = LunarDate.fromPacked(cursor.getLunarDatePacked(30));
+        LunarDate fifteenth = LunarDate.fromPacked(cursor.getLunarDatePacked(15));
+        for (int months = 0; months < 2400; months++) {
+            LunarDate date = first.plusMonths(months, 7.0);
+            assertEquals(cursor.getLunarDatePacked(cursor.getLength()), date.toPacked());
+            assertEquals(cursor.getLength(), date.lengthOfMonth(7.0));
+            assertEquals(fifteenth, fifteenth.plusMonths(months, 7.0).minusMonths(months, 7.0));
+            cursor.next();
+        }
+    }
+
+    @Test
+    public void plusMonths_leapMonth() {
+        LunarDate date = LunarDate.of(15, 2, 2023, 0);
+        assertEquals(LunarDate.of(15, 2, 2023, 1), date.plusMonths(1, 7.0));
+        assertEquals(LunarDate.of(15, 3, 2023, 0), date.plusMonths(2, 7.0));
+        assertEquals(LunarDate.of(15, 2, 2024, 0), date.plusMonths(13, 7.0));
+        assertEquals(LunarDate.of(15, 2, 2023, 0), LunarDate.of(15, 3, 2023, 0).minusMonths(2, 7.0));
+        assertEquals(LunarCoreHelper.packDate(22, 3, 2023, 0), LunarDate.of(1, 2, 2023, 1).toSolarPacked(7.0));
+    }
+
+    @Test
+    public void calendar_ownCache() {
+        LunarCalendar calendar = LunarCalendar.forOffset(6.5, AstroKernel.FAST);
+        LunarYearCache global = LunarCoreHelper.getYearCache();
+        LunarDate date = LunarDate.fromSolar(10, 2, 2024, 6.5);
+        LunarDate later = date.plusDays(1000, 6.5);
+        LunarDate earlier = date.plusMonths(-40, 6.5);
+        int jd = date.toJulianDay(6.5);
+        int length = date.lengthOfMonth(6.5);
+        long globalLookups = global.getHitCount() + global.getMissCount();
+        long lookups = calendar.getYearCache().getHitCount() + calendar.getYearCache().getMissCount();
+
+        assertEquals(later, calendar.plusDays(date, 1000));
+        assertEquals(earlier, calendar.plusMonths(date, -40));
+        assertEquals(1000, calendar.daysUntil(date, later));
+        assertEquals(jd, calendar.toJulianDay(date));
+        assertEquals(length, calendar.lengthOfMonth(date));
+        assertTrue(calendar.isValid(date));
+        assertFalse(calendar.isValid(LunarDate.of(1, 3, 2023, 1)));
+
+        // Only the cache of the calendar was used
+        assertEquals(globalLookups, global.getHitCount() + global.getMissCount());
+        assertTrue(calendar.getYearCache().getHitCount() + calendar.getYearCache().getMissCount() > lookups);
+    }
+
+    @Test
+    public void invalidDates() {
+        assertFalse(LunarDate.of(1, 2, 2024, 1).isValid(7.0));
+        assertFalse(LunarDate.of(1, 3, 2023, 1).isValid(7.0));
+        assertTrue(LunarDate.of(1, 2, 2023, 1).isValid(7.0));
+        try {
+            LunarDate.of(1, 2, 2024, 1).toJulianDay(7.0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        for (int[] fields : new int[][] { { 0, 1, 2024, 0 }, { 31, 1, 2024, 0 }, { 1, 13, 2024, 0 },
+                { 1, 1, 2024, 2 } }) {
+            try {
+                LunarDate.of(fields[0], fields[1], fields[2], fields[3]);
+                fail(fields[0] + "/" + fields[1]);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void packing() {
+        Set<LunarDate> dates = new HashSet<>();
+        for (int year : new int[] { -2000, -1, 0, 1, 2024, 100000 }) {
+            for (int month = 1; month <= 12; month++) {
+                for (int leap = 0; leap <= 1; leap++) {
+                    LunarDate date = LunarDate.of(30, month, year, leap);
+                    assertEquals(30, date.getDay());
+                    assertEquals(month, date.getMonth());
+                    assertEquals(year, date.getYear());
+                    assertEquals(leap, date.getLeap());
+                    assertEquals(date, LunarDate.fromInt(date.toInt()));
+                    assertEquals(date, LunarDate.fromPacked(date.toPacked()));
+                    assertTrue(dates.add(date));
+                    assertTrue(dates.contains(LunarDate.of(30, month, year, leap)));
+                }
+            }
+        }
+        assertTrue(LunarDate.of(1, 1, -1, 0).compareTo(LunarDate.of(1, 1, 0, 0)) < 0);
+        assertTrue(LunarDate.of(30, 2, 2023, 0).toInt() < LunarDate.of(1, 2, 2023, 1).toInt());
+        assertTrue(LunarDate.of(30, 2, 2023, 1).toInt() < LunarDate.of(1, 3, 2023, 0).toInt());
+        assertEquals("1/2/2023 (leap)", LunarDate.of(1, 2, 2023, 1).toString());
+    }
+}
@@ -0,0 +1,142 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LunarDayIndexTest {
+    private static final String[] CHI = LunarCoreHelper.CHI;
+    private static final String[] CAN = LunarCoreHelper.CAN;
+
+    @Test
+    public void attributes_sameAsHelper() {
+        // Built in two steps, and a chunk boundary of the conversion in the middle
+        LunarDayIndex index = LunarDayIndex.build(15, 11, 2023, 30, 6, 2024, 7.0);
+        assertEquals(229, index.getLength());
+        assertSame(index, index.extendTo(1, 1, 2024));
+        assertEquals(229, index.getLength());
+        index.extendTo(31, 12, 2026);
+        int end = LunarCoreHelper.jdFromDate(31, 12, 2026);
+        assertEquals(end - index.getStartJulianDay() + 1, index.getLength());
+
+        for (int jd = index.getStartJulianDay(); jd <= end; jd++) {
+            int[] solar = LunarCoreHelper.jdToDate(jd);
+            int[] lunar = LunarCoreHelper.convertSolar2Lunar(solar[0], solar[1], solar[2], 7.0);
+            String chi = LunarCoreHelper.getChiDayLunar(solar[0], solar[1], solar[2]);
+            assertEquals(lunar[0], index.getLunarDay(jd));
+            assertEquals(lunar[1], index.getLunarMonth(jd));
+            assertEquals(lunar[3], index.getLeap(jd));
+            assertEquals(LunarCoreHelper.getCanDayLunar(solar[0], solar[1], solar[2]), CAN[index.getStem(jd)]);
+            assertEquals(chi, CHI[index.getBranch(jd)]);
+            assertEquals(LunarCoreHelper.rateDay(chi, lunar[1]), index.getRating(jd).getLabel());
+        }
+    }
+
+    @Test
+    public void find_sameAsScan() {
+        LunarDayIndex index = LunarCalendar.forOffset(7.0).dayIndex(1, 1, 2023, 31, 12, 2025);
+        Random random = new Random(42);
+        int[] found = new int[1200];
+        for (int i = 0; i < 200; i++) {
+            LunarDayIndex.Filter filter = new LunarDayIndex.Filter();
+            int[] lunarDays = null;
+            int[] branches = null;
+            int[] stems = null;
+            int[] lunarMonths = null;
+            DayRating[] ratings = null;
+            int leap = -1;
+            if (random.nextBoolean()) {
+                ratings = new DayRating[] { DayRating.values()[random.nextInt(3)] };
+                filter.ratings(ratings);
+            }
+            if (random.nextBoolean()) {
+                branches = new int[] { random.nextInt(12), random.nextInt(12) };
+                filter.branches(branches);
+            }
+            if (random.nextInt(3) == 0) {
+                stems = new int[] { random.nextInt(10) };
+                filter.stems(stems);
+            }
+            if (random.nextInt(3) == 0) {
+                lunarDays = new int[] { 1, 15, 1 + random.nextInt(30) };
+                filter.lunarDays(lunarDays);
+            }
+            if (random.nextInt(3) == 0) {
+                lunarMonths = new int[] { 2, 1 + random.nextInt(12) };
+                filter.lunarMonths(lunarMonths);
+            }
+            if (random.nextInt(4) == 0) {
+                leap = random.nextInt(2);
+                filter.leapMonth(leap == 1);
+            }
+            int from = index.getStartJulianDay() + random.nextInt(500);
+            int to = from + random.nextInt(index.getStartJulianDay() + index.getLength() - from);
+            int[] f = LunarCoreHelper.jdToDate(from);
+            int[] t = LunarCoreHelper.jdToDate(to);
+
+            int expected = 0;
+            int[] expectedDays = new int[found.length];
+            for (int jd = from; jd <= to; jd++) {
+                if ((ratings == null || ratings[0] == index.getRating(jd))
+                        && (branches == null || contains(branches, index.getBranch(jd)))
+                        && (stems == null || contains(stems, index.getStem(jd)))
+                        && (lunarDays == null || contains(lunarDays, index.getLunarDay(jd)))
+                        && (lunarMonths == null || contains(lunarMonths, index.getLunarMonth(jd)))
+                        && (leap == -1 || leap == index.getLeap(jd))) {
+                    expectedDays[expected++] = jd;
+                }
+            }
+            assertEquals(expected, index.count(filter, f[0], f[1], f[2], t[0], t[1], t[2]));
+            assertEquals(expected, index.find(filter, f[0], f[1], f[2], t[0], t[1], t[2], found));
+            assertArrayEquals(Arrays.copyOf(expectedDays, expected), Arrays.copyOf(found, expected));
+        }
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void find_goodTigerDays() {
+        LunarDayIndex index = LunarDayIndex.build(1, 1, 2024, 31, 12, 2024, 7.0);
+        LunarDayIndex.Filter goodDan = new LunarDayIndex.Filter().ratings(DayRating.GOOD).branches(2);
+        int[] julianDays = new int[2];
+        int count = index.find(goodDan, 1, 1, 2024, 31, 12, 2024, julianDays);
+        // The old way: every day through the String methods
+        int expected = 0;
+        for (int jd = LunarCoreHelper.jdFromDate(1, 1, 2024); jd <= LunarCoreHelper.jdFromDate(31, 12, 2024); jd++) {
+            int[] solar = LunarCoreHelper.jdToDate(jd);
+            String chi = LunarCoreHelper.getChiDayLunar(solar[0], solar[1], solar[2]);
+            int lunarMonth = LunarCoreHelper.convertSolar2Lunar(solar[0], solar[1], solar[2], 7.0)[1];
+            if ("Dần".equals(chi) && "Good".equals(LunarCoreHelper.rateDay(chi, lunarMonth))) {
+                expected++;
+            }
+        }
+        assertTrue(expected > 2);
+        assertEquals(expected, count);
+        for (int jd : julianDays) {
+            assertEquals(2, index.getBranch(jd));
+            assertEquals(DayRating.GOOD, index.getRating(jd));
+        }
+        assertTrue(julianDays[0] < julianDays[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void find_outsideIndex() {
+        LunarDayIndex index = LunarDayIndex.build(1, 1, 2024, 31, 12, 2024, 7.0);
+        index.count(new LunarDayIndex.Filter(), 1, 12, 2024, 1, 1, 2025);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void filter_invalidBranch() {
+        new LunarDayIndex.Filter().branches(12);
+    }
+}
@@ -0,0 +1,88 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * The build runs the tests twice: with the metrics disabled (test, every count stays at 0),
+ * and with -Dlunarcore.metrics.latency=true (metricsTest), where the counting is tested.
+ */
+public class LunarMetricsTest {
+    private static final LunarMetrics.Counter[] COUNTERS = LunarMetrics.Counter.values();
+
+    private static long[] counts() {
+        long[] counts = new long[COUNTERS.length];
+        for (int i = 0; i < COUNTERS.length; i++) {
+            counts[i] = LunarMetrics.getCount(COUNTERS[i]);
+        }
+        return counts;
+    }
+
+    private static long delta(long[] before, LunarMetrics.Counter counter) {
+        return LunarMetrics.getCount(counter) - before[counter.ordinal()];
+    }
+
+    private static long latencyCount() {
+        long count = 0;
+        for (long bucket : LunarMetrics.getLatencyHistogram(LunarMetrics.Conversion.LUNAR_TO_SOLAR)) {
+            count += bucket;
+        }
+        return count;
+    }
+
+    @Test
+    public void counters() {
+        boolean enabled = LunarMetrics.isEnabled();
+        int on = enabled ? 1 : 0;
+        LunarYearCache cache = new LunarYearCache(16);
+
+        // 2023 has a leap month: month 11 of 2022 and 2023, then the leap month offset, all missing in the cache
+        long[] before = counts();
+        long latencies = latencyCount();
+        long date = LunarCoreHelper.computeLunar2SolarPacked(1, 5, 2023, 0, 7.0, cache);
+        assertEquals(LunarCoreHelper.packDate(18, 6, 2023, 0), date);
+        assertEquals(2 * on, delta(before, LunarMetrics.Counter.LUNAR_MONTH_11));
+        assertEquals(on, delta(before, LunarMetrics.Counter.LEAP_MONTH_OFFSET));
+        assertEquals(3 * on, delta(before, LunarMetrics.Counter.YEAR_CACHE_MISS));
+        assertEquals(0, delta(before, LunarMetrics.Counter.YEAR_CACHE_HIT));
+        assertEquals(enabled, delta(before, LunarMetrics.Counter.NEW_MOON) > 0);
+        assertEquals(enabled, delta(before, LunarMetrics.Counter.SUN_LONGITUDE) > 0);
+        assertEquals(LunarMetrics.isLatencyEnabled() ? 1 : 0, latencyCount() - latencies);
+
+        // Then the cache has everything, only the new moon of the month is computed
+        before = counts();
+        assertEquals(date, LunarCoreHelper.computeLunar2SolarPacked(1, 5, 2023, 0, 7.0, cache));
+        assertEquals(3 * on, delta(before, LunarMetrics.Counter.YEAR_CACHE_HIT));
+        assertEquals(0, delta(before, LunarMetrics.Counter.YEAR_CACHE_MISS));
+        assertEquals(0, delta(before, LunarMetrics.Counter.LUNAR_MONTH_11));
+        assertEquals(on, delta(before, LunarMetrics.Counter.NEW_MOON));
+        assertEquals(0, delta(before, LunarMetrics.Counter.SUN_LONGITUDE));
+
+        LunarYearTable table = LunarYearTable.build(2023, 2023, 7.0);
+        before = counts();
+        assertEquals(date, table.convertLunar2SolarPacked(1, 5, 2023, 0));
+        assertEquals(on, delta(before, LunarMetrics.Counter.TABLE_LOOKUP));
+        assertEquals(0, delta(before, LunarMetrics.Counter.NEW_MOON));
+    }
+
+    @Test
+    public void export() {
+        LunarCoreHelper.computeSolar2LunarPacked(LunarCoreHelper.jdFromDate(10, 2, 2024), 2024, 7.0,
+                new LunarYearCache(16));
+        String metrics = LunarMetrics.export();
+        assertTrue(metrics.startsWith("# TYPE lunarcore_calls_total counter\n"));
+        assertTrue(metrics.contains("lunarcore_calls_total{step=\"new_moon\"} "
+                + LunarMetrics.getCount(LunarMetrics.Counter.NEW_MOON) + "\n"));
+        assertEquals(LunarMetrics.isLatencyEnabled(),
+                metrics.contains("lunarcore_conversion_latency_nanoseconds_bucket{conversion=\"solar_to_lunar\",le=\"+Inf\"} "));
+        if (LunarMetrics.isLatencyEnabled()) {
+            long p50 = LunarMetrics.getLatencyPercentile(LunarMetrics.Conversion.SOLAR_TO_LUNAR, 50);
+            long p99 = LunarMetrics.getLatencyPercentile(LunarMetrics.Conversion.SOLAR_TO_LUNAR, 99);
+            assertTrue(p50 > 0 && p50 <= p99);
+            assertTrue(LunarMetrics.getLatencyTotalNanos(LunarMetrics.Conversion.SOLAR_TO_LUNAR) > 0);
+        } else {
+            assertEquals(0, LunarMetrics.getLatencyPercentile(LunarMetrics.Conversion.SOLAR_TO_LUNAR, 50));
+        }
+    }
+}
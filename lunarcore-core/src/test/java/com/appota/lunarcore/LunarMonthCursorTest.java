@@ -0,0 +1,125 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LunarMonthCursorTest {
+
+    private static void assertMonth(LunarMonthCursor cursor, double timeZone) {
+        int[] first = LunarCoreHelper.jdToDate(cursor.getStartJulianDay());
+        long lunar = LunarCoreHelper.convertSolar2LunarPacked(first[0], first[1], first[2], timeZone);
+        assertEquals(cursor.toString(), lunar, cursor.getLunarDatePacked(1));
+        int[] last = LunarCoreHelper.jdToDate(cursor.getStartJulianDay() + cursor.getLength() - 1);
+        assertEquals(cursor.toString(), cursor.getLunarDatePacked(cursor.getLength()),
+                LunarCoreHelper.convertSolar2LunarPacked(last[0], last[1], last[2], timeZone));
+        assertEquals(LunarCoreHelper.convertLunar2SolarPacked(15, cursor.getMonth(), cursor.getYear(),
+                cursor.getLeap(), timeZone), cursor.getSolarDatePacked(15));
+    }
+
+    @Test
+    public void walk_sameAsHelper() {
+        for (double timeZone : new double[] { 7.0, 8.0 }) {
+            LunarMonthCursor cursor = LunarMonthCursor.at(1, 1, 1800, timeZone);
+            List<Integer> starts = new ArrayList<>();
+            int leapMonths = 0;
+            while (cursor.getYear() < 2200) {
+                assertMonth(cursor, timeZone);
+                starts.add(cursor.getStartJulianDay());
+                leapMonths += cursor.getLeap();
+                int end = cursor.getStartJulianDay() + cursor.getLength();
+                assertEquals(end, cursor.next().getStartJulianDay());
+            }
+            // 7 leap months every 19 years
+            assertEquals(400 * 7 / 19, leapMonths, 1);
+            for (int i = starts.size() - 1; i >= 0; i--) {
+                assertEquals((int) starts.get(i), cursor.previous().getStartJulianDay());
+                assertMonth(cursor, timeZone);
+            }
+        }
+    }
+
+    @Test
+    public void moveTo() {
+        LunarMonthCursor cursor = LunarMonthCursor.of(2, 2023, 1, 7.0);
+        assertTrue(cursor.isLeapMonth());
+        assertEquals(LunarCoreHelper.packDate(22, 3, 2023, 0), cursor.getSolarDatePacked(1));
+        assertEquals(3, cursor.next().getMonth());
+        assertEquals(0, cursor.getLeap());
+        assertEquals(2, cursor.previous().previous().getMonth());
+        assertEquals(0, cursor.getLeap());
+
+        cursor.moveToSolarDate(10, 2, 2024);
+        assertEquals(LunarCoreHelper.packDate(1, 1, 2024, 0), cursor.getLunarDatePacked(1));
+        assertEquals(0, cursor.getSolarDatePacked(31));
+        cursor.moveToSolarDate(9, 2, 2024);
+        assertEquals(12, cursor.getMonth());
+        assertEquals(2023, cursor.getYear());
+        assertEquals(30, cursor.getLength());
+
+        LunarMonthCursor calendarCursor = LunarCalendar.forOffset(7.0).monthCursorOf(1, 2024, 0);
+        assertEquals(cursor.moveToLunarMonth(1, 2024, 0).getStartJulianDay(), calendarCursor.getStartJulianDay());
+    }
+
+    @Test
+    public void moveTo_invalidLeap() {
+        // Same check as convertLunar2Solar, and a leap month of a year without one is also rejected
+        for (int[] month : new int[][] { { 3, 2023, 1 }, { 2, 2024, 1 }, { 13, 2024, 0 } }) {
+            try {
+                LunarMonthCursor.of(month[0], month[1], month[2], 7.0);
+                fail(month[0] + "/" + month[1]);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void nextOccurrence_tet() {
+        LunarMonthCursor cursor = LunarCalendar.forOffset(7.0).monthCursorAt(1, 1, 1900);
+        for (int year = 1900; year <= 2100; year++) {
+            assertEquals(LunarCoreHelper.convertLunar2SolarPacked(1, 1, year, 0, 7.0), cursor.nextOccurrence(1, 1));
+        }
+    }
+
+    @Test
+    public void nextLunarDate_sameAsScan() {
+        Random random = new Random(42);
+        int[][] lunarDates = { { 1, 1 }, { 15, 8 }, { 30, 12 }, { 30, 4 }, { 10, 3 } };
+        for (int i = 0; i < 300; i++) {
+            int jd = LunarCoreHelper.jdFromDate(1, 1, 1950) + random.nextInt(36500);
+            int[] from = LunarCoreHelper.jdToDate(jd);
+            int[] lunar = lunarDates[i % lunarDates.length];
+            int expected = jd;
+            while (true) {
+                int[] solar = LunarCoreHelper.jdToDate(expected);
+                long date = LunarCoreHelper.convertSolar2LunarPacked(solar[0], solar[1], solar[2], 7.0);
+                if (LunarCoreHelper.unpackDay(date) == lunar[0] && LunarCoreHelper.unpackMonth(date) == lunar[1]
+                        && LunarCoreHelper.unpackLeap(date) == 0) {
+                    break;
+                }
+                expected++;
+            }
+            assertEquals(LunarCoreHelper.jdToDatePacked(expected),
+                    LunarCoreHelper.nextLunarDate(lunar[0], lunar[1], from[0], from[1], from[2], 7.0));
+        }
+    }
+
+    @Test
+    public void oneNewMoonPerMonth() {
+        LunarMonthCursor cursor = LunarMonthCursor.at(1, 1, 2000, 9.0);
+        for (int i = 0; i < 120; i++) {
+            cursor.next();
+        }
+        // The months 11 and leap months are in the cache now
+        long before = LunarMetrics.getCount(LunarMetrics.Counter.NEW_MOON);
+        for (int i = 0; i < 120; i++) {
+            cursor.previous();
+        }
+        assertEquals(LunarMetrics.isEnabled() ? 120 : 0, LunarMetrics.getCount(LunarMetrics.Counter.NEW_MOON) - before);
+    }
+}
@@ -0,0 +1,159 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LunarRecurrenceExpanderTest {
+    private static final int EVERY_MONTH = LunarRecurrenceExpander.EVERY_MONTH;
+
+    /**
+     * Scan the window day by day, and match each day with each rule
+     */
+    private static List<long[]> scan(int[] days, int[] months, LunarRecurrenceExpander expander, int from, int to,
+                                     double timeZone) {
+        List<long[]> occurrences = new ArrayList<>();
+        for (int jd = from; jd <= to; jd++) {
+            int[] solar = LunarCoreHelper.jdToDate(jd);
+            long lunar = LunarCoreHelper.convertSolar2LunarPacked(solar[0], solar[1], solar[2], timeZone);
+            int[] tomorrow = LunarCoreHelper.jdToDate(jd + 1);
+            boolean lastDay = LunarCoreHelper.unpackDay(
+                    LunarCoreHelper.convertSolar2LunarPacked(tomorrow[0], tomorrow[1], tomorrow[2], timeZone)) == 1;
+            int day = LunarCoreHelper.unpackDay(lunar);
+            int month = LunarCoreHelper.unpackMonth(lunar);
+            boolean leap = LunarCoreHelper.unpackLeap(lunar) == 1;
+            for (int rule = 0; rule < days.length; rule++) {
+                boolean monthMatches = months[rule] == EVERY_MONTH || months[rule] == month
+                        && (!leap || expander.getLeapMonthPolicy() == LunarRecurrenceExpander.LeapMonthPolicy.BOTH_MONTHS);
+                boolean dayMatches = days[rule] == day || lastDay && days[rule] > day
+                        && expander.getShortMonthPolicy() == LunarRecurrenceExpander.ShortMonthPolicy.LAST_DAY;
+                if (monthMatches && dayMatches) {
+                    occurrences.add(new long[] { jd, days[rule], rule, lunar });
+                }
+            }
+        }
+        Collections.sort(occurrences, new Comparator<long[]>() {
+            @Override
+            public int compare(long[] a, long[] b) {
+                for (int i = 0; i < 3; i++) {
+                    if (a[i] != b[i]) {
+                        return a[i] < b[i] ? -1 : 1;
+                    }
+                }
+                return 0;
+            }
+        });
+        return occurrences;
+    }
+
+    @Test
+    public void expand_sameAsScan() {
+        Random random = new Random(42);
+        int[] days = new int[300];
+        int[] months = new int[days.length];
+        for (int i = 0; i < days.length; i++) {
+            // Many 29th and 30th, and a few rules of every month
+            days[i] = random.nextBoolean() ? 28 + random.nextInt(3) : 1 + random.nextInt(30);
+            months[i] = random.nextInt(10) == 0 ? EVERY_MONTH : 1 + random.nextInt(12);
+        }
+        LunarOccurrences out = new LunarOccurrences(1);
+        for (LunarRecurrenceExpander.LeapMonthPolicy leapPolicy : LunarRecurrenceExpander.LeapMonthPolicy.values()) {
+            for (LunarRecurrenceExpander.ShortMonthPolicy shortPolicy : LunarRecurrenceExpander.ShortMonthPolicy.values()) {
+                LunarRecurrenceExpander expander = new LunarRecurrenceExpander(days, months, leapPolicy, shortPolicy);
+                // 2023 has a leap month 2, 2025 a leap month 6
+                for (int[] window : new int[][] { { 1, 1, 2023, 31, 12, 2023 }, { 17, 3, 2022, 2, 9, 2025 },
+                        { 5, 4, 2023, 5, 4, 2023 } }) {
+                    int from = LunarCoreHelper.jdFromDate(window[0], window[1], window[2]);
+                    int to = LunarCoreHelper.jdFromDate(window[3], window[4], window[5]);
+                    List<long[]> expected = scan(days, months, expander, from, to, 7.0);
+                    expander.expand(window[0], window[1], window[2], window[3], window[4], window[5], 7.0, out);
+                    String message = leapPolicy + " " + shortPolicy + " from " + from;
+                    assertEquals(message, expected.size(), out.getCount());
+                    for (int i = 0; i < expected.size(); i++) {
+                        long[] occurrence = expected.get(i);
+                        assertEquals(message, occurrence[0], out.getJulianDays()[i]);
+                        assertEquals(message, occurrence[2], out.getRules()[i]);
+                        assertEquals(message, occurrence[3], out.getLunarDates()[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void leapMonthPolicy() {
+        int[] days = { 15 };
+        int[] months = { 2 };
+        LunarOccurrences out = new LunarOccurrences();
+        new LunarRecurrenceExpander(days, months, LunarRecurrenceExpander.LeapMonthPolicy.NORMAL_MONTH_ONLY,
+                LunarRecurrenceExpander.ShortMonthPolicy.SKIP).expand(1, 1, 2023, 31, 12, 2023, 7.0, out);
+        assertEquals(1, out.getCount());
+        assertEquals(LunarCoreHelper.convertLunar2SolarPacked(15, 2, 2023, 0, 7.0), out.getSolarDatePacked(0));
+
+        new LunarRecurrenceExpander(days, months, LunarRecurrenceExpander.LeapMonthPolicy.BOTH_MONTHS,
+                LunarRecurrenceExpander.ShortMonthPolicy.SKIP).expand(1, 1, 2023, 31, 12, 2023, 7.0, out);
+        assertEquals(2, out.getCount());
+        assertEquals(LunarCoreHelper.convertLunar2SolarPacked(15, 2, 2023, 0, 7.0), out.getSolarDatePacked(0));
+        assertEquals(LunarCoreHelper.convertLunar2SolarPacked(15, 2, 2023, 1, 7.0), out.getSolarDatePacked(1));
+        assertEquals(LunarCoreHelper.packDate(15, 2, 2023, 1), out.getLunarDates()[1]);
+    }
+
+    @Test
+    public void shortMonthPolicy() {
+        int[] days = { 30, 1 };
+        int[] months = { EVERY_MONTH, EVERY_MONTH };
+        int fullMonths = 0;
+        int months2024 = 0;
+        LunarMonthCursor cursor = LunarMonthCursor.of(1, 2024, 0, 7.0);
+        while (cursor.getYear() == 2024) {
+            fullMonths += cursor.getLength() == 30 ? 1 : 0;
+            months2024++;
+            cursor.next();
+        }
+        long from = LunarCoreHelper.convertLunar2SolarPacked(1, 1, 2024, 0, 7.0);
+        long to = LunarCoreHelper.convertLunar2SolarPacked(1, 1, 2025, 0, 7.0);
+        LunarOccurrences out = new LunarOccurrences();
+
+        LunarRecurrenceExpander skip = new LunarRecurrenceExpander(days, months,
+                LunarRecurrenceExpander.LeapMonthPolicy.NORMAL_MONTH_ONLY, LunarRecurrenceExpander.ShortMonthPolicy.SKIP);
+        skip.expand(LunarCoreHelper.unpackDay(from), LunarCoreHelper.unpackMonth(from), LunarCoreHelper.unpackYear(from),
+                LunarCoreHelper.unpackDay(to) - 1, LunarCoreHelper.unpackMonth(to), LunarCoreHelper.unpackYear(to), 7.0, out);
+        assertEquals(months2024 + fullMonths, out.getCount());
+
+        LunarRecurrenceExpander lastDay = new LunarRecurrenceExpander(days, months,
+                LunarRecurrenceExpander.LeapMonthPolicy.NORMAL_MONTH_ONLY, LunarRecurrenceExpander.ShortMonthPolicy.LAST_DAY);
+        LunarCalendar.forOffset(7.0).expand(lastDay, LunarCoreHelper.unpackDay(from), LunarCoreHelper.unpackMonth(from),
+                LunarCoreHelper.unpackYear(from), LunarCoreHelper.unpackDay(to) - 1, LunarCoreHelper.unpackMonth(to),
+                LunarCoreHelper.unpackYear(to), out);
+        assertEquals(2 * months2024, out.getCount());
+        int end = LunarCoreHelper.jdFromDate(LunarCoreHelper.unpackDay(to), LunarCoreHelper.unpackMonth(to),
+                LunarCoreHelper.unpackYear(to));
+        for (int i = 0; i < out.getCount(); i += 2) {
+            // The 1st, then the 30th or 29th: the last day of the month
+            assertEquals(1, out.getRules()[i]);
+            assertEquals(0, out.getRules()[i + 1]);
+            int next = i + 2 < out.getCount() ? out.getJulianDays()[i + 2] : end;
+            assertEquals(next - 1, out.getJulianDays()[i + 1]);
+        }
+    }
+
+    @Test
+    public void invalidRules() {
+        for (int[] rule : new int[][] { { 0, 1 }, { 31, 1 }, { 1, 13 }, { 1, -1 } }) {
+            try {
+                new LunarRecurrenceExpander(new int[] { rule[0] }, new int[] { rule[1] },
+                        LunarRecurrenceExpander.LeapMonthPolicy.NORMAL_MONTH_ONLY,
+                        LunarRecurrenceExpander.ShortMonthPolicy.SKIP);
+                fail(rule[0] + "/" + rule[1]);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class LunarTableFileTest {
+    @Test
+    public void buildParallel_sameAsSequential() {
+        assertEquals(LunarYearTable.build(1900, 2100, 7.0), LunarTableBuilder.buildParallel(1900, 2100, 7.0));
+        assertEquals(LunarYearTable.build(2000, 2001, 8.0), LunarTableBuilder.buildParallel(2000, 2001, 8.0));
+    }
+
+    @Test
+    public void writeAndRead() throws IOException {
+        LunarYearTable table = LunarYearTable.build(1990, 2030, 7.0);
+        byte[] bytes = LunarTableFile.toBytes(table);
+        assertEquals(LunarTableFile.HEADER_SIZE + 42 * 8, bytes.length);
+        // Reproducible: same table, same bytes
+        assertArrayEquals(bytes, LunarTableFile.toBytes(LunarTableBuilder.buildParallel(1990, 2030, 7.0)));
+
+        LunarYearTable read = LunarTableFile.read(new ByteArrayInputStream(bytes));
+        assertEquals(table, read);
+        assertArrayEquals(LunarCoreHelper.convertSolar2Lunar(10, 2, 2024, 7.0), read.convertSolar2Lunar(10, 2, 2024));
+    }
+
+    @Test(expected = IOException.class)
+    public void read_corrupted() throws IOException {
+        byte[] bytes = LunarTableFile.toBytes(LunarYearTable.build(2000, 2010, 7.0));
+        bytes[LunarTableFile.HEADER_SIZE + 3] ^= 1;
+        LunarTableFile.read(ByteBuffer.wrap(bytes));
+    }
+
+    @Test
+    public void map_andUseFromHelper() throws IOException {
+        LunarYearTable table = LunarYearTable.build(1950, 2050, 7.0);
+        File file = File.createTempFile("lunar", ".bin");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            LunarTableFile.write(table, out);
+        } finally {
+            out.close();
+        }
+
+        LunarYearTable mapped = LunarTableFile.map(file);
+        assertEquals(table, mapped);
+        int[] expected = LunarCoreHelper.convertSolar2Lunar(10, 2, 2024, 7.0);
+        LunarCoreHelper.setTable(mapped);
+        try {
+            assertArrayEquals(expected, LunarCoreHelper.convertSolar2Lunar(10, 2, 2024, 7.0));
+            assertArrayEquals(new int[] { 10, 2, 2024 }, LunarCoreHelper.convertLunar2Solar(1, 1, 2024, 0, 7.0));
+            // Outside of the file range, or another time zone: computed as before
+            assertArrayEquals(new int[] { 1, 1, 1900, 0 }, LunarCoreHelper.convertSolar2Lunar(31, 1, 1900, 7.0));
+            assertArrayEquals(new int[] { 1, 1, 2024, 0 }, LunarCoreHelper.convertSolar2Lunar(10, 2, 2024, 8.0));
+        } finally {
+            LunarCoreHelper.setTable(null);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class LunarYearCacheTest {
+    @Test
+    public void sameAsComputed() {
+        LunarYearCache cache = new LunarYearCache(64);
+        for (int pass = 0; pass < 2; pass++) {
+            for (int year = 1800; year <= 2200; year++) {
+                int a11 = LunarCoreHelper.getLunarMonth11(year, 7.0, AstroKernel.REFERENCE);
+                assertEquals(a11, cache.getLunarMonth11(year, 7.0));
+                assertEquals(LunarCoreHelper.getLeapMonthOffset(a11, 7.0, AstroKernel.REFERENCE),
+                        cache.getLeapMonthOffset(year, 7.0));
+            }
+        }
+    }
+
+    @Test
+    public void hitsAndMisses() {
+        LunarYearCache cache = new LunarYearCache(16);
+        assertEquals(16, cache.getCapacity());
+        cache.getLunarMonth11(2024, 7.0);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        cache.getLunarMonth11(2024, 7.0);
+        // Month 11 known, leap month not yet
+        cache.getLeapMonthOffset(2024, 7.0);
+        cache.getLeapMonthOffset(2024, 7.0);
+        // Other time zone, other key
+        cache.getLunarMonth11(2024, 8.0);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+
+        cache.clear();
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+        cache.getLunarMonth11(2024, 7.0);
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void eviction() {
+        LunarYearCache cache = new LunarYearCache(4);
+        assertEquals(4, cache.getCapacity());
+        for (int year = 1900; year < 2000; year++) {
+            cache.getLunarMonth11(year, 7.0);
+        }
+        assertEquals(100, cache.getMissCount());
+        // At most 4 years are left, and the evicted ones are computed again
+        for (int year = 1900; year < 2000; year++) {
+            assertEquals(LunarCoreHelper.getLunarMonth11(year, 7.0, AstroKernel.REFERENCE),
+                    cache.getLunarMonth11(year, 7.0));
+        }
+        assertTrue(cache.getHitCount() <= 4);
+        assertTrue(cache.getMissCount() >= 196);
+    }
+
+    @Test
+    public void notCached() {
+        LunarYearCache cache = new LunarYearCache(16);
+        // Not a multiple of 15 minutes: always computed
+        for (int i = 0; i < 3; i++) {
+            assertEquals(LunarCoreHelper.getLunarMonth11(2024, 7.1, AstroKernel.REFERENCE),
+                    cache.getLunarMonth11(2024, 7.1));
+        }
+        assertEquals(0, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void getPeriod_countedOnce() {
+        LunarYearCache cache = new LunarYearCache(16);
+        // 2023 has a leap month: month 11 of 2022 and 2023, and the leap month, are computed for one miss
+        long entry = cache.getPeriod(2022, 7.0);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(entry, cache.getPeriod(2022, 7.0));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        // The values it was made of are cached, and counted when looked up themselves
+        assertEquals(LunarYearTable.startOf(entry), cache.getLunarMonth11(2022, 7.0));
+        assertEquals(LunarYearTable.leapOffsetOf(entry), cache.getLeapMonthOffset(2022, 7.0));
+        assertEquals(3, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCapacity() {
+        new LunarYearCache(0);
+    }
+
+    @Test
+    public void concurrent_countsEveryLookup() throws Exception {
+        final LunarYearCache cache = new LunarYearCache(512);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        int sum = 0;
+                        for (int year = 1900; year < 2100; year++) {
+                            sum += cache.getLunarMonth11(year, 7.0);
+                        }
+                        return sum;
+                    }
+                }));
+            }
+            int expected = 0;
+            for (int year = 1900; year < 2100; year++) {
+                expected += LunarCoreHelper.getLunarMonth11(year, 7.0, AstroKernel.REFERENCE);
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(expected, (int) result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(16 * 200, cache.getHitCount() + cache.getMissCount());
+        assertTrue(cache.getMissCount() >= 200);
+    }
+}
@@ -0,0 +1,68 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LunarYearTableTest {
+
+    @Test
+    public void everyDay_sameAsAstronomical() {
+        for (double timeZone : new double[] { 7.0, 8.0 }) {
+            LunarYearTable table = LunarYearTable.build(1800, 2200, timeZone);
+            LunarYearCache cache = new LunarYearCache(64);
+            int from = LunarCoreHelper.jdFromDate(1, 1, 1800);
+            int to = LunarCoreHelper.jdFromDate(31, 12, 2200);
+            for (int jd = from; jd <= to; jd++) {
+                int[] solar = LunarCoreHelper.jdToDate(jd);
+                long lunar = LunarCoreHelper.computeSolar2LunarPacked(jd, solar[2], timeZone, cache);
+                assertEquals(solar[0] + "/" + solar[1] + "/" + solar[2], lunar,
+                        table.convertSolar2LunarPacked(solar[0], solar[1], solar[2]));
+                assertTrue(LunarCoreHelper.unpackDay(lunar) >= 1);
+
+                int lunarDay = LunarCoreHelper.unpackDay(lunar);
+                int lunarMonth = LunarCoreHelper.unpackMonth(lunar);
+                int lunarYear = LunarCoreHelper.unpackYear(lunar);
+                int lunarLeap = LunarCoreHelper.unpackLeap(lunar);
+                assertEquals(jd, LunarCoreHelper.computeLunar2JulianDay(lunarDay, lunarMonth, lunarYear, lunarLeap,
+                        timeZone, cache));
+                assertEquals(jd, table.convertLunar2JulianDay(lunarDay, lunarMonth, lunarYear, lunarLeap));
+            }
+        }
+    }
+
+    @Test
+    public void dayBeforeNewMoon_isThe30th() {
+        // The first guess of the month was one new moon ahead on these days, and gave a lunar day 0
+        assertArrayEquals(new int[] { 30, 2, 1877, 0 }, LunarCoreHelper.convertSolar2Lunar(13, 4, 1877, 7.0));
+        assertArrayEquals(new int[] { 1, 3, 1877, 0 }, LunarCoreHelper.convertSolar2Lunar(14, 4, 1877, 7.0));
+        assertArrayEquals(new int[] { 30, 3, 2054, 0 }, LunarCoreHelper.convertSolar2Lunar(7, 5, 2054, 7.0));
+        assertArrayEquals(new int[] { 30, 12, 1892, 0 }, LunarCoreHelper.convertSolar2Lunar(16, 2, 1893, 8.0));
+        assertArrayEquals(new int[] { 13, 4, 1877 }, LunarCoreHelper.convertLunar2Solar(30, 2, 1877, 0, 7.0));
+    }
+
+    @Test
+    public void invalidLeapMonth_sameAsAstronomical() {
+        LunarYearTable table = LunarYearTable.build(2000, 2050, 7.0);
+        // 2023 has a leap month 2, not 3: both paths return 0
+        assertEquals(0, table.convertLunar2JulianDay(1, 3, 2023, 1));
+        assertEquals(0, LunarCoreHelper.computeLunar2JulianDay(1, 3, 2023, 1, 7.0));
+        assertEquals(0, table.convertLunar2SolarPacked(1, 3, 2023, 1));
+        assertEquals(LunarCoreHelper.computeLunar2JulianDay(1, 2, 2023, 1, 7.0),
+                table.convertLunar2JulianDay(1, 2, 2023, 1));
+    }
+
+    @Test
+    public void outsideRange_fallsBack() {
+        LunarYearTable table = LunarYearTable.build(2000, 2010, 7.0);
+        assertFalse(table.covers(1990));
+        assertArrayEquals(LunarCoreHelper.convertSolar2Lunar(10, 2, 1990, 7.0), table.convertSolar2Lunar(10, 2, 1990));
+        assertArrayEquals(LunarCoreHelper.convertLunar2Solar(1, 1, 2050, 0, 7.0),
+                table.convertLunar2Solar(1, 1, 2050, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void build_invalidRange() {
+        LunarYearTable.build(2000, 1999, 7.0);
+    }
+}
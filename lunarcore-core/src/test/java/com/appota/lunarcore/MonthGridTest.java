@@ -0,0 +1,56 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.*;
+
+public class MonthGridTest {
+    @Test
+    public void firstCell() {
+        // 1/2/2024 is a Thursday
+        MonthGrid grid = LunarCoreHelper.monthGrid(2024, 2, 7.0);
+        assertEquals(3, grid.getFirstCell());
+        assertEquals(29, grid.getDaysInMonth());
+        assertFalse(grid.isInMonth(2));
+        assertTrue(grid.isInMonth(3));
+        assertTrue(grid.isInMonth(31));
+        assertFalse(grid.isInMonth(32));
+        assertEquals(29, grid.getSolarDays()[0]);
+        assertEquals(1, grid.getSolarMonths()[0]);
+
+        grid.fill(2024, 2, Calendar.SUNDAY, 7.0);
+        assertEquals(4, grid.getFirstCell());
+        // 1/9/2024 is a Sunday
+        grid.fill(2024, 9, Calendar.SUNDAY, 7.0);
+        assertEquals(0, grid.getFirstCell());
+    }
+
+    @Test
+    public void sameAsPerDayMethods() {
+        MonthGrid grid = new MonthGrid();
+        for (double timeZone : new double[] { 7.0, 8.0 }) {
+            for (int year = 1995; year <= 2025; year++) {
+                for (int month = 1; month <= 12; month++) {
+                    LunarCalendar.forOffset(timeZone).monthGrid(year, month, Calendar.MONDAY, grid);
+                    for (int cell = 0; cell < MonthGrid.CELLS; cell++) {
+                        int day = grid.getSolarDays()[cell];
+                        int m = grid.getSolarMonths()[cell];
+                        int y = grid.getSolarYears()[cell];
+                        assertEquals(LunarCoreHelper.jdFromDate(day, m, y), grid.getJulianDays()[cell]);
+                        int[] lunar = LunarCoreHelper.convertSolar2Lunar(day, m, y, timeZone);
+                        assertEquals(lunar[0], grid.getLunarDays()[cell]);
+                        assertEquals(lunar[1], grid.getLunarMonths()[cell]);
+                        assertEquals(lunar[2], grid.getLunarYears()[cell]);
+                        assertEquals(lunar[3], grid.getLeaps()[cell]);
+                        assertEquals(LunarCoreHelper.getCanDayLunar(day, m, y), LunarCoreHelper.CAN[grid.getStems()[cell]]);
+                        String chi = LunarCoreHelper.getChiDayLunar(day, m, y);
+                        assertEquals(chi, LunarCoreHelper.CHI[grid.getBranches()[cell]]);
+                        assertEquals(LunarCoreHelper.rateDay(chi, lunar[1]), grid.getRating(cell).getLabel());
+                    }
+                }
+            }
+        }
+    }
+}
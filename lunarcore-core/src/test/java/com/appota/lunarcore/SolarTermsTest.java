@@ -0,0 +1,60 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SolarTermsTest {
+    @Test
+    public void termDates2024() {
+        // Tiểu hàn 6/1, Lập xuân 4/2, Xuân phân 20/3, Hạ chí 21/6, Đông chí 21/12 (UTC+7)
+        assertArrayEquals(new int[] { 6, 1, 2024 }, SolarTerms.getTermDate(2024, 0, 7.0));
+        assertArrayEquals(new int[] { 4, 2, 2024 }, SolarTerms.getTermDate(2024, 2, 7.0));
+        assertArrayEquals(new int[] { 20, 3, 2024 }, SolarTerms.getTermDate(2024, 5, 7.0));
+        assertArrayEquals(new int[] { 21, 6, 2024 }, SolarTerms.getTermDate(2024, 11, 7.0));
+        assertArrayEquals(new int[] { 21, 12, 2024 }, SolarTerms.getTermDate(2024, 23, 7.0));
+        assertEquals("Xuân phân", SolarTerms.getName(5));
+        assertEquals("冬至", SolarTerms.getChineseName(23));
+    }
+
+    @Test
+    public void termDays_sameAsDailyScan() {
+        for (double timeZone : new double[] { 7.0, 8.0 }) {
+            int[] termDays = new int[SolarTerms.COUNT];
+            for (int year = 1800; year <= 2200; year++) {
+                SolarTerms.getTermDays(year, timeZone, termDays);
+                // The day of a term is the local day during which the sun longitude reaches it
+                int[] expected = new int[SolarTerms.COUNT];
+                int from = LunarCoreHelper.jdFromDate(1, 1, year);
+                int to = LunarCoreHelper.jdFromDate(31, 12, year);
+                int sector = sectorAtStartOf(from, timeZone);
+                for (int jd = from; jd <= to; jd++) {
+                    int next = sectorAtStartOf(jd + 1, timeZone);
+                    if (next != sector) {
+                        int term = (next * 15 - 285 + 360) % 360 / 15;
+                        assertEquals(year + " term " + term, 0, expected[term]);
+                        expected[term] = jd;
+                        sector = next;
+                    }
+                }
+                assertArrayEquals(year + " UTC+" + timeZone, expected, termDays);
+            }
+        }
+    }
+
+    /**
+     *
+     * @return the 15 degrees sector of the sun longitude at the local midnight starting this day
+     */
+    private static int sectorAtStartOf(int jd, double timeZone) {
+        return (int) Math.floor(LunarCoreHelper.SunLongitude(jd - 0.5 - timeZone / 24) / 15);
+    }
+
+    @Test
+    public void termDays_areInOrder() {
+        int[] days = SolarTerms.getTermDays(1900, 8.0);
+        for (int i = 1; i < SolarTerms.COUNT; i++) {
+            assertTrue(days[i] - days[i - 1] >= 14 && days[i] - days[i - 1] <= 16);
+        }
+    }
+}
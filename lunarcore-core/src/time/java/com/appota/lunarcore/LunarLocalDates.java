@@ -0,0 +1,100 @@
+package com.appota.lunarcore;
+
+import java.time.LocalDate;
+
+/**
+ * The conversions for java.time.LocalDate, through its epoch day: no day/month/year to split and rebuild,
+ * and no int[] or GregorianCalendar in between.
+ *
+ * LocalDate is proleptic Gregorian while LunarCoreHelper uses the Julian calendar before 15/10/1582,
+ * so before that the fields of a LocalDate differ from the (d, m, y) of the same day. The day itself,
+ * and so its lunar date, is the same.
+ *
+ * Needs Java 8 (Android API 26 or desugaring), so this class is not in the main jar but in the one
+ * with the "time" classifier.
+ */
+public final class LunarLocalDates {
+
+    private LunarLocalDates() {
+    }
+
+    /**
+     *
+     * @param date
+     * @param timeZone
+     * @return the lunar date packed in a long, same as LunarCoreHelper.convertSolar2LunarPacked
+     */
+    public static long toLunarPacked(LocalDate date, double timeZone) {
+        return LunarCoreHelper.convertEpochDay2LunarPacked(date.toEpochDay(), timeZone);
+    }
+
+    /**
+     *
+     * @param date
+     * @param calendar
+     * @return the lunar date packed in a long, same as LunarCalendar.convertSolar2LunarPacked
+     */
+    public static long toLunarPacked(LocalDate date, LunarCalendar calendar) {
+        return calendar.convertEpochDay2LunarPacked(date.toEpochDay());
+    }
+
+    /**
+     *
+     * @param date
+     * @param timeZone
+     * @return the lunar date of this day
+     */
+    public static LunarDate toLunarDate(LocalDate date, double timeZone) {
+        return LunarDate.fromEpochDay(date.toEpochDay(), timeZone);
+    }
+
+    /**
+     *
+     * @param lunarDate
+     * @param timeZone
+     * @return the solar date of this lunar date
+     * @throws IllegalArgumentException if the lunar date doesn't exist, see LunarDate.isValid
+     */
+    public static LocalDate toLocalDate(LunarDate lunarDate, double timeZone) {
+        return LocalDate.ofEpochDay(lunarDate.toEpochDay(timeZone));
+    }
+
+    /**
+     *
+     * @param lunarDay
+     * @param lunarMonth
+     * @param lunarYear
+     * @param lunarLeap
+     * @param timeZone
+     * @return the solar date, same day as LunarCoreHelper.convertLunar2Solar
+     * @throws IllegalArgumentException if the input is invalid (where convertLunar2Solar returns zeros)
+     */
+    public static LocalDate fromLunar(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap, double timeZone) {
+        return LocalDate.ofEpochDay(LunarCoreHelper.convertLunar2EpochDay(lunarDay, lunarMonth, lunarYear,
+                lunarLeap, timeZone));
+    }
+
+    /**
+     *
+     * @param lunarDay
+     * @param lunarMonth
+     * @param lunarYear
+     * @param lunarLeap
+     * @param calendar
+     * @return the solar date, same day as LunarCalendar.convertLunar2Solar
+     * @throws IllegalArgumentException if the input is invalid (where convertLunar2Solar returns zeros)
+     */
+    public static LocalDate fromLunar(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap,
+                                      LunarCalendar calendar) {
+        return LocalDate.ofEpochDay(calendar.convertLunar2EpochDay(lunarDay, lunarMonth, lunarYear, lunarLeap));
+    }
+
+    /**
+     *
+     * @param date
+     * @return Can-Chi index of the day, from 0 to 59, see CanChi
+     */
+    public static int canChiDayIndex(LocalDate date) {
+        return CanChi.epochDayIndex(date.toEpochDay());
+    }
+}
@@ -0,0 +1,49 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.*;
+
+public class LunarLocalDatesTest {
+
+    @Test
+    public void everyDay_sameAsHelper() {
+        LunarCalendar china = LunarCalendar.forOffset(8.0);
+        for (LocalDate date = LocalDate.of(1800, 1, 1); date.getYear() <= 2200; date = date.plusDays(1)) {
+            int d = date.getDayOfMonth();
+            int m = date.getMonthValue();
+            int y = date.getYear();
+            long lunar = LunarCoreHelper.convertSolar2LunarPacked(d, m, y, 7.0);
+            assertEquals(lunar, LunarLocalDates.toLunarPacked(date, 7.0));
+            assertEquals(LunarDate.fromPacked(lunar), LunarLocalDates.toLunarDate(date, 7.0));
+            assertEquals(date, LunarLocalDates.toLocalDate(LunarDate.fromPacked(lunar), 7.0));
+            assertEquals(date, LunarLocalDates.fromLunar(LunarCoreHelper.unpackDay(lunar),
+                    LunarCoreHelper.unpackMonth(lunar), LunarCoreHelper.unpackYear(lunar),
+                    LunarCoreHelper.unpackLeap(lunar), 7.0));
+            assertEquals(CanChi.dayIndex(d, m, y), LunarLocalDates.canChiDayIndex(date));
+
+            long chinese = china.convertSolar2LunarPacked(d, m, y);
+            assertEquals(chinese, LunarLocalDates.toLunarPacked(date, china));
+            assertEquals(date, LunarLocalDates.fromLunar(LunarCoreHelper.unpackDay(chinese),
+                    LunarCoreHelper.unpackMonth(chinese), LunarCoreHelper.unpackYear(chinese),
+                    LunarCoreHelper.unpackLeap(chinese), china));
+        }
+    }
+
+    @Test
+    public void canChi_sameAsStrings() {
+        LocalDate date = LocalDate.of(1996, 3, 1);
+        int index = LunarLocalDates.canChiDayIndex(date);
+        assertEquals(CanChi.fromCanChi(3, 9), index);
+        assertEquals(LunarCoreHelper.getCanDayLunar(1, 3, 1996) + " " + LunarCoreHelper.getChiDayLunar(1, 3, 1996),
+                CanChi.getName(index));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromLunar_invalidLeapMonth() {
+        // 2023 has a leap month 2, not 3
+        LunarLocalDates.fromLunar(1, 3, 2023, 1, 7.0);
+    }
+}
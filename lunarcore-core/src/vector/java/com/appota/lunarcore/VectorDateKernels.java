@@ -0,0 +1,90 @@
+package com.appota.lunarcore;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * DateKernels written with the jdk.incubator.vector API, so they use SIMD instructions
+ * whatever the JIT decides. Same results and same ranges as DateKernels, which also handles
+ * the last elements that don't fill a whole vector.
+ *
+ * Needs a JDK 16 or later, started with --add-modules jdk.incubator.vector.
+ * There is no vector jdToDates: it needs real integer divisions, which the API doesn't speed up.
+ */
+public final class VectorDateKernels {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int GREGORIAN_START = 2299161;
+
+    private VectorDateKernels() {
+    }
+
+    public static void jdFromDates(int[] days, int[] months, int[] years, int[] outJd, int offset, int length) {
+        int i = offset;
+        int bound = offset + SPECIES.loopBound(length);
+        for (; i < bound; i += SPECIES.length()) {
+            jdFromDates(days, months, years, i).intoArray(outJd, i);
+        }
+        DateKernels.jdFromDates(days, months, years, outJd, i, offset + length - i);
+    }
+
+    public static void dayCanChi(int[] jd, int[] outIndexes, int offset, int length) {
+        int i = offset;
+        int bound = offset + SPECIES.loopBound(length);
+        for (; i < bound; i += SPECIES.length()) {
+            mod60(IntVector.fromArray(SPECIES, jd, i).add(49)).intoArray(outIndexes, i);
+        }
+        DateKernels.dayCanChi(jd, outIndexes, i, offset + length - i);
+    }
+
+    public static void dayCanChi(int[] days, int[] months, int[] years, int[] outIndexes, int offset, int length) {
+        int i = offset;
+        int bound = offset + SPECIES.loopBound(length);
+        for (; i < bound; i += SPECIES.length()) {
+            mod60(jdFromDates(days, months, years, i).add(49)).intoArray(outIndexes, i);
+        }
+        DateKernels.dayCanChi(days, months, years, outIndexes, i, offset + length - i);
+    }
+
+    public static void stemsAndBranches(int[] indexes, int[] outStems, int[] outBranches, int offset, int length) {
+        int i = offset;
+        int bound = offset + SPECIES.loopBound(length);
+        for (; i < bound; i += SPECIES.length()) {
+            IntVector index = IntVector.fromArray(SPECIES, indexes, i);
+            index.sub(index.mul(205).lanewise(VectorOperators.LSHR, 11).mul(10)).intoArray(outStems, i);
+            index.sub(index.mul(171).lanewise(VectorOperators.LSHR, 11).mul(12)).intoArray(outBranches, i);
+        }
+        DateKernels.stemsAndBranches(indexes, outStems, outBranches, i, offset + length - i);
+    }
+
+    /**
+     * The formula of DateKernels.jdFromDate, one vector of dates at a time
+     */
+    private static IntVector jdFromDates(int[] days, int[] months, int[] years, int i) {
+        IntVector mm = IntVector.fromArray(SPECIES, months, i);
+        IntVector a = mm.neg().add(2).lanewise(VectorOperators.LSHR, 31).lanewise(VectorOperators.XOR, 1);
+        IntVector y = IntVector.fromArray(SPECIES, years, i).add(4800).sub(a);
+        IntVector m = mm.add(a.mul(12)).sub(3);
+        IntVector common = IntVector.fromArray(SPECIES, days, i)
+                .add(m.mul(153).add(2).mul(52429).lanewise(VectorOperators.LSHR, 18))
+                .add(y.mul(365))
+                .add(y.lanewise(VectorOperators.ASHR, 2));
+        IntVector centuries = y.mul(5243).lanewise(VectorOperators.LSHR, 19);
+        IntVector gregorian = common.sub(centuries).add(centuries.lanewise(VectorOperators.ASHR, 2)).sub(32045);
+        VectorMask<Integer> julian = gregorian.compare(VectorOperators.LT, GREGORIAN_START);
+        return gregorian.blend(common.sub(32083), julian);
+    }
+
+    /**
+     * x % 60 for x from 0 to 2^24, where floats are exact: the float quotient is off by one at most
+     */
+    private static IntVector mod60(IntVector x) {
+        FloatVector quotient = (FloatVector) x.convert(VectorOperators.I2F, 0);
+        IntVector q = (IntVector) quotient.mul(1f / 60).convert(VectorOperators.F2I, 0);
+        IntVector r = x.sub(q.mul(60));
+        r = r.add(60, r.compare(VectorOperators.LT, 0));
+        return r.sub(60, r.compare(VectorOperators.GE, 60));
+    }
+}
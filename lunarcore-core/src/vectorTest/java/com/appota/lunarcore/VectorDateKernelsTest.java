@@ -0,0 +1,60 @@
+package com.appota.lunarcore;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class VectorDateKernelsTest {
+    private static final int BATCH = 4099;
+
+    @Test
+    public void sameAsScalar_wholeRange() {
+        int[] jd = new int[BATCH];
+        int[] days = new int[BATCH];
+        int[] months = new int[BATCH];
+        int[] years = new int[BATCH];
+        int[] expected = new int[BATCH];
+        int[] actual = new int[BATCH];
+        int[] expectedBranches = new int[BATCH];
+        int[] actualBranches = new int[BATCH];
+        int last = LunarCoreHelper.jdFromDate(31, 12, DateKernels.MAX_YEAR);
+        for (int start = 0; start <= last; start += BATCH) {
+            for (int i = 0; i < BATCH; i++) {
+                jd[i] = start + i;
+            }
+            DateKernels.jdToDates(jd, days, months, years);
+
+            DateKernels.jdFromDates(days, months, years, expected);
+            VectorDateKernels.jdFromDates(days, months, years, actual, 0, BATCH);
+            assertArrayEquals(expected, actual);
+
+            DateKernels.dayCanChi(jd, expected);
+            VectorDateKernels.dayCanChi(jd, actual, 0, BATCH);
+            assertArrayEquals(expected, actual);
+            VectorDateKernels.dayCanChi(days, months, years, actual, 0, BATCH);
+            assertArrayEquals(expected, actual);
+
+            DateKernels.stemsAndBranches(expected, days, expectedBranches);
+            VectorDateKernels.stemsAndBranches(expected, months, actualBranches, 0, BATCH);
+            assertArrayEquals(days, months);
+            assertArrayEquals(expectedBranches, actualBranches);
+        }
+    }
+
+    @Test
+    public void offsetAndTail() {
+        int[] days = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20 };
+        int[] months = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 1, 2, 3, 4, 5, 6, 7, 8 };
+        int[] years = new int[days.length];
+        for (int i = 0; i < years.length; i++) {
+            years[i] = 1580 + i;
+        }
+        int[] expected = new int[days.length];
+        int[] actual = new int[days.length];
+        DateKernels.jdFromDates(days, months, years, expected, 3, 15);
+        VectorDateKernels.jdFromDates(days, months, years, actual, 3, 15);
+        assertArrayEquals(expected, actual);
+        assertEquals(0, actual[2]);
+        assertEquals(0, actual[18]);
+    }
+}
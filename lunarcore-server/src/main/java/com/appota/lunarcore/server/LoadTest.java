@@ -0,0 +1,130 @@
+package com.appota.lunarcore.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Load test of LunarHttpServer: concurrent clients sending small conversion requests,
+ * then batch requests, and the latency percentiles of each.
+ *
+ *   java com.appota.lunarcore.server.LoadTest [clients] [requests] [url]
+ *
+ * Without a url, a server is started in this JVM on a free port.
+ * Dates are random in 1900-2100, so the first requests of each year share its computation.
+ */
+public class LoadTest {
+    private static final int BATCH_SIZE = 100;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        LunarHttpServer server = null;
+        String url;
+        if (args.length > 2) {
+            url = args[2];
+        } else {
+            server = new LunarHttpServer(0);
+            server.start();
+            url = "http://localhost:" + server.getPort();
+        }
+        System.out.println(clients + " clients, " + requests + " requests, "
+                + (RequestExecutors.hasVirtualThreads() ? "virtual threads" : "thread pool"));
+        try {
+            run("warm-up", url, clients, requests / 4, false);
+            run("solar2lunar", url, clients, requests, false);
+            run("solar2lunar/batch of " + BATCH_SIZE, url, clients, requests / BATCH_SIZE, true);
+            if (server != null) {
+                System.out.println("Year tables computed: " + server.getService().getComputedYears());
+            }
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+    }
+
+    private static void run(String name, final String url, int clients, int requests, final boolean batch)
+            throws InterruptedException {
+        final int perClient = Math.max(1, requests / clients);
+        final long[][] latencies = new long[clients][perClient];
+        final CountDownLatch done = new CountDownLatch(clients);
+        final int[] errors = new int[clients];
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            final int client = c;
+            Thread thread = new Thread(() -> {
+                Random random = new Random(client);
+                for (int i = 0; i < perClient; i++) {
+                    long begin = System.nanoTime();
+                    try {
+                        if (batch) {
+                            StringBuilder body = new StringBuilder();
+                            for (int k = 0; k < BATCH_SIZE; k++) {
+                                body.append(1900 + random.nextInt(201)).append('-').append(1 + random.nextInt(12))
+                                        .append('-').append(1 + random.nextInt(28)).append('\n');
+                            }
+                            request(url + "/solar2lunar/batch?tz=7", body.toString());
+                        } else {
+                            request(url + "/solar2lunar?day=" + (1 + random.nextInt(28)) + "&month="
+                                    + (1 + random.nextInt(12)) + "&year=" + (1900 + random.nextInt(201)) + "&tz=7", null);
+                        }
+                    } catch (IOException e) {
+                        errors[client]++;
+                    }
+                    latencies[client][i] = System.nanoTime() - begin;
+                }
+                done.countDown();
+            });
+            thread.start();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = new long[clients * perClient];
+        int errorCount = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(latencies[c], 0, all, c * perClient, perClient);
+            errorCount += errors[c];
+        }
+        Arrays.sort(all);
+        System.out.println(String.format("%-28s %8d requests %6.0f req/s  p50 %7.2f ms  p90 %7.2f ms  p99 %7.2f ms"
+                        + "  max %7.2f ms  errors %d", name, all.length, all.length * 1e9 / elapsed,
+                percentile(all, 50), percentile(all, 90), percentile(all, 99), all[all.length - 1] / 1e6, errorCount));
+    }
+
+    private static double percentile(long[] sorted, int percent) {
+        int index = (int) Math.ceil(sorted.length * percent / 100.0) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static String request(String url, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        if (body != null) {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            OutputStream out = connection.getOutputStream();
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+            out.close();
+        }
+        if (connection.getResponseCode() != 200) {
+            throw new IOException("HTTP " + connection.getResponseCode());
+        }
+        InputStream in = connection.getInputStream();
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            response.write(buffer, 0, read);
+        }
+        in.close();
+        return new String(response.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
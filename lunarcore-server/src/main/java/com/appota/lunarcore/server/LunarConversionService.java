@@ -0,0 +1,151 @@
+package com.appota.lunarcore.server;
+
+import com.appota.lunarcore.LunarCalendar;
+import com.appota.lunarcore.LunarCoreHelper;
+import com.appota.lunarcore.LunarYearTable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous conversions for a service handling many small concurrent requests.
+ *
+ * The expensive part of a conversion (months 11, leap month, new moons) only depends on (year, timeZone):
+ * it is computed once per pair, as a one year LunarYearTable, and shared through a CompletableFuture.
+ * Concurrent requests for the same pair wait for the same future instead of computing it again,
+ * later requests get the completed table and only do a lookup.
+ *
+ * At most maxYears tables are kept; when full, completed ones are dropped to make room.
+ */
+public class LunarConversionService {
+    public static final int DEFAULT_MAX_YEARS = 4096;
+
+    private final Executor executor;
+    private final int maxYears;
+    private final ConcurrentHashMap<Long, CompletableFuture<LunarYearTable>> years = new ConcurrentHashMap<>();
+    private final AtomicLong computedYears = new AtomicLong();
+
+    public LunarConversionService(Executor executor) {
+        this(executor, DEFAULT_MAX_YEARS);
+    }
+
+    /**
+     *
+     * @param executor - runs the year computations
+     * @param maxYears - maximum number of (year, timeZone) tables kept
+     */
+    public LunarConversionService(Executor executor, int maxYears) {
+        this.executor = executor;
+        this.maxYears = maxYears;
+    }
+
+    /**
+     *
+     * @param year - solar year, or lunar year
+     * @param timeZone
+     * @return the table of this year and time zone, computed once for all the callers
+     */
+    public CompletableFuture<LunarYearTable> yearTable(int year, double timeZone) {
+        // Throws IllegalArgumentException if this is not a time zone
+        final double zone = LunarCalendar.forOffset(timeZone).getTimeZone();
+        Long key = ((long) year << 16) | ((int) (zone * 4) & 0xFFFF);
+        CompletableFuture<LunarYearTable> table = years.get(key);
+        if (table == null) {
+            if (years.size() >= maxYears) {
+                evictCompleted();
+            }
+            table = years.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> {
+                computedYears.incrementAndGet();
+                return LunarYearTable.build(year, year, zone);
+            }, executor));
+        }
+        return table;
+    }
+
+    /**
+     *
+     * @return array of [lunarDay, lunarMonth, lunarYear, leapOrNot], see LunarCoreHelper.convertSolar2Lunar
+     * @throws IllegalArgumentException if the solar date doesn't exist
+     */
+    public CompletableFuture<int[]> convertSolar2Lunar(int solarDay, int solarMonth, int solarYear, double timeZone) {
+        checkSolarDate(solarDay, solarMonth, solarYear);
+        return yearTable(solarYear, timeZone)
+                .thenApply(table -> table.convertSolar2Lunar(solarDay, solarMonth, solarYear));
+    }
+
+    /**
+     *
+     * @return array of [solarDay, solarMonth, solarYear], filled with zeros if the input is invalid,
+     * see LunarCoreHelper.convertLunar2Solar
+     */
+    public CompletableFuture<int[]> convertLunar2Solar(int lunarDay, int lunarMonth, int lunarYear, int lunarLeap,
+                                                       double timeZone) {
+        return yearTable(lunarYear, timeZone)
+                .thenApply(table -> table.convertLunar2Solar(lunarDay, lunarMonth, lunarYear, lunarLeap));
+    }
+
+    /**
+     * Convert many dates with one future: each distinct year is only looked up once.
+     *
+     * @param solarDays
+     * @param solarMonths
+     * @param solarYears
+     * @param timeZone
+     * @return lunar dates packed in longs (see LunarCoreHelper.packDate), in the order of the input
+     * @throws IllegalArgumentException if one of the solar dates doesn't exist
+     */
+    public CompletableFuture<long[]> convertSolar2LunarBatch(int[] solarDays, int[] solarMonths, int[] solarYears,
+                                                             double timeZone) {
+        int length = solarYears.length;
+        Map<Integer, CompletableFuture<LunarYearTable>> byYear = new HashMap<>();
+        List<CompletableFuture<LunarYearTable>> tables = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            checkSolarDate(solarDays[i], solarMonths[i], solarYears[i]);
+            CompletableFuture<LunarYearTable> table = byYear.get(solarYears[i]);
+            if (table == null) {
+                table = yearTable(solarYears[i], timeZone);
+                byYear.put(solarYears[i], table);
+            }
+            tables.add(table);
+        }
+        return CompletableFuture.allOf(byYear.values().toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            long[] out = new long[length];
+            for (int i = 0; i < length; i++) {
+                out[i] = tables.get(i).join().convertSolar2LunarPacked(solarDays[i], solarMonths[i], solarYears[i]);
+            }
+            return out;
+        });
+    }
+
+    /**
+     *
+     * @return number of year tables computed so far, less than the number of requests thanks to the sharing
+     */
+    public long getComputedYears() {
+        return computedYears.get();
+    }
+
+    private static void checkSolarDate(int solarDay, int solarMonth, int solarYear) {
+        if (!LunarCoreHelper.isValidSolarDate(solarDay, solarMonth, solarYear)) {
+            throw new IllegalArgumentException("no such solar date: " + solarDay + "/" + solarMonth + "/" + solarYear);
+        }
+    }
+
+    private void evictCompleted() {
+        Iterator<Map.Entry<Long, CompletableFuture<LunarYearTable>>> it = years.entrySet().iterator();
+        int toRemove = maxYears / 4;
+        while (it.hasNext() && toRemove > 0) {
+            if (it.next().getValue().isDone()) {
+                it.remove();
+                toRemove--;
+            }
+        }
+    }
+}
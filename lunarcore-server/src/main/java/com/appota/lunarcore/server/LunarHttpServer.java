@@ -0,0 +1,191 @@
+package com.appota.lunarcore.server;
+
+import com.appota.lunarcore.LunarCoreHelper;
+import com.appota.lunarcore.LunarMetrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The conversions over HTTP, on the JDK embedded server. Each request runs on its own virtual thread
+ * (or on a pool thread before JDK 21) and waits for LunarConversionService.
+ *
+ *   GET  /solar2lunar?day=10&month=2&year=2024&tz=7         {"day":1,"month":1,"year":2024,"leap":0}
+ *   GET  /lunar2solar?day=1&month=1&year=2024&leap=0&tz=7   {"day":10,"month":2,"year":2024}
+ *   POST /solar2lunar/batch?tz=7                             one yyyy-mm-dd date per line in the body,
+ *                                                            one "day,month,year,leap" line per date in the response
+ *   GET  /metrics                                            LunarMetrics in the Prometheus text format
+ *
+ * The time zone is optional, 7.0 by default. Invalid input gives a 400 response.
+ */
+public class LunarHttpServer {
+    private static final double DEFAULT_TIME_ZONE = 7.0;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LunarConversionService service;
+
+    /**
+     *
+     * @param port - port to listen to, 0 for any free port
+     */
+    public LunarHttpServer(int port) throws IOException {
+        executor = RequestExecutors.newRequestExecutor();
+        service = new LunarConversionService(executor);
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(executor);
+        server.createContext("/solar2lunar", exchange -> handle(exchange, false));
+        server.createContext("/lunar2solar", exchange -> handle(exchange, true));
+        server.createContext("/metrics", exchange -> {
+            try {
+                respond(exchange, 200, "text/plain; version=0.0.4", LunarMetrics.export());
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    public static void main(String[] args) throws IOException {
+        LunarHttpServer server = new LunarHttpServer(args.length > 0 ? Integer.parseInt(args[0]) : 8080);
+        server.start();
+        System.out.println("Listening on port " + server.getPort()
+                + (RequestExecutors.hasVirtualThreads() ? ", virtual threads" : ", thread pool"));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public LunarConversionService getService() {
+        return service;
+    }
+
+    private void handle(HttpExchange exchange, boolean lunar2Solar) throws IOException {
+        try {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String tz = query.get("tz");
+            double timeZone = tz == null ? DEFAULT_TIME_ZONE : Double.parseDouble(tz);
+            String path = exchange.getRequestURI().getPath();
+            if (!lunar2Solar && path.equals("/solar2lunar/batch") && "POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 200, "text/plain", batch(exchange.getRequestBody(), timeZone));
+            } else if (!path.equals(lunar2Solar ? "/lunar2solar" : "/solar2lunar")) {
+                respond(exchange, 404, "application/json", "{\"error\":\"not found\"}");
+            } else if (lunar2Solar) {
+                int[] solar = service.convertLunar2Solar(intParam(query, "day"), intParam(query, "month"),
+                        intParam(query, "year"), query.containsKey("leap") ? intParam(query, "leap") : 0, timeZone).join();
+                if (solar[0] == 0) {
+                    throw new IllegalArgumentException("no such lunar date");
+                }
+                respond(exchange, 200, "application/json",
+                        "{\"day\":" + solar[0] + ",\"month\":" + solar[1] + ",\"year\":" + solar[2] + "}");
+            } else {
+                int[] lunar = service.convertSolar2Lunar(intParam(query, "day"), intParam(query, "month"),
+                        intParam(query, "year"), timeZone).join();
+                respond(exchange, 200, "application/json", "{\"day\":" + lunar[0] + ",\"month\":" + lunar[1]
+                        + ",\"year\":" + lunar[2] + ",\"leap\":" + lunar[3] + "}");
+            }
+        } catch (IllegalArgumentException | CompletionException e) {
+            String message = e.getMessage() == null ? "invalid request" : e.getMessage().replace('"', '\'');
+            respond(exchange, 400, "application/json", "{\"error\":\"" + message + "\"}");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String batch(InputStream body, double timeZone) throws IOException {
+        String[] lines = new String(readAll(body), StandardCharsets.UTF_8).split("\n");
+        int count = 0;
+        int[] days = new int[lines.length];
+        int[] months = new int[lines.length];
+        int[] years = new int[lines.length];
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] parts = line.split("-");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("not a yyyy-mm-dd date: " + line);
+            }
+            years[count] = Integer.parseInt(parts[0]);
+            months[count] = Integer.parseInt(parts[1]);
+            days[count] = Integer.parseInt(parts[2]);
+            count++;
+        }
+        long[] lunar = service.convertSolar2LunarBatch(copy(days, count), copy(months, count), copy(years, count),
+                timeZone).join();
+        StringBuilder out = new StringBuilder(count * 16);
+        for (long date : lunar) {
+            out.append(LunarCoreHelper.unpackDay(date)).append(',').append(LunarCoreHelper.unpackMonth(date))
+                    .append(',').append(LunarCoreHelper.unpackYear(date)).append(',')
+                    .append(LunarCoreHelper.unpackLeap(date)).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static int[] copy(int[] values, int count) {
+        int[] out = new int[count];
+        System.arraycopy(values, 0, out, 0, count);
+        return out;
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query != null) {
+            for (String param : query.split("&")) {
+                int eq = param.indexOf('=');
+                if (eq > 0) {
+                    params.put(param.substring(0, eq), param.substring(eq + 1));
+                }
+            }
+        }
+        return params;
+    }
+
+    private static int intParam(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("missing " + name);
+        }
+        return Integer.parseInt(value);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(bytes);
+        out.close();
+    }
+}
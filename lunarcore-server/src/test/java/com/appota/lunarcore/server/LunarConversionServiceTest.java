@@ -0,0 +1,88 @@
+package com.appota.lunarcore.server;
+
+import com.appota.lunarcore.LunarCoreHelper;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class LunarConversionServiceTest {
+    @Test
+    public void sameAsHelper() {
+        LunarConversionService service = new LunarConversionService(Runnable::run);
+        for (double timeZone : new double[] { 7.0, 8.0, 9.0 }) {
+            for (int year = 1990; year <= 2030; year++) {
+                for (int month = 1; month <= 12; month++) {
+                    int[] lunar = service.convertSolar2Lunar(15, month, year, timeZone).join();
+                    assertArrayEquals(LunarCoreHelper.convertSolar2Lunar(15, month, year, timeZone), lunar);
+                    assertArrayEquals(new int[] { 15, month, year },
+                            service.convertLunar2Solar(lunar[0], lunar[1], lunar[2], lunar[3], timeZone).join());
+                }
+            }
+        }
+        assertArrayEquals(new int[] { 0, 0, 0 }, service.convertLunar2Solar(1, 3, 2023, 1, 7.0).join());
+    }
+
+    @Test
+    public void concurrentRequests_computeOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        // Not the executor of the callers: they would all be blocked, waiting for a computation queued behind them
+        ExecutorService serviceExecutor = Executors.newFixedThreadPool(2);
+        try {
+            final LunarConversionService service = new LunarConversionService(serviceExecutor);
+            final CountDownLatch start = new CountDownLatch(1);
+            List<CompletableFuture<int[]>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                final int day = 1 + i % 28;
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return service.convertSolar2Lunar(day, 6, 2024, 7.0).join();
+                }, executor));
+            }
+            start.countDown();
+            for (int i = 0; i < 64; i++) {
+                assertArrayEquals(LunarCoreHelper.convertSolar2Lunar(1 + i % 28, 6, 2024, 7.0), results.get(i).get());
+            }
+            assertEquals(1, service.getComputedYears());
+            service.convertSolar2Lunar(1, 6, 2024, 8.0).join();
+            assertEquals(2, service.getComputedYears());
+        } finally {
+            executor.shutdown();
+            serviceExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void batch() {
+        LunarConversionService service = new LunarConversionService(Runnable::run, 4);
+        int[] days = { 10, 11, 1, 31, 22, 12 };
+        int[] months = { 2, 2, 1, 12, 3, 2 };
+        int[] years = { 2024, 2024, 1900, 1999, 2023, 2024 };
+        long[] lunar = service.convertSolar2LunarBatch(days, months, years, 7.0).join();
+        for (int i = 0; i < days.length; i++) {
+            assertEquals(LunarCoreHelper.convertSolar2LunarPacked(days[i], months[i], years[i], 7.0), lunar[i]);
+        }
+        assertEquals(4, service.getComputedYears());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSolarDate() {
+        new LunarConversionService(Runnable::run).convertSolar2Lunar(29, 2, 2023, 7.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidTimeZone() {
+        new LunarConversionService(Runnable::run).convertSolar2Lunar(1, 1, 2024, 7.3);
+    }
+}
@@ -0,0 +1,74 @@
+package com.appota.lunarcore.server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class LunarHttpServerTest {
+    private LunarHttpServer server;
+
+    @Before
+    public void start() throws IOException {
+        server = new LunarHttpServer(0);
+        server.start();
+    }
+
+    @After
+    public void stop() {
+        server.stop();
+    }
+
+    private String request(String path, String body, int expectedStatus) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path)
+                .openConnection();
+        if (body != null) {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            OutputStream out = connection.getOutputStream();
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+            out.close();
+        }
+        assertEquals(expectedStatus, connection.getResponseCode());
+        InputStream in = expectedStatus == 200 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) >= 0) {
+            response.write(b);
+        }
+        in.close();
+        return new String(response.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void endpoints() throws IOException {
+        assertEquals("{\"day\":1,\"month\":1,\"year\":2024,\"leap\":0}",
+                request("/solar2lunar?day=10&month=2&year=2024&tz=7", null, 200));
+        assertEquals("{\"day\":22,\"month\":3,\"year\":2023}",
+                request("/lunar2solar?day=1&month=2&year=2023&leap=1", null, 200));
+        assertEquals("1,1,2024,0\n1,2,2023,1\n", request("/solar2lunar/batch?tz=7", "2024-02-10\n2023-03-22\n", 200));
+        assertTrue(request("/metrics", null, 200).contains("lunarcore_calls_total{step=\"new_moon\"} "));
+    }
+
+    @Test
+    public void errors() throws IOException {
+        request("/solar2lunar?day=10&month=2", null, 400);
+        request("/solar2lunar?day=10&month=2&year=2024&tz=abc", null, 400);
+        request("/lunar2solar?day=1&month=3&year=2023&leap=1", null, 400);
+        request("/solar2lunar/batch", "10/02/2024\n", 400);
+        // Dates that don't exist
+        request("/solar2lunar?day=40&month=13&year=2024", null, 400);
+        request("/solar2lunar?day=29&month=2&year=2023", null, 400);
+        request("/solar2lunar/batch", "2024-02-10\n2024-02-30\n", 400);
+        request("/solar2lunar/other", null, 404);
+    }
+}